@@ -0,0 +1,19 @@
+/**
+ * Activation function of a dense layer.
+ * Only used to choose a DenseLayer implementation at construction time; the
+ * forward and backward kernels never look at it.
+ */
+public enum Activation {
+    SIGMOID,
+    TANH,
+    LINEAR,
+    FAST_SIGMOID,  // FastActivations.sigmoid, within FastActivations.MAX_SIGMOID_ERROR
+    FAST_TANH;     // FastActivations.tanh, within FastActivations.MAX_TANH_ERROR
+
+    /**
+     * Parse an activation name such as "tanh" (case-insensitive)
+     */
+    public static Activation parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,149 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * ActivationComparison: Exact vs fast (table-interpolated) activations
+ * Trains the Test1 (XOR), Test2 (sin) and Test3 (letters) configurations
+ * twice from the same starting weights, once with Math.exp/Math.tanh and
+ * once with MLP.setFastActivations(true), and reports training time, final
+ * errors, test accuracy and the largest output difference between the two
+ * activation modes on the same weights.
+ *
+ * Usage: java ActivationComparison [letterEpochs]
+ */
+public class ActivationComparison {
+
+    public static void main(String[] args) throws IOException {
+        int letterEpochs = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        System.out.println("===========================================");
+        System.out.println("Activation Comparison: Exact vs Fast");
+        System.out.println("===========================================\n");
+        System.out.printf("FastActivations maximum error: sigmoid %.1e, tanh %.1e%n%n",
+                FastActivations.MAX_SIGMOID_ERROR, FastActivations.MAX_TANH_ERROR);
+
+        File log = File.createTempFile("activation_comparison", ".txt");
+        log.deleteOnExit();
+
+        // Test1: XOR, 2x4x1 sigmoid/sigmoid, full batch
+        double[][] xorInputs = {{0, 0}, {0, 1}, {1, 0}, {1, 1}};
+        double[][] xorTargets = {{0}, {1}, {1}, {0}};
+
+        // Test2: sin(x1 - x2 + x3 - x4), 4x5x1 tanh/linear, 400 train / 100 test
+        Random random = new Random(42);
+        double[][] sinInputs = new double[500][4];
+        double[][] sinTargets = new double[500][1];
+        for (int p = 0; p < 500; p++) {
+            for (int i = 0; i < 4; i++) {
+                sinInputs[p][i] = random.nextDouble() * 2 - 1;
+            }
+            sinTargets[p][0] = Math.sin(sinInputs[p][0] - sinInputs[p][1] + sinInputs[p][2] - sinInputs[p][3]);
+        }
+        double[][] sinTrainInputs = new double[400][];
+        double[][] sinTrainTargets = new double[400][];
+        double[][] sinTestInputs = new double[100][];
+        double[][] sinTestTargets = new double[100][];
+        for (int p = 0; p < 500; p++) {
+            if (p < 400) {
+                sinTrainInputs[p] = sinInputs[p];
+                sinTrainTargets[p] = sinTargets[p];
+            } else {
+                sinTestInputs[p - 400] = sinInputs[p];
+                sinTestTargets[p - 400] = sinTargets[p];
+            }
+        }
+
+        // Test3: letters, 16x30x26 tanh/sigmoid, 80/20 split
+        LetterData data = LetterData.load("letter-recognition.csv");
+        int trainSize = (int) (data.size() * 0.8);
+        int testSize = data.size() - trainSize;
+        double[][] letterTrainInputs = new double[trainSize][];
+        double[][] letterTrainTargets = new double[trainSize][];
+        double[][] letterTestInputs = new double[testSize][];
+        double[][] letterTestTargets = new double[testSize][];
+        for (int p = 0; p < data.size(); p++) {
+            if (p < trainSize) {
+                letterTrainInputs[p] = data.inputs[p];
+                letterTrainTargets[p] = data.targets[p];
+            } else {
+                letterTestInputs[p - trainSize] = data.inputs[p];
+                letterTestTargets[p - trainSize] = data.targets[p];
+            }
+        }
+
+        System.out.printf("%-24s %-6s %10s %14s %14s %14s %16s%n", "Configuration", "Mode", "Time (s)",
+                "Train error", "Test error", "Test accuracy", "Max output diff");
+        compare("Test1 XOR 2x4x1", new int[] {2, 4, 1}, false, false, 10000, 4, 0.5,
+                xorInputs, xorTargets, xorInputs, xorTargets, log);
+        compare("Test2 sin 4x5x1", new int[] {4, 5, 1}, true, true, 5000, 20, 0.01,
+                sinTrainInputs, sinTrainTargets, sinTestInputs, sinTestTargets, log);
+        compare("Test3 letters 16x30x26", new int[] {16, 30, 26}, true, false, letterEpochs, 100, 0.01,
+                letterTrainInputs, letterTrainTargets, letterTestInputs, letterTestTargets, log);
+    }
+
+    /**
+     * Train one configuration in both modes from the same weights and print a row for each
+     */
+    private static void compare(String name, int[] shape, boolean useTanhHidden, boolean useLinearOutput,
+                                int epochs, int batchSize, double learningRate,
+                                double[][] trainInputs, double[][] trainTargets,
+                                double[][] testInputs, double[][] testTargets, File log) {
+        MLP exact = new MLP(shape[0], shape[1], shape[2], useTanhHidden, useLinearOutput);
+        MLP fast = new MLP(shape[0], shape[1], shape[2], useTanhHidden, useLinearOutput);
+        double[] w1 = new double[shape[1] * (shape[0] + 1)];
+        double[] w2 = new double[shape[2] * (shape[1] + 1)];
+        exact.copyWeights(w1, w2);
+        fast.setWeights(w1, w2);
+        fast.setFastActivations(true);
+
+        for (MLP network : new MLP[] {exact, fast}) {
+            Training trainer = new Training(network, epochs, batchSize, learningRate);
+            trainer.setLogFileName(log.getPath());
+
+            long start = System.nanoTime();
+            double trainError = trainer.train(trainInputs, trainTargets, false);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            double testError = trainer.test(testInputs, testTargets);
+            String accuracy = "-";
+            if (shape[2] > 1) {
+                try (Evaluator evaluator = new Evaluator(network.inference())) {
+                    EvaluationResult result = evaluator.evaluate(testInputs, testTargets, 1);
+                    accuracy = String.format("%.2f%%", 100.0 * result.getAccuracy());
+                }
+            } else if (!useLinearOutput) {
+                accuracy = String.format("%.2f%%", 100.0 * binaryAccuracy(network, testInputs, testTargets));
+            }
+
+            // Same trained weights, evaluated once with each activation mode
+            boolean wasFast = network.hasFastActivations();
+            double maxDiff = 0.0;
+            for (double[] input : testInputs) {
+                network.setFastActivations(false);
+                double[] reference = network.forward(input).clone();
+                network.setFastActivations(true);
+                double[] approximate = network.forward(input);
+                for (int k = 0; k < reference.length; k++) {
+                    maxDiff = Math.max(maxDiff, Math.abs(reference[k] - approximate[k]));
+                }
+            }
+            network.setFastActivations(wasFast);
+
+            System.out.printf("%-24s %-6s %10.2f %14.6f %14.6f %14s %16.2e%n", network == exact ? name : "",
+                    wasFast ? "fast" : "exact", seconds, trainError, testError, accuracy, maxDiff);
+        }
+    }
+
+    /**
+     * Fraction of single-output examples on the right side of 0.5
+     */
+    private static double binaryAccuracy(Network network, double[][] inputs, double[][] targets) {
+        int correct = 0;
+        for (int p = 0; p < inputs.length; p++) {
+            double output = network.forward(inputs[p])[0];
+            if ((output >= 0.5) == (targets[p][0] >= 0.5)) correct++;
+        }
+        return (double) correct / inputs.length;
+    }
+}
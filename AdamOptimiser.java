@@ -0,0 +1,122 @@
+import java.util.Arrays;
+
+/**
+ * Adam (Kingma and Ba, 2015).
+ * The first and second moment estimates of each weight sit next to each
+ * other in one state array (moments[2i] = m, moments[2i + 1] = v), so the
+ * update streams through the weights, the gradients and the state once.
+ * The bias corrections are folded into a per-step size,
+ *   alpha = learningRate * sqrt(1 - beta2^t) / (1 - beta1^t)
+ *   w += alpha * m / (sqrt(v) + epsilon * sqrt(1 - beta2^t))
+ * which is the same update as dividing m and v by their corrections.
+ */
+public class AdamOptimiser implements Optimiser {
+    private final double beta1;
+    private final double beta2;
+    private final double epsilon;
+    private double[] moments = new double[0];  // Interleaved (m, v) per weight, grown on first use
+    private long step;                          // Number of beginStep calls
+    private double beta1Power = 1.0;            // beta1^step
+    private double beta2Power = 1.0;            // beta2^step
+
+    /**
+     * Constructor for AdamOptimiser with the usual defaults (0.9, 0.999, 1e-8)
+     */
+    public AdamOptimiser() {
+        this(0.9, 0.999, 1e-8);
+    }
+
+    /**
+     * Constructor for AdamOptimiser
+     * @param beta1 Decay of the first moment estimate, in [0, 1)
+     * @param beta2 Decay of the second moment estimate, in [0, 1)
+     * @param epsilon Added to the root of the second moment to avoid division by zero
+     */
+    public AdamOptimiser(double beta1, double beta2, double epsilon) {
+        if (!(beta1 >= 0.0 && beta1 < 1.0) || !(beta2 >= 0.0 && beta2 < 1.0)) {
+            throw new IllegalArgumentException("beta1 and beta2 must be in [0, 1), got " + beta1 + ", " + beta2);
+        }
+        if (!(epsilon > 0.0)) {
+            throw new IllegalArgumentException("epsilon must be positive, got " + epsilon);
+        }
+        this.beta1 = beta1;
+        this.beta2 = beta2;
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public void beginStep() {
+        step++;
+        beta1Power *= beta1;
+        beta2Power *= beta2;
+    }
+
+    @Override
+    public void update(double[] w, double[] g, int offset, int n, double learningRate) {
+        double[] s = ensureState(offset + n);
+        double root = Math.sqrt(1.0 - beta2Power);
+        double alpha = learningRate * root / (1.0 - beta1Power);
+        double eps = epsilon * root;
+        double b1 = beta1;
+        double b2 = beta2;
+        double c1 = 1.0 - beta1;
+        double c2 = 1.0 - beta2;
+        for (int i = 0, m = 2 * offset; i < n; i++, m += 2) {
+            double gi = g[i];
+            double mi = b1 * s[m] + c1 * gi;
+            double vi = b2 * s[m + 1] + c2 * gi * gi;
+            s[m] = mi;
+            s[m + 1] = vi;
+            w[i] += alpha * mi / (Math.sqrt(vi) + eps);
+            g[i] = 0.0;
+        }
+    }
+
+    @Override
+    public void update(float[] w, float[] g, int offset, int n, double learningRate) {
+        double[] s = ensureState(offset + n);
+        double root = Math.sqrt(1.0 - beta2Power);
+        double alpha = learningRate * root / (1.0 - beta1Power);
+        double eps = epsilon * root;
+        double b1 = beta1;
+        double b2 = beta2;
+        double c1 = 1.0 - beta1;
+        double c2 = 1.0 - beta2;
+        for (int i = 0, m = 2 * offset; i < n; i++, m += 2) {
+            double gi = g[i];
+            double mi = b1 * s[m] + c1 * gi;
+            double vi = b2 * s[m + 1] + c2 * gi * gi;
+            s[m] = mi;
+            s[m + 1] = vi;
+            w[i] += (float) (alpha * mi / (Math.sqrt(vi) + eps));
+            g[i] = 0f;
+        }
+    }
+
+    private double[] ensureState(int size) {
+        if (moments.length < 2 * size) {
+            moments = Arrays.copyOf(moments, 2 * size);
+        }
+        return moments;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(moments, 0.0);
+        step = 0;
+        beta1Power = 1.0;
+        beta2Power = 1.0;
+    }
+
+    /**
+     * Get the number of update steps taken
+     */
+    public long getStep() {
+        return step;
+    }
+
+    @Override
+    public String toString() {
+        return "adam(" + beta1 + ", " + beta2 + ", " + epsilon + ")";
+    }
+}
@@ -0,0 +1,108 @@
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * AllocationCheck: Verifies that the training loop is allocation-free
+ * Trains the Test1, Test2 and Test3 configurations (online and mini-batch,
+ * double and float) with allocation tracking, prints the heap bytes allocated
+ * per steady-state epoch and exits with status 1 if any epoch allocates.
+ * Each configuration is first trained untracked on at least WARM_UP_EXAMPLES
+ * examples and until QUIET_RUNS runs in a row pass without JIT compilation.
+ * HotSpot resolves a class's string constants on the requesting thread the
+ * first time it queues a C2 compile, so a cold JIT shows up as one-off
+ * allocations that are not the training loop's.
+ *
+ * Usage: java AllocationCheck [epochs] [toleratedEpochs]
+ */
+public class AllocationCheck {
+    // Examples to train on untracked before measuring, enough for C2 to compile the loop
+    static final long WARM_UP_EXAMPLES = 200000;
+    // Upper bound on warm-up runs if the JIT never goes quiet
+    static final int MAX_WARM_UP_RUNS = 2000;
+    // Consecutive runs without compilation that end the warm-up (compile time is counted in whole ms)
+    static final int QUIET_RUNS = 2;
+
+    public static void main(String[] args) throws IOException {
+        int epochs = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int tolerated = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+
+        System.out.println("===========================================");
+        System.out.println("Allocation Check: Training Loop");
+        System.out.println("===========================================\n");
+
+        File log = File.createTempFile("allocation_check", ".txt");
+        log.deleteOnExit();
+
+        double[][] xorInputs = {{0, 0}, {0, 1}, {1, 0}, {1, 1}};
+        double[][] xorTargets = {{0}, {1}, {1}, {0}};
+        double[][] sinInputs = MLPBenchmarks.randomInputs(400, 4);
+        double[][] sinTargets = MLPBenchmarks.randomTargets(400, 1);
+        double[][] letterInputs = MLPBenchmarks.randomInputs(2000, 16);
+        double[][] letterTargets = MLPBenchmarks.randomTargets(2000, 26);
+
+        System.out.printf("%-28s %-8s %10s %16s %16s%n", "Configuration", "Precision", "Batch", "Max bytes/epoch", "Total bytes");
+        boolean allClean = true;
+        for (Precision precision : Precision.values()) {
+            allClean &= check("Test1 XOR (2x4x1)", precision.create(2, 4, 1, false, false), 4, xorInputs, xorTargets, epochs, tolerated, log);
+            allClean &= check("Test2 sin (4x5x1)", precision.create(4, 5, 1, true, true), 20, sinInputs, sinTargets, epochs, tolerated, log);
+            allClean &= check("Test2 sin (4x5x1)", precision.create(4, 5, 1, true, true), 1, sinInputs, sinTargets, epochs, tolerated, log);
+            allClean &= check("Test3 letters (16x30x26)", precision.create(16, 30, 26, true, false), 100, letterInputs, letterTargets, epochs, tolerated, log);
+            allClean &= check("Test3 letters (16x30x26)", precision.create(16, 30, 26, true, false), 1, letterInputs, letterTargets, epochs, tolerated, log);
+        }
+
+        System.out.println(allClean ? "\nPASS: steady-state epochs allocate nothing"
+                : "\nFAIL: some epochs allocated memory");
+        if (!allClean) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Warm up one configuration until the JIT is idle, then train it again with tracking and print its allocation summary
+     * @return true if no more than tolerated steady-state epochs allocated
+     */
+    static boolean check(String name, Network network, int batchSize, double[][] inputs, double[][] targets,
+                         int epochs, int tolerated, File log) {
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        long examples = 0;
+        int quietRuns = 0;
+        for (int run = 0; run < MAX_WARM_UP_RUNS && (examples < WARM_UP_EXAMPLES || quietRuns < QUIET_RUNS); run++) {
+            long compileMillis = jit.getTotalCompilationTime();
+            Training warmUp = new Training(network, epochs, batchSize, 0.01);
+            warmUp.setLogFileName(log.getPath());
+            warmUp.train(inputs, targets, false);
+            examples += (long) epochs * inputs.length;
+            quietRuns = jit.getTotalCompilationTime() == compileMillis ? quietRuns + 1 : 0;
+        }
+
+        Training trainer = new Training(network, epochs, batchSize, 0.01);
+        trainer.setLogFileName(log.getPath());
+        trainer.setTrackAllocations(true);
+        trainer.train(inputs, targets, false);
+
+        long[] bytes = trainer.getAllocatedBytesPerEpoch();
+        long max = 0;
+        long total = 0;
+        int allocating = 0;
+        for (int e = 1; e < bytes.length; e++) {
+            max = Math.max(max, bytes[e]);
+            total += bytes[e];
+            if (bytes[e] != 0) allocating++;
+        }
+        String precision = network instanceof FloatMLP ? "float" : "double";
+        System.out.printf("%-28s %-8s %10d %16d %16d%n", name, precision, batchSize, max, total);
+        if (allocating > 0) {
+            System.out.println("  " + allocating + " epoch(s) allocated");
+        }
+
+        try {
+            trainer.checkAllocationFree(tolerated);
+            return true;
+        } catch (IllegalStateException e) {
+            System.out.println("  " + e.getMessage());
+            return false;
+        }
+    }
+}
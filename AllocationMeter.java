@@ -0,0 +1,52 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap bytes allocated by the current thread, using the HotSpot
+ * extension of ThreadMXBean. The cost of the measurement call itself (which
+ * allocates on some JDKs) is calibrated once and subtracted.
+ */
+public class AllocationMeter {
+    private final com.sun.management.ThreadMXBean threads;
+    private final long threadId;
+    private final long overhead;  // Bytes allocated by one allocatedBytes() call
+
+    /**
+     * Constructor for AllocationMeter; must be created on the thread it measures
+     * @throws UnsupportedOperationException if the JVM cannot report allocations
+     */
+    public AllocationMeter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new UnsupportedOperationException("Thread allocation tracking is not available on this JVM");
+        }
+        threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("Thread allocation tracking is not supported on this JVM");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        threadId = Thread.currentThread().getId();
+
+        // Calibrate: the smallest difference between back-to-back readings
+        long min = Long.MAX_VALUE;
+        for (int r = 0; r < 16; r++) {
+            long first = threads.getThreadAllocatedBytes(threadId);
+            long second = threads.getThreadAllocatedBytes(threadId);
+            min = Math.min(min, second - first);
+        }
+        overhead = min;
+    }
+
+    /**
+     * Get the total bytes allocated by the measured thread so far
+     */
+    public long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(threadId);
+    }
+
+    /**
+     * Bytes allocated between two readings, excluding the reading itself
+     */
+    public long since(long before) {
+        return Math.max(0, allocatedBytes() - before - overhead);
+    }
+}
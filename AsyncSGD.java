@@ -0,0 +1,107 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Asynchronous (Hogwild-style) online training for one MLP.
+ * Each worker streams its own contiguous slice of the training set and applies
+ * every example's update straight to the shared weights with no locks, so
+ * workers only meet at the end of an epoch rather than after every example.
+ * Updates from different workers may overwrite each other; for small learning
+ * rates and mostly-disjoint updates this costs little accuracy. Results are
+ * not reproducible between runs.
+ */
+public class AsyncSGD implements AutoCloseable {
+    private final MLP network;
+    private final int numThreads;
+    private final ExecutorService pool;
+    private final MLPWorkspace[] workspaces;  // Per-worker forward/backward scratch
+
+    /**
+     * Constructor for AsyncSGD
+     * @param network The MLP to train (its weights are shared by all workers)
+     * @param numThreads Number of worker threads
+     */
+    public AsyncSGD(MLP network, int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be at least 1, got " + numThreads);
+        }
+        this.network = network;
+        this.numThreads = numThreads;
+        this.pool = Executors.newFixedThreadPool(numThreads);
+        this.workspaces = new MLPWorkspace[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            workspaces[t] = network.newWorkspace();
+        }
+    }
+
+    /**
+     * Run one epoch of asynchronous online learning
+     * @param inputs Array of input vectors
+     * @param targets Array of target vectors
+     * @param learningRate Learning rate for gradient descent
+     * @return Total error over the epoch, as seen by the workers while training
+     */
+    public double runEpoch(double[][] inputs, double[][] targets, double learningRate) {
+        return runRange(inputs, targets, 0, inputs.length, learningRate);
+    }
+
+    /**
+     * Run asynchronous online learning over inputs[start..start+count)
+     * @return Total error over the range, as seen by the workers while training
+     */
+    public double runRange(final double[][] inputs, final double[][] targets, final int start, final int count,
+                           final double learningRate) {
+        List<Callable<Double>> slices = new ArrayList<>(numThreads);
+        for (int t = 0; t < numThreads; t++) {
+            final MLPWorkspace workspace = workspaces[t];
+            final int from = start + (int) ((long) count * t / numThreads);
+            final int to = start + (int) ((long) count * (t + 1) / numThreads);
+            slices.add(new Callable<Double>() {
+                @Override
+                public Double call() {
+                    double error = 0.0;
+                    for (int p = from; p < to; p++) {
+                        error += network.sgdStep(workspace, inputs[p], targets[p], learningRate);
+                    }
+                    return error;
+                }
+            });
+        }
+
+        double error = 0.0;
+        try {
+            for (Future<Double> slice : pool.invokeAll(slices)) {
+                error += slice.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during asynchronous epoch", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Asynchronous worker failed", e.getCause());
+        }
+
+        // Workers bypass updateWeights, so bring the transposed copy back in sync
+        network.refreshTransposedW2();
+        return error;
+    }
+
+    /**
+     * Get number of worker threads
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Shut down the worker pool
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,138 @@
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * AsyncTrainingComparison: Serial vs asynchronous online training
+ * Runs the Test2 (sin approximation) and Test3 (letter recognition) workloads
+ * with batchSize = 1, once with the serial loop and once with lock-free
+ * asynchronous workers, and prints training error against wall-clock time
+ * so convergence per second can be compared directly. Both networks start
+ * from the same weights and each mode trains in a single train() call, so
+ * the curves come from a metrics sink and exclude pool and thread setup.
+ *
+ * Usage: java AsyncTrainingComparison [numThreads] [test2Epochs] [test3Epochs]
+ */
+public class AsyncTrainingComparison {
+
+    public static void main(String[] args) throws IOException {
+        int numThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int test2Epochs = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int test3Epochs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        System.out.println("===========================================");
+        System.out.println("Asynchronous vs Serial Online Training");
+        System.out.println("===========================================");
+        System.out.println("Async workers: " + numThreads);
+
+        File log = File.createTempFile("async_comparison", ".txt");
+        log.deleteOnExit();
+
+        // Test2 workload: 400 examples of sin(x1 - x2 + x3 - x4), 4x5x1 tanh/linear
+        double[][] sinInputs = new double[400][4];
+        double[][] sinTargets = new double[400][1];
+        for (int p = 0; p < 400; p++) {
+            for (int i = 0; i < 4; i++) {
+                sinInputs[p][i] = Math.random() * 2 - 1;
+            }
+            sinTargets[p][0] = Math.sin(sinInputs[p][0] - sinInputs[p][1] + sinInputs[p][2] - sinInputs[p][3]);
+        }
+        System.out.println("\n--- Test2 workload (4x5x1, 400 examples, lr 0.01) ---");
+        compare(4, 5, 1, true, true, sinInputs, sinTargets, 0.01, test2Epochs, numThreads, log);
+
+        // Test3 workload: letter training set, 16x30x26 tanh/sigmoid
+        LetterData letters = LetterData.load("letter-recognition.csv");
+        int trainSize = (int) (letters.size() * 0.8);
+        double[][] trainInputs = new double[trainSize][];
+        double[][] trainTargets = new double[trainSize][];
+        System.arraycopy(letters.inputs, 0, trainInputs, 0, trainSize);
+        System.arraycopy(letters.targets, 0, trainTargets, 0, trainSize);
+        System.out.println("\n--- Test3 workload (16x30x26, " + trainSize + " examples, lr 0.01) ---");
+        compare(16, 30, 26, true, false, trainInputs, trainTargets, 0.01, test3Epochs, numThreads, log);
+    }
+
+    /**
+     * Train two networks from the same initial weights, each in one train()
+     * call, and print error vs elapsed epoch time and the time to a target error
+     */
+    static void compare(int ni, int nh, int no, boolean tanh, boolean linear,
+                        double[][] inputs, double[][] targets, double learningRate,
+                        int epochs, int numThreads, File log) {
+        MLP serialNet = new MLP(ni, nh, no, tanh, linear);
+        MLP asyncNet = new MLP(ni, nh, no, tanh, linear);
+        WeightSnapshot initial = new WeightSnapshot(serialNet);
+        initial.capture(serialNet, -1);
+        initial.restore(asyncNet);
+
+        Training serial = new Training(serialNet, epochs, 1, learningRate);
+        serial.setLogFileName(log.getPath());
+        ErrorCurve serialCurve = new ErrorCurve(epochs);
+        serial.addMetricsSink(serialCurve);
+        serial.train(inputs, targets, false);
+
+        Training async = new Training(asyncNet, epochs, 1, learningRate);
+        async.setLogFileName(log.getPath());
+        async.setNumThreads(numThreads);
+        async.setAsynchronous(true);
+        ErrorCurve asyncCurve = new ErrorCurve(epochs);
+        async.addMetricsSink(asyncCurve);
+        async.train(inputs, targets, false);
+
+        int reportInterval = Math.max(1, epochs / 10);
+        System.out.printf("%-7s %12s %14s %12s %14s%n", "Epoch", "Serial (s)", "Serial error", "Async (s)", "Async error");
+        for (int e = 0; e < epochs; e++) {
+            if (e % reportInterval == 0 || e == epochs - 1) {
+                System.out.printf("%-7d %12.3f %14.4f %12.3f %14.4f%n", e, serialCurve.seconds[e],
+                        serialCurve.errors[e], asyncCurve.seconds[e], asyncCurve.errors[e]);
+            }
+        }
+        System.out.printf("Epochs/sec: serial %.1f, async %.1f%n",
+                epochs / serialCurve.seconds[epochs - 1], epochs / asyncCurve.seconds[epochs - 1]);
+
+        // The worse of the two final errors is a target both runs reach
+        double target = Math.max(serialCurve.errors[epochs - 1], asyncCurve.errors[epochs - 1]);
+        System.out.printf("Time to error %.4f: serial %.3f s, async %.3f s%n", target,
+                serialCurve.secondsTo(target), asyncCurve.secondsTo(target));
+    }
+
+    /**
+     * Metrics sink that keeps each epoch's error and the training time up to
+     * the end of that epoch (setup and metrics I/O excluded)
+     */
+    private static final class ErrorCurve implements MetricsSink {
+        final double[] errors;
+        final double[] seconds;
+        private long nanos;
+
+        ErrorCurve(int epochs) {
+            errors = new double[epochs];
+            seconds = new double[epochs];
+        }
+
+        @Override
+        public void write(EpochMetrics metrics) {
+            nanos += metrics.getEpochNanos();
+            errors[metrics.getEpoch()] = metrics.getError();
+            seconds[metrics.getEpoch()] = nanos / 1e9;
+        }
+
+        /**
+         * Training time until the error first reached target
+         */
+        double secondsTo(double target) {
+            for (int e = 0; e < errors.length; e++) {
+                if (errors[e] <= target) {
+                    return seconds[e];
+                }
+            }
+            return Double.NaN;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,222 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Evaluates weight snapshots on a held-out set on its own thread.
+ * Three WeightSnapshot buffers cycle between the trainer and the validator:
+ * the trainer copies the weights into a free buffer and queues it, and the
+ * validator computes the validation error (sum of squared errors / 2, as in
+ * Training.test) while training continues. The best snapshot so far is kept;
+ * after patience validations in a row that fail to beat it by more than
+ * minDelta, shouldStop() turns true. If the validator is still busy when the
+ * next check is due, that check is skipped rather than making the trainer wait.
+ */
+public class BackgroundValidator implements AutoCloseable {
+    private static final int NUM_BUFFERS = 3;  // Best, being evaluated, being filled
+
+    private final double[][] inputs;
+    private final double[][] targets;
+    private final int patience;      // Validations without improvement before stopping (0 = never stop)
+    private final double minDelta;   // Improvement needed to count as better
+    private final BlockingQueue<WeightSnapshot> free;
+    private final BlockingQueue<WeightSnapshot> ready;
+    private final WeightSnapshot done;  // Queued by close to end the thread
+    private final Thread worker;
+
+    private WeightSnapshot best;     // Owned by the worker until it has finished
+    private volatile double bestError = Double.POSITIVE_INFINITY;
+    private volatile int bestEpoch = -1;
+    private volatile double lastError = Double.NaN;
+    private volatile int numValidations;
+    private volatile boolean stop;
+    private volatile RuntimeException failure;
+    private int stale;               // Validations since the last improvement
+    private int skipped;             // Checks dropped because no buffer was free (trainer only)
+
+    /**
+     * Constructor for BackgroundValidator; starts the validation thread
+     * @param network Network being trained (sets the snapshot shape)
+     * @param inputs Validation input vectors
+     * @param targets Validation target vectors
+     * @param patience Validations without improvement before shouldStop() (0 = never)
+     * @param minDelta Smallest error decrease that counts as an improvement
+     */
+    public BackgroundValidator(Network network, double[][] inputs, double[][] targets, int patience, double minDelta) {
+        if (patience < 0) {
+            throw new IllegalArgumentException("patience must not be negative, got " + patience);
+        }
+        this.inputs = inputs;
+        this.targets = targets;
+        this.patience = patience;
+        this.minDelta = minDelta;
+        this.free = new ArrayBlockingQueue<>(NUM_BUFFERS);
+        this.ready = new ArrayBlockingQueue<>(NUM_BUFFERS + 1);
+        for (int b = 0; b < NUM_BUFFERS; b++) {
+            free.add(new WeightSnapshot(network));
+        }
+        this.done = WeightSnapshot.empty();
+
+        worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                validateAll();
+            }
+        }, "background-validator");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void validateAll() {
+        try {
+            while (true) {
+                WeightSnapshot snapshot = ready.take();
+                if (snapshot == done) {
+                    return;
+                }
+                double error = evaluate(snapshot);
+                lastError = error;
+                if (error < bestError - minDelta || best == null) {
+                    if (best != null) {
+                        free.offer(best);
+                    }
+                    best = snapshot;
+                    bestError = error;
+                    bestEpoch = snapshot.epoch;
+                    stale = 0;
+                } else {
+                    free.offer(snapshot);
+                    stale++;
+                    if (patience > 0 && stale >= patience) {
+                        stop = true;
+                    }
+                }
+                numValidations++;
+            }
+        } catch (InterruptedException e) {
+            // Closed
+        } catch (RuntimeException e) {
+            failure = e;
+            stop = true;
+        }
+    }
+
+    /**
+     * Total validation error of a snapshot (sum of squared errors / 2)
+     */
+    private double evaluate(WeightSnapshot snapshot) {
+        InferenceModel model = snapshot.inference();
+        InferenceContext context = model.newContext();
+        double error = 0.0;
+        for (int p = 0; p < inputs.length; p++) {
+            double[] output = model.predict(inputs[p], context);
+            for (int k = 0; k < output.length; k++) {
+                double diff = targets[p][k] - output[k];
+                error += diff * diff / 2.0;
+            }
+        }
+        return error;
+    }
+
+    /**
+     * Snapshot the network and queue it for validation, without waiting
+     * @param network Network being trained
+     * @param epoch Epoch that just finished
+     * @return false if the validator was still busy and the check was skipped
+     */
+    public boolean submit(Network network, int epoch) {
+        WeightSnapshot snapshot = free.poll();
+        if (snapshot == null) {
+            skipped++;
+            return false;
+        }
+        snapshot.capture(network, epoch);
+        ready.offer(snapshot);
+        return true;
+    }
+
+    /**
+     * Snapshot the final weights, waiting for a free buffer, and wait until
+     * every queued snapshot has been validated
+     * @param network Network being trained
+     * @param epoch Last epoch run
+     */
+    public void finish(Network network, int epoch) {
+        try {
+            if (failure == null) {
+                WeightSnapshot snapshot = free.take();
+                snapshot.capture(network, epoch);
+                ready.put(snapshot);
+            }
+            ready.put(done);
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for validation", e);
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Validation failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * Whether early stopping has triggered (patience used up)
+     */
+    public boolean shouldStop() {
+        return stop;
+    }
+
+    /**
+     * Copy the best validated weights into the network; call after finish
+     * @return false if nothing was validated
+     */
+    public boolean restoreBest(Network network) {
+        if (best == null) {
+            return false;
+        }
+        best.restore(network);
+        return true;
+    }
+
+    /**
+     * Get the lowest validation error seen (infinity before the first validation)
+     */
+    public double getBestError() {
+        return bestError;
+    }
+
+    /**
+     * Get the epoch of the best validated weights (-1 before the first validation)
+     */
+    public int getBestEpoch() {
+        return bestEpoch;
+    }
+
+    /**
+     * Get the validation error of the most recent snapshot
+     */
+    public double getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Get number of snapshots validated so far
+     */
+    public int getNumValidations() {
+        return numValidations;
+    }
+
+    /**
+     * Get number of checks skipped because the validator was busy
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Stop the validation thread without waiting for queued snapshots
+     */
+    @Override
+    public void close() {
+        worker.interrupt();
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A single throughput benchmark run by BenchmarkRunner.
+ * Subclasses do their allocation and warm-state preparation in setup and the
+ * measured work in iteration, which returns how many operations it performed.
+ * Results that must not be optimised away go to consume().
+ */
+public abstract class Benchmark {
+    private static volatile double sink;  // Keeps consumed results live
+
+    private final String name;
+    private final Map<String, String> params = new LinkedHashMap<>();
+
+    /**
+     * Constructor for Benchmark
+     * @param name Benchmark name, e.g. "MLPBenchmarks.forward"
+     */
+    protected Benchmark(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Add a parameter describing this benchmark instance
+     * @return this, for chaining
+     */
+    public Benchmark param(String key, Object value) {
+        params.put(key, String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * Prepare state before warmup (not timed)
+     */
+    protected void setup() throws Exception {
+    }
+
+    /**
+     * Run one unit of measured work
+     * @return Number of operations performed
+     */
+    protected abstract long iteration() throws Exception;
+
+    /**
+     * Release resources after measurement (not timed)
+     */
+    protected void tearDown() throws Exception {
+    }
+
+    /**
+     * Unit of the reported score
+     */
+    protected String unit() {
+        return "ops/s";
+    }
+
+    /**
+     * Sink a result so the JIT cannot remove the work that produced it
+     */
+    protected static void consume(double value) {
+        if (value == Double.MIN_VALUE) {
+            sink = value;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    /**
+     * Benchmark name plus parameters, used to match results between runs
+     */
+    public String getId() {
+        return params.isEmpty() ? name : name + params;
+    }
+}
@@ -0,0 +1,427 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal JMH-style throughput harness.
+ * Each benchmark gets timed warmup iterations followed by measurement
+ * iterations; the score is the mean throughput with a 99.9% confidence
+ * interval from Student's t distribution, as in JMH. Results are written as
+ * JSON in the same layout JMH uses (benchmark, params, mode,
+ * primaryMetric.score/scoreError/scoreUnit/rawData), and can be compared
+ * against a previous result file to catch regressions.
+ *
+ * Like JMH, run(suite) forks a fresh JVM for every benchmark, with this
+ * JVM's arguments and class path, so JIT profiles and heap state from one
+ * benchmark cannot leak into the next and results do not depend on run
+ * order. A suite is a class with a static benchmarks() method; the child
+ * rebuilds the list and runs the benchmark at the same index.
+ */
+public class BenchmarkRunner {
+    static final double CONFIDENCE = 0.999;
+
+    private int warmupIterations = 3;
+    private int measurementIterations = 5;
+    private double iterationSeconds = 1.0;
+    private int forks = 1;   // JVMs per benchmark (0 = run in this JVM)
+    private Pattern filter;  // Only run benchmarks whose id matches (null = all)
+
+    /**
+     * Result of one benchmark
+     */
+    public static class Result {
+        public final Benchmark benchmark;
+        public final double[] samples;  // Throughput of each measurement iteration, fork by fork
+        public final int forks;         // JVMs the samples came from (0: the runner's own)
+        public final double score;
+        public final double scoreError;
+
+        Result(Benchmark benchmark, double[] samples, int forks) {
+            this.benchmark = benchmark;
+            this.samples = samples;
+            this.forks = forks;
+            double mean = 0;
+            for (double sample : samples) mean += sample;
+            mean /= samples.length;
+            double variance = 0;
+            for (double sample : samples) variance += (sample - mean) * (sample - mean);
+            variance = samples.length > 1 ? variance / (samples.length - 1) : 0;
+            this.score = mean;
+            // Half-width of the 99.9% interval (none from a single sample)
+            this.scoreError = samples.length > 1
+                    ? studentT(0.5 + CONFIDENCE / 2, samples.length - 1) * Math.sqrt(variance / samples.length)
+                    : 0;
+        }
+    }
+
+    /**
+     * Run the benchmarks of a suite matching the filter, each in its own
+     * forked JVM (or in this one if forks is 0), printing a summary line for each
+     * @param suite Class with a static benchmarks() method returning the suite in run order
+     * @return Results in run order
+     */
+    public List<Result> run(Class<?> suite) throws Exception {
+        List<Benchmark> benchmarks = benchmarks(suite);
+        if (forks == 0) {
+            return run(benchmarks);
+        }
+        List<Result> results = new ArrayList<>();
+        for (int b = 0; b < benchmarks.size(); b++) {
+            Benchmark benchmark = benchmarks.get(b);
+            if (filter != null && !filter.matcher(benchmark.getId()).find()) continue;
+
+            double[] samples = new double[forks * measurementIterations];
+            for (int f = 0; f < forks; f++) {
+                double[] forked = fork(suite, b);
+                System.arraycopy(forked, 0, samples, f * measurementIterations, measurementIterations);
+            }
+            results.add(report(benchmark, samples, forks));
+        }
+        return results;
+    }
+
+    /**
+     * Run all benchmarks matching the filter in this JVM, printing a summary line for each
+     * @return Results in run order
+     */
+    public List<Result> run(List<Benchmark> benchmarks) throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (Benchmark benchmark : benchmarks) {
+            if (filter != null && !filter.matcher(benchmark.getId()).find()) continue;
+            results.add(report(benchmark, measureAll(benchmark), 0));
+        }
+        return results;
+    }
+
+    private static Result report(Benchmark benchmark, double[] samples, int forks) {
+        Result result = new Result(benchmark, samples, forks);
+        System.out.printf("%-60s %16.1f +- %10.1f %s%n", benchmark.getId(), result.score,
+                result.scoreError, benchmark.unit());
+        return result;
+    }
+
+    /**
+     * Set up one benchmark, run its warmup and measurement iterations and tear it down
+     * @return Throughput of each measurement iteration
+     */
+    private double[] measureAll(Benchmark benchmark) throws Exception {
+        benchmark.setup();
+        try {
+            for (int w = 0; w < warmupIterations; w++) {
+                measure(benchmark);
+            }
+            double[] samples = new double[measurementIterations];
+            for (int m = 0; m < measurementIterations; m++) {
+                samples[m] = measure(benchmark);
+            }
+            return samples;
+        } finally {
+            benchmark.tearDown();
+        }
+    }
+
+    /**
+     * Run benchmark number index of a suite in a new JVM started like this one
+     * @return Throughput of each measurement iteration
+     */
+    private double[] fork(Class<?> suite, int index) throws Exception {
+        File samples = File.createTempFile("benchmark_fork", ".txt");
+        try {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(BenchmarkRunner.class.getName());
+            command.add(suite.getName());
+            command.add(String.valueOf(index));
+            command.add(String.valueOf(warmupIterations));
+            command.add(String.valueOf(measurementIterations));
+            command.add(String.valueOf(iterationSeconds));
+            command.add(samples.getPath());
+
+            int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exitCode != 0) {
+                throw new IllegalStateException("Forked JVM for benchmark " + index + " of " + suite.getName()
+                        + " exited with status " + exitCode);
+            }
+            List<String> lines = Files.readAllLines(samples.toPath(), StandardCharsets.UTF_8);
+            double[] values = new double[lines.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = Double.parseDouble(lines.get(i));
+            }
+            if (values.length != measurementIterations) {
+                throw new IllegalStateException("Forked JVM returned " + values.length + " samples, expected "
+                        + measurementIterations);
+            }
+            return values;
+        } finally {
+            samples.delete();
+        }
+    }
+
+    /**
+     * Get the benchmarks of a suite from its static benchmarks() method
+     */
+    @SuppressWarnings("unchecked")
+    static List<Benchmark> benchmarks(Class<?> suite) throws ReflectiveOperationException {
+        Method method = suite.getDeclaredMethod("benchmarks");
+        method.setAccessible(true);
+        return (List<Benchmark>) method.invoke(null);
+    }
+
+    /**
+     * Quantile of Student's t distribution: the t with P(T <= t) = p, for p
+     * in (0.5, 1), found by bisection on the CDF
+     * @param p Probability
+     * @param df Degrees of freedom (at least 1)
+     */
+    static double studentT(double p, int df) {
+        double tail = 1 - p;
+        double low = 0;
+        double high = 1;
+        while (upperTail(high, df) > tail) {
+            low = high;
+            high *= 2;
+        }
+        for (int i = 0; i < 200 && high - low > 1e-12 * high; i++) {
+            double mid = (low + high) / 2;
+            if (upperTail(mid, df) > tail) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * P(T > t) for t >= 0: half the regularised incomplete beta I_x(df/2, 1/2), x = df / (df + t^2)
+     */
+    private static double upperTail(double t, int df) {
+        return 0.5 * incompleteBeta(df / (df + t * t), df / 2.0, 0.5);
+    }
+
+    /**
+     * Regularised incomplete beta function I_x(a, b)
+     */
+    private static double incompleteBeta(double x, double a, double b) {
+        if (x <= 0) return 0;
+        if (x >= 1) return 1;
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+        if (x < (a + 1) / (a + b + 2)) {
+            return front * betaFraction(x, a, b) / a;
+        }
+        return 1 - front * betaFraction(1 - x, b, a) / b;
+    }
+
+    /**
+     * Continued fraction of the incomplete beta function (modified Lentz's method)
+     */
+    private static double betaFraction(double x, double a, double b) {
+        final double tiny = 1e-300;
+        double c = 1;
+        double d = 1 - (a + b) * x / (a + 1);
+        d = 1 / (Math.abs(d) < tiny ? tiny : d);
+        double h = d;
+        for (int m = 1; m <= 300; m++) {
+            int m2 = 2 * m;
+            double aa = m * (b - m) * x / ((a - 1 + m2) * (a + m2));
+            d = 1 + aa * d;
+            d = 1 / (Math.abs(d) < tiny ? tiny : d);
+            c = 1 + aa / c;
+            c = Math.abs(c) < tiny ? tiny : c;
+            h *= d * c;
+            aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + 1 + m2));
+            d = 1 + aa * d;
+            d = 1 / (Math.abs(d) < tiny ? tiny : d);
+            c = 1 + aa / c;
+            c = Math.abs(c) < tiny ? tiny : c;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-15) break;
+        }
+        return h;
+    }
+
+    /**
+     * Natural log of the gamma function (Lanczos approximation, g = 7)
+     */
+    private static double logGamma(double x) {
+        final double[] coefficients = {
+            0.99999999999980993, 676.5203681218851, -1259.1392167224028, 771.32342877765313,
+            -176.61502916214059, 12.507343278686905, -0.13857109526572012, 9.9843695780195716e-6,
+            1.5056327351493116e-7};
+        x -= 1;
+        double sum = coefficients[0];
+        for (int i = 1; i < coefficients.length; i++) {
+            sum += coefficients[i] / (x + i);
+        }
+        double t = x + 7.5;
+        return 0.5 * Math.log(2 * Math.PI) + (x + 0.5) * Math.log(t) - t + Math.log(sum);
+    }
+
+    /**
+     * Call iteration() until iterationSeconds have passed
+     * @return Operations per second
+     */
+    private double measure(Benchmark benchmark) throws Exception {
+        long budget = (long) (iterationSeconds * 1e9);
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            ops += benchmark.iteration();
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < budget);
+        return ops / (elapsed / 1e9);
+    }
+
+    /**
+     * Write results as a JMH-compatible JSON array
+     */
+    public static void writeJson(List<Result> results, String fileName) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8))) {
+            out.println("[");
+            for (int r = 0; r < results.size(); r++) {
+                Result result = results.get(r);
+                Benchmark benchmark = result.benchmark;
+                out.println("    {");
+                out.println("        \"benchmark\" : \"" + benchmark.getName() + "\",");
+                out.println("        \"mode\" : \"thrpt\",");
+                out.println("        \"forks\" : " + result.forks + ",");
+                out.println("        \"measurementIterations\" : " + result.samples.length + ",");
+                out.print("        \"params\" : {");
+                int p = 0;
+                for (Map.Entry<String, String> param : benchmark.getParams().entrySet()) {
+                    out.print((p++ > 0 ? ", " : " ") + "\"" + param.getKey() + "\" : \"" + param.getValue() + "\"");
+                }
+                out.println(p > 0 ? " }," : "},");
+                out.println("        \"primaryMetric\" : {");
+                out.println("            \"score\" : " + result.score + ",");
+                out.println("            \"scoreError\" : " + result.scoreError + ",");
+                out.println("            \"scoreUnit\" : \"" + benchmark.unit() + "\",");
+                // One inner array per fork, as in JMH
+                int groups = Math.max(1, result.forks);
+                int perGroup = result.samples.length / groups;
+                out.print("            \"rawData\" : [");
+                for (int g = 0; g < groups; g++) {
+                    out.print((g > 0 ? ", [" : " ["));
+                    for (int s = 0; s < perGroup; s++) {
+                        out.print((s > 0 ? ", " : " ") + result.samples[g * perGroup + s]);
+                    }
+                    out.print(" ]");
+                }
+                out.println(" ]");
+                out.println("        }");
+                out.println("    }" + (r < results.size() - 1 ? "," : ""));
+            }
+            out.println("]");
+        }
+    }
+
+    /**
+     * Read benchmark scores from a JSON file written by writeJson
+     * @return Map from benchmark id (name plus params) to score
+     */
+    public static Map<String, Double> readScores(String fileName) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get(fileName)), StandardCharsets.UTF_8);
+        Pattern entry = Pattern.compile(
+                "\"benchmark\"\\s*:\\s*\"([^\"]+)\".*?\"params\"\\s*:\\s*\\{([^}]*)\\}.*?\"score\"\\s*:\\s*([-0-9.eE]+)",
+                Pattern.DOTALL);
+        Pattern param = Pattern.compile("\"([^\"]+)\"\\s*:\\s*\"([^\"]*)\"");
+        Map<String, Double> scores = new LinkedHashMap<>();
+        Matcher m = entry.matcher(json);
+        while (m.find()) {
+            Map<String, String> params = new LinkedHashMap<>();
+            Matcher pm = param.matcher(m.group(2));
+            while (pm.find()) {
+                params.put(pm.group(1), pm.group(2));
+            }
+            String id = params.isEmpty() ? m.group(1) : m.group(1) + params;
+            scores.put(id, Double.parseDouble(m.group(3)));
+        }
+        return scores;
+    }
+
+    /**
+     * Compare results against a baseline and print every benchmark that slowed
+     * down by more than the given fraction
+     * @return Number of regressions found
+     */
+    public static int compare(List<Result> results, Map<String, Double> baseline, double threshold) {
+        int regressions = 0;
+        for (Result result : results) {
+            Double before = baseline.get(result.benchmark.getId());
+            if (before == null || before <= 0) continue;
+            double change = (result.score - before) / before;
+            if (change < -threshold) {
+                regressions++;
+                System.out.printf("REGRESSION %-50s %14.1f -> %14.1f (%+.1f%%)%n",
+                        result.benchmark.getId(), before, result.score, 100 * change);
+            }
+        }
+        return regressions;
+    }
+
+    public void setWarmupIterations(int warmupIterations) {
+        this.warmupIterations = warmupIterations;
+    }
+
+    public void setMeasurementIterations(int measurementIterations) {
+        this.measurementIterations = measurementIterations;
+    }
+
+    public void setIterationSeconds(double iterationSeconds) {
+        this.iterationSeconds = iterationSeconds;
+    }
+
+    /**
+     * Set how many JVMs run(suite) forks per benchmark (0: run in this JVM)
+     */
+    public void setForks(int forks) {
+        if (forks < 0) {
+            throw new IllegalArgumentException("forks must be at least 0, got " + forks);
+        }
+        this.forks = forks;
+    }
+
+    /**
+     * Entry point of a forked JVM: run one benchmark of a suite and write its
+     * samples, one per line, to a file
+     * Usage: java BenchmarkRunner suite index warmupIterations measurementIterations iterationSeconds samplesFile
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 6) {
+            System.err.println("Usage: java BenchmarkRunner <suite> <index> <warmupIterations> "
+                    + "<measurementIterations> <iterationSeconds> <samplesFile>");
+            System.exit(1);
+        }
+        BenchmarkRunner runner = new BenchmarkRunner();
+        runner.setWarmupIterations(Integer.parseInt(args[2]));
+        runner.setMeasurementIterations(Integer.parseInt(args[3]));
+        runner.setIterationSeconds(Double.parseDouble(args[4]));
+        Benchmark benchmark = benchmarks(Class.forName(args[0])).get(Integer.parseInt(args[1]));
+        double[] samples = runner.measureAll(benchmark);
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(args[5]), StandardCharsets.UTF_8))) {
+            for (double sample : samples) {
+                out.println(sample);
+            }
+        }
+    }
+
+    public void setFilter(String regex) {
+        this.filter = regex == null ? null : Pattern.compile(regex);
+    }
+}
@@ -0,0 +1,418 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Compact columnar binary dataset, memory-mapped read-only
+ * Features are stored as float32 columns and labels as one class index byte
+ * per row, so opening a file costs a few mmap calls and no parsing; processes
+ * that open the same file share its page-cached copy. The file is mapped in
+ * 1 GB windows addressed by long offsets, so it may exceed 2 GB.
+ *
+ * Features and labels are exposed as zero-copy views. column(c) and labels()
+ * cover a whole column when it lies in one window; column(c, fromRow) and
+ * labels(fromRow) return the part of a column that starts at fromRow and
+ * ends at the column's end or its window's end, so any file can be walked
+ * view by view:
+ *   for (int r = 0; r < n; ) { FloatBuffer v = data.column(c, r); ...; r += v.remaining(); }
+ *
+ * File layout (little-endian, sections aligned to 8 bytes):
+ * - Header: magic "MLPD", version, numRows, numFeatures, numClasses, reserved (6 ints)
+ * - Class symbols: numClasses UTF-16 chars (label of class index k)
+ * - Features: numFeatures columns of numRows floats (column c starts at featureOffset + c * numRows * 4, as a long)
+ * - Labels: numRows unsigned bytes (class index)
+ *
+ * Convert a CSV (header line, label last) or UCI .data file (label first) once with:
+ *   java BinaryDataset letter-recognition.csv letter-recognition.bin
+ */
+public class BinaryDataset {
+    static final int MAGIC = 0x44504C4D;  // "MLPD" read as a little-endian int
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+    static final int WINDOW_BITS = 30;  // Files are mapped in windows of 2^30 bytes
+    static final long WINDOW_BYTES = 1L << WINDOW_BITS;
+    static final long WINDOW_MASK = WINDOW_BYTES - 1;
+
+    private final MappedByteBuffer[] windows;  // windows[w] maps bytes [w << WINDOW_BITS, (w + 1) << WINDOW_BITS)
+    private final long size;
+    private final int numRows;
+    private final int numFeatures;
+    private final int numClasses;
+    private final char[] classSymbols;
+    private final long featureOffset;
+    private final long labelOffset;
+
+    private BinaryDataset(MappedByteBuffer[] windows, long size, String filename) throws IOException {
+        this.windows = windows;
+        this.size = size;
+        if (size < HEADER_BYTES || windows[0].getInt(0) != MAGIC) {
+            throw new IOException(filename + " is not a binary dataset");
+        }
+        MappedByteBuffer header = windows[0];
+        int version = header.getInt(4);
+        if (version != VERSION) {
+            throw new IOException(filename + " has unsupported version " + version);
+        }
+        numRows = header.getInt(8);
+        numFeatures = header.getInt(12);
+        numClasses = header.getInt(16);
+
+        classSymbols = new char[numClasses];
+        for (int k = 0; k < numClasses; k++) {
+            classSymbols[k] = header.getChar(HEADER_BYTES + 2 * k);
+        }
+        featureOffset = align(HEADER_BYTES + 2 * numClasses);
+        labelOffset = align(featureOffset + 4L * numFeatures * numRows);
+        if (size < labelOffset + numRows) {
+            throw new IOException(filename + " is truncated");
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Size in bytes of a file with the given shape
+     */
+    static long fileBytes(int numRows, int numFeatures, int numClasses) {
+        return align(align(HEADER_BYTES + 2L * numClasses) + 4L * numFeatures * numRows) + numRows;
+    }
+
+    /**
+     * Memory-map a binary dataset file
+     * @param filename Path to a file written by write, convert or repeat
+     * @return The mapped dataset; the mapping stays valid after the file is closed
+     * @throws IOException if the file cannot be read or is not a binary dataset
+     */
+    public static BinaryDataset open(String filename) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filename, "r");
+             FileChannel channel = file.getChannel()) {
+            long size = channel.size();
+            MappedByteBuffer[] windows = new MappedByteBuffer[(int) Math.max(1, (size + WINDOW_MASK) >>> WINDOW_BITS)];
+            for (int w = 0; w < windows.length; w++) {
+                long start = (long) w << WINDOW_BITS;
+                windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, size - start));
+                windows[w].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new BinaryDataset(windows, size, filename);
+        }
+    }
+
+    /**
+     * Write a dataset in the binary format
+     * @param filename Output path
+     * @param features Row-major features, one array of numFeatures values per row
+     * @param labels Class index of each row (0 to classSymbols.length - 1)
+     * @param classSymbols Label of each class index
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(String filename, float[][] features, int[] labels, char[] classSymbols)
+            throws IOException {
+        int numRows = features.length;
+        int numFeatures = numRows > 0 ? features[0].length : 0;
+        ByteBuffer out = allocate(numRows, numFeatures, classSymbols);
+        int featureOffset = (int) align(HEADER_BYTES + 2 * classSymbols.length);
+        int labelOffset = (int) align(featureOffset + 4L * numFeatures * numRows);
+        for (int c = 0; c < numFeatures; c++) {
+            int column = featureOffset + 4 * c * numRows;
+            for (int r = 0; r < numRows; r++) {
+                out.putFloat(column + 4 * r, features[r][c]);
+            }
+        }
+        for (int r = 0; r < numRows; r++) {
+            out.put(labelOffset + r, (byte) labels[r]);
+        }
+        writeFile(filename, out);
+    }
+
+    /**
+     * Write a parsed CSV dataset in the binary format (features rounded to float)
+     * @param filename Output path
+     * @param data Dataset loaded by CsvLoader
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(String filename, CsvDataset data) throws IOException {
+        int numRows = data.getNumRows();
+        int numFeatures = data.getNumFeatures();
+        char[] classSymbols = new char[data.getNumClasses()];
+        for (int k = 0; k < classSymbols.length; k++) {
+            classSymbols[k] = data.getClassSymbol(k);
+        }
+        ByteBuffer out = allocate(numRows, numFeatures, classSymbols);
+        int featureOffset = (int) align(HEADER_BYTES + 2 * classSymbols.length);
+        int labelOffset = (int) align(featureOffset + 4L * numFeatures * numRows);
+        for (int c = 0; c < numFeatures; c++) {
+            int column = featureOffset + 4 * c * numRows;
+            for (int r = 0; r < numRows; r++) {
+                out.putFloat(column + 4 * r, (float) data.feature(r, c));
+            }
+        }
+        for (int r = 0; r < numRows; r++) {
+            out.put(labelOffset + r, (byte) data.label(r));
+        }
+        writeFile(filename, out);
+    }
+
+    /**
+     * Allocate a buffer for a whole file and fill in its header and class symbols.
+     * In-heap datasets are written through one buffer, so they are limited to
+     * 2 GB; use repeat to build larger files.
+     */
+    private static ByteBuffer allocate(int numRows, int numFeatures, char[] classSymbols) {
+        int numClasses = classSymbols.length;
+        if (numClasses > 256) {
+            throw new IllegalArgumentException("At most 256 classes are supported, got " + numClasses);
+        }
+        long bytes = fileBytes(numRows, numFeatures, numClasses);
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Dataset of " + bytes + " bytes is too large to write from the heap");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, numRows).putInt(12, numFeatures).putInt(16, numClasses);
+        for (int k = 0; k < numClasses; k++) {
+            out.putChar(HEADER_BYTES + 2 * k, classSymbols[k]);
+        }
+        return out;
+    }
+
+    private static void writeFile(String filename, ByteBuffer out) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filename, "rw");
+             FileChannel channel = file.getChannel()) {
+            channel.truncate(0);
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /**
+     * Write a dataset holding the rows of source repeated times times, streaming
+     * column by column so no more than one copy of a column is on the heap.
+     * Used to build large files for out-of-core training runs.
+     * @param source Dataset to repeat
+     * @param times Number of copies
+     * @param filename Output path
+     * @throws IOException if the file cannot be written
+     */
+    public static void repeat(BinaryDataset source, int times, String filename) throws IOException {
+        long rows = (long) source.numRows * times;
+        if (rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Repeated dataset would have " + rows + " rows, more than "
+                    + Integer.MAX_VALUE);
+        }
+        int numRows = (int) rows;
+        int featureOffset = (int) align(HEADER_BYTES + 2 * source.numClasses);
+        long labelOffset = align(featureOffset + 4L * source.numFeatures * numRows);
+
+        ByteBuffer header = ByteBuffer.allocate(featureOffset).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, numRows)
+                .putInt(12, source.numFeatures).putInt(16, source.numClasses);
+        for (int k = 0; k < source.numClasses; k++) {
+            header.putChar(HEADER_BYTES + 2 * k, source.classSymbols[k]);
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(filename, "rw");
+             FileChannel channel = file.getChannel()) {
+            channel.truncate(0);
+            writeFully(channel, header, 0);
+            for (int c = 0; c < source.numFeatures; c++) {
+                long column = featureOffset + 4L * c * numRows;
+                for (int t = 0; t < times; t++) {
+                    source.writeRange(channel, source.featureOffset + 4L * c * source.numRows,
+                            4L * source.numRows, column + 4L * t * source.numRows);
+                }
+            }
+            for (int t = 0; t < times; t++) {
+                source.writeRange(channel, source.labelOffset, source.numRows, labelOffset + (long) t * source.numRows);
+            }
+        }
+    }
+
+    /**
+     * Write length bytes of this file, starting at offset, to channel at position
+     */
+    private void writeRange(FileChannel channel, long offset, long length, long position) throws IOException {
+        while (length > 0) {
+            ByteBuffer view = view(offset, length);
+            int count = view.remaining();
+            writeFully(channel, view, position);
+            offset += count;
+            position += count;
+            length -= count;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer src, long position) throws IOException {
+        while (src.hasRemaining()) {
+            position += channel.write(src, position);
+        }
+    }
+
+    /**
+     * Convert a text dataset to the binary format. Files ending in .data are
+     * read as UCI files (no header, label first); anything else as CSV with a
+     * header line and the label last. Class indices follow the sorted labels.
+     * @param textFile Input CSV or UCI file
+     * @param binaryFile Output path
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void convert(String textFile, String binaryFile) throws IOException {
+        boolean uci = textFile.endsWith(".data");
+        CsvLoader loader = new CsvLoader();
+        loader.setHeader(!uci);
+        loader.setLabelFirst(uci);
+        write(binaryFile, loader.load(textFile));
+    }
+
+    /**
+     * Get number of rows
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Get number of feature columns
+     */
+    public int getNumFeatures() {
+        return numFeatures;
+    }
+
+    /**
+     * Get number of classes
+     */
+    public int getNumClasses() {
+        return numClasses;
+    }
+
+    /**
+     * Get the label of a class index
+     */
+    public char getClassSymbol(int k) {
+        return classSymbols[k];
+    }
+
+    /**
+     * Get the file size in bytes
+     */
+    public long getSizeBytes() {
+        return size;
+    }
+
+    /**
+     * Zero-copy view of one whole feature column (numRows floats)
+     * @throws IllegalStateException if the column spans two mapping windows (use column(c, fromRow))
+     */
+    public FloatBuffer column(int c) {
+        FloatBuffer view = column(c, 0);
+        if (view.remaining() < numRows) {
+            throw new IllegalStateException("Column " + c + " spans mapping windows; read it with column(c, fromRow)");
+        }
+        return view;
+    }
+
+    /**
+     * Zero-copy view of feature column c from row fromRow to the end of the
+     * column or of the mapping window holding fromRow, whichever comes first
+     * (at least one float, since a float never straddles two windows)
+     */
+    public FloatBuffer column(int c, int fromRow) {
+        if (c < 0 || c >= numFeatures || fromRow < 0 || fromRow >= numRows) {
+            throw new IndexOutOfBoundsException("No feature " + c + " at row " + fromRow);
+        }
+        long offset = featureOffset + 4L * ((long) c * numRows + fromRow);
+        return view(offset, 4L * (numRows - fromRow)).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+    }
+
+    /**
+     * Zero-copy view of all class index bytes (numRows values, read as unsigned)
+     * @throws IllegalStateException if the labels span two mapping windows (use labels(fromRow))
+     */
+    public ByteBuffer labels() {
+        ByteBuffer view = labels(0);
+        if (view.remaining() < numRows) {
+            throw new IllegalStateException("Labels span mapping windows; read them with labels(fromRow)");
+        }
+        return view;
+    }
+
+    /**
+     * Zero-copy view of the class index bytes from row fromRow to the end of
+     * the labels or of the mapping window holding fromRow, whichever comes first
+     */
+    public ByteBuffer labels(int fromRow) {
+        if (fromRow < 0 || fromRow >= numRows) {
+            throw new IndexOutOfBoundsException("No row " + fromRow);
+        }
+        return view(labelOffset + fromRow, numRows - fromRow);
+    }
+
+    /**
+     * Slice of the window holding offset, at most length bytes long
+     */
+    private ByteBuffer view(long offset, long length) {
+        ByteBuffer view = windows[(int) (offset >>> WINDOW_BITS)].duplicate();
+        int start = (int) (offset & WINDOW_MASK);
+        view.position(start).limit((int) Math.min(view.limit(), start + length));
+        return view.slice();
+    }
+
+    /**
+     * Read one feature value
+     */
+    public float feature(int row, int c) {
+        // Windows and feature offsets are multiples of 4, so a float never straddles two windows
+        long offset = featureOffset + 4L * ((long) c * numRows + row);
+        return windows[(int) (offset >>> WINDOW_BITS)].getFloat((int) (offset & WINDOW_MASK));
+    }
+
+    /**
+     * Read the class index of a row
+     */
+    public int label(int row) {
+        long offset = labelOffset + row;
+        return windows[(int) (offset >>> WINDOW_BITS)].get((int) (offset & WINDOW_MASK)) & 0xFF;
+    }
+
+    /**
+     * Copy one row into a network input vector, multiplying every value by scale
+     * @param row Row index
+     * @param scale Normalisation factor (e.g. 1/15 for the letter features)
+     * @param input Destination of length numFeatures
+     */
+    public void copyRow(int row, double scale, double[] input) {
+        for (int c = 0; c < numFeatures; c++) {
+            input[c] = feature(row, c) * scale;
+        }
+    }
+
+    /**
+     * Copy one row's class index into a one-hot target vector
+     * @param row Row index
+     * @param target Destination of length numClasses
+     */
+    public void copyOneHot(int row, double[] target) {
+        Arrays.fill(target, 0.0);
+        target[label(row)] = 1.0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java BinaryDataset <input.csv|input.data> <output.bin>");
+            System.exit(1);
+        }
+        long start = System.currentTimeMillis();
+        convert(args[0], args[1]);
+        BinaryDataset data = open(args[1]);
+        System.out.println("Wrote " + data.getNumRows() + " rows x " + data.getNumFeatures() + " features, "
+                + data.getNumClasses() + " classes to " + args[1]
+                + " in " + (System.currentTimeMillis() - start) + " ms");
+    }
+}
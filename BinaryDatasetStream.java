@@ -0,0 +1,79 @@
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * StreamingDataset over a memory-mapped BinaryDataset.
+ * Chunks are copied column by column from zero-copy views of the mapping
+ * into network inputs (each feature divided by a fixed range) and one-hot
+ * targets; the mapped pages live in the OS page cache, not on the Java heap.
+ * A chunk that crosses a mapping window is read as two views.
+ */
+public class BinaryDatasetStream implements StreamingDataset {
+    private final BinaryDataset data;
+    private final int chunkRows;
+    private final double featureRange;
+
+    /**
+     * Constructor for BinaryDatasetStream
+     * @param data Mapped dataset
+     * @param chunkRows Rows per chunk (a multiple of the batch size keeps mini-batches whole)
+     * @param featureRange Inputs are feature / featureRange (15 for the letter data)
+     */
+    public BinaryDatasetStream(BinaryDataset data, int chunkRows, double featureRange) {
+        if (chunkRows < 1) {
+            throw new IllegalArgumentException("chunkRows must be at least 1, got " + chunkRows);
+        }
+        this.data = data;
+        this.chunkRows = chunkRows;
+        this.featureRange = featureRange;
+    }
+
+    @Override
+    public int getNumRows() {
+        return data.getNumRows();
+    }
+
+    @Override
+    public int getNumInputs() {
+        return data.getNumFeatures();
+    }
+
+    @Override
+    public int getNumOutputs() {
+        return data.getNumClasses();
+    }
+
+    @Override
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    @Override
+    public void readChunk(int chunk, DataChunk dst) {
+        int start = chunk * chunkRows;
+        int count = Math.min(chunkRows, data.getNumRows() - start);
+
+        // Walk each column sequentially so the reads stay within a few pages
+        for (int c = 0; c < data.getNumFeatures(); c++) {
+            for (int r = 0; r < count; ) {
+                FloatBuffer column = data.column(c, start + r);
+                int end = Math.min(count, r + column.remaining());
+                for (int i = 0; r < end; i++, r++) {
+                    dst.inputs[r][c] = column.get(i) / featureRange;
+                }
+            }
+        }
+        for (int r = 0; r < count; ) {
+            ByteBuffer labels = data.labels(start + r);
+            int end = Math.min(count, r + labels.remaining());
+            for (int i = 0; r < end; i++, r++) {
+                Arrays.fill(dst.targets[r], 0.0);
+                dst.targets[r][labels.get(i) & 0xFF] = 1.0;
+            }
+        }
+
+        dst.count = count;
+        dst.index = chunk;
+    }
+}
@@ -0,0 +1,120 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Writes epoch metrics as fixed-size little-endian binary records.
+ * A 10,000-epoch run takes about 560 KB and is read back without any text
+ * parsing.
+ *
+ * File layout:
+ * - Header: magic "MLPM", version, record size in bytes, reserved (4 ints)
+ * - Records: epoch (int), reserved (int), error (double), examples,
+ *   epochNanos, forwardNanos, backwardNanos, updateNanos (longs)
+ *
+ * Convert a file to CSV with:
+ *   java BinaryMetricsSink metrics.bin > metrics.csv
+ */
+public class BinaryMetricsSink implements MetricsSink {
+    static final int MAGIC = 0x4D504C4D;  // "MLPM" read as a little-endian int
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 56;
+
+    private final OutputStream out;
+    private final ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 128).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Constructor for BinaryMetricsSink; writes the file header
+     * @param out Destination stream (closed by close())
+     * @throws IOException if the header cannot be written
+     */
+    public BinaryMetricsSink(OutputStream out) throws IOException {
+        this.out = out;
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putInt(0);
+    }
+
+    @Override
+    public void write(EpochMetrics metrics) throws IOException {
+        if (buffer.remaining() < RECORD_BYTES) {
+            flushBuffer();
+        }
+        buffer.putInt(metrics.epoch).putInt(0).putDouble(metrics.error)
+                .putLong(metrics.examples).putLong(metrics.epochNanos)
+                .putLong(metrics.forwardNanos).putLong(metrics.backwardNanos).putLong(metrics.updateNanos);
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() > 0) {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    /**
+     * Replay a binary metrics file into another sink
+     * @param filename File written by BinaryMetricsSink
+     * @param sink Receives every record in file order (not closed)
+     * @return Number of records read
+     * @throws IOException if the file cannot be read or is not a metrics file
+     */
+    public static int read(String filename, MetricsSink sink) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)))) {
+            byte[] bytes = new byte[RECORD_BYTES];
+            ByteBuffer record = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            in.readFully(bytes, 0, HEADER_BYTES);
+            if (record.getInt(0) != MAGIC) {
+                throw new IOException(filename + " is not a metrics file");
+            }
+            if (record.getInt(4) != VERSION || record.getInt(8) != RECORD_BYTES) {
+                throw new IOException(filename + " has unsupported version " + record.getInt(4));
+            }
+
+            EpochMetrics metrics = new EpochMetrics();
+            int count = 0;
+            while (true) {
+                try {
+                    in.readFully(bytes);
+                } catch (EOFException e) {
+                    return count;
+                }
+                metrics.epoch = record.getInt(0);
+                metrics.error = record.getDouble(8);
+                metrics.examples = record.getLong(16);
+                metrics.epochNanos = record.getLong(24);
+                metrics.forwardNanos = record.getLong(32);
+                metrics.backwardNanos = record.getLong(40);
+                metrics.updateNanos = record.getLong(48);
+                sink.write(metrics);
+                count++;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java BinaryMetricsSink <metrics.bin>");
+            System.exit(1);
+        }
+        CsvMetricsSink csv = new CsvMetricsSink(System.out);
+        read(args[0], csv);
+        csv.flush();
+    }
+}
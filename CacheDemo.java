@@ -0,0 +1,89 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * CacheDemo: Prediction cache in front of letter recognition
+ * Trains the Test3 network briefly, then replays skewed request traffic drawn
+ * from the letter data (a few inputs very often, most rarely) through the
+ * plain model and through LRU and CLOCK caches of two sizes, reporting hit
+ * rate, evictions and single-thread throughput.
+ *
+ * Usage: java CacheDemo [requests] [epochs]
+ */
+public class CacheDemo {
+
+    public static void main(String[] args) throws IOException {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int epochs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        System.out.println("===========================================");
+        System.out.println("Prediction Cache: Letter Recognition");
+        System.out.println("===========================================\n");
+
+        LetterData data = LetterData.load("letter-recognition.csv");
+        MLP network = new MLP(16, 30, 26, true, false);
+        Training trainer = new Training(network, epochs, 100, 0.005);
+        trainer.setLogFileName(null);
+        trainer.setOptimiser(new AdamOptimiser());
+        trainer.train(data.inputs, data.targets, false);
+
+        // Skewed traffic: request r asks for example floor(n * u^4), u uniform, over a shuffled order
+        int total = data.size();
+        int[] order = new int[total];
+        for (int i = 0; i < total; i++) order[i] = i;
+        Random random = new Random(42);
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        double[][] traffic = new double[requests][];
+        for (int r = 0; r < requests; r++) {
+            double u = random.nextDouble();
+            traffic[r] = data.inputs[order[(int) (total * u * u * u * u)]];
+        }
+
+        InferenceModel model = network.inference();
+        LevelPacker packer = new LevelPacker(16, 15);
+        System.out.println(requests + " requests over " + total + " examples, "
+                + packer.getBitsPerFeature() + " bits per feature\n");
+
+        System.out.printf("%-14s %10s %10s %12s %16s%n", "Model", "Hit rate", "Evictions", "Identical", "Predictions/sec");
+        double[] reference = replay("uncached", model, null, traffic, null);
+        for (int capacity : new int[] {256, 4096}) {
+            for (EvictionPolicy policy : EvictionPolicy.values()) {
+                CachedInference cached = CachedInference.wrap(model, packer, capacity, policy);
+                replay(policy + " " + capacity, cached, cached.getCache(), traffic, reference);
+            }
+        }
+    }
+
+    /**
+     * Run every request through a model on one thread and print one table row
+     * @return Winning-class confidence of every request
+     */
+    private static double[] replay(String name, InferenceModel model, PredictionCache cache, double[][] traffic,
+                                   double[] reference) {
+        InferenceContext context = model.newContext();
+        double[] confidence = new double[traffic.length];
+        long start = System.nanoTime();
+        for (int r = 0; r < traffic.length; r++) {
+            double[] output = model.predict(traffic[r], context);
+            double best = output[0];
+            for (int k = 1; k < output.length; k++) {
+                if (output[k] > best) best = output[k];
+            }
+            confidence[r] = best;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        String hitRate = cache != null ? String.format("%.2f%%", 100.0 * cache.getHitRate()) : "-";
+        String evictions = cache != null ? Long.toString(cache.getEvictions()) : "-";
+        String identical = reference != null ? (Arrays.equals(confidence, reference) ? "yes" : "NO") : "-";
+        System.out.printf("%-14s %10s %10s %12s %16.0f%n", name, hitRate, evictions, identical,
+                traffic.length / seconds);
+        return confidence;
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * InferenceModel that answers repeated inputs from a PredictionCache.
+ * Each input is packed into a key; a hit copies the cached outputs into the
+ * context, a miss runs the wrapped model and caches its outputs. Inputs the
+ * packer cannot represent exactly bypass the cache. Shares the thread-safety
+ * of the wrapped model: any number of threads, one context each.
+ */
+public class CachedInference implements InferenceModel {
+    private final InferenceModel model;
+    private final InputPacker packer;
+    private final PredictionCache cache;
+
+    /**
+     * Constructor for CachedInference
+     * @param model Model that computes the predictions
+     * @param packer Exact input-to-key packing, e.g. a LevelPacker
+     * @param cache Cache sized for the model's outputs (may be shared with other wrappers of the same model)
+     */
+    public CachedInference(InferenceModel model, InputPacker packer, PredictionCache cache) {
+        this.model = model;
+        this.packer = packer;
+        this.cache = cache;
+    }
+
+    /**
+     * Wrap a model with a new cache
+     * @param model Model that computes the predictions
+     * @param packer Exact input-to-key packing
+     * @param capacity Largest number of cached predictions
+     * @param policy Eviction policy once the cache is full
+     */
+    public static CachedInference wrap(InferenceModel model, InputPacker packer, int capacity,
+                                       EvictionPolicy policy) {
+        return new CachedInference(model, packer, new PredictionCache(capacity, model.getNumOutputs(), policy));
+    }
+
+    @Override
+    public int getNumInputs() {
+        return model.getNumInputs();
+    }
+
+    @Override
+    public int getNumOutputs() {
+        return model.getNumOutputs();
+    }
+
+    @Override
+    public InferenceContext newContext() {
+        return model.newContext();
+    }
+
+    @Override
+    public double[] predict(double[] input, InferenceContext context) {
+        long key = packer.pack(input);
+        if (key == InputPacker.UNCACHEABLE) {
+            return model.predict(input, context);
+        }
+        if (cache.get(key, context.output)) {
+            return context.output;
+        }
+        double[] output = model.predict(input, context);
+        cache.put(key, output);
+        return output;
+    }
+
+    public InferenceModel getModel() {
+        return model;
+    }
+
+    public PredictionCache getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,133 @@
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes periodic ModelCheckpoints from a background thread.
+ * The trainer copies the weights into one of two WeightSnapshot buffers and
+ * queues it; the writer thread encodes and saves it while training goes on.
+ * If the previous checkpoint is still being written when the next is due,
+ * that checkpoint is skipped instead of stalling the epoch loop.
+ */
+public class CheckpointWriter implements AutoCloseable {
+    private static final int NUM_BUFFERS = 2;  // Being written, being filled
+
+    private final String filename;
+    private final Precision precision;
+    private final BlockingQueue<WeightSnapshot> free;
+    private final BlockingQueue<WeightSnapshot> ready;
+    private final WeightSnapshot done;  // Queued by finish to end the thread
+    private final Thread writer;
+    private volatile IOException failure;
+    private volatile int lastEpoch = -1;  // Epoch of the last checkpoint written
+    private int skipped;                  // Checkpoints dropped because both buffers were busy (trainer only)
+
+    /**
+     * Constructor for CheckpointWriter; starts the writer thread
+     * @param network Network being trained (sets the snapshot shape and stored precision)
+     * @param filename Checkpoint path, replaced by every save
+     */
+    public CheckpointWriter(Network network, String filename) {
+        this.filename = filename;
+        this.precision = Precision.of(network);
+        this.free = new ArrayBlockingQueue<>(NUM_BUFFERS);
+        this.ready = new ArrayBlockingQueue<>(NUM_BUFFERS + 1);
+        for (int b = 0; b < NUM_BUFFERS; b++) {
+            free.add(new WeightSnapshot(network));
+        }
+        this.done = WeightSnapshot.empty();
+
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeAll();
+            }
+        }, "checkpoint-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void writeAll() {
+        try {
+            while (true) {
+                WeightSnapshot snapshot = ready.take();
+                if (snapshot == done) {
+                    return;
+                }
+                try {
+                    ModelCheckpoint.write(filename, snapshot, precision);
+                    lastEpoch = snapshot.epoch;
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+                free.offer(snapshot);
+            }
+        } catch (InterruptedException e) {
+            // Closed
+        }
+    }
+
+    /**
+     * Snapshot the network and queue it for saving, without waiting
+     * @param network Network being trained
+     * @param epoch Epoch that just finished
+     * @return false if the writer was busy and this checkpoint was skipped
+     */
+    public boolean submit(Network network, int epoch) {
+        WeightSnapshot snapshot = free.poll();
+        if (snapshot == null) {
+            skipped++;
+            return false;
+        }
+        snapshot.capture(network, epoch);
+        ready.offer(snapshot);
+        return true;
+    }
+
+    /**
+     * Save the final weights, waiting for a free buffer, then wait until every
+     * queued checkpoint is on disk
+     * @param network Network being trained
+     * @param epoch Last epoch run
+     * @throws IOException if any checkpoint could not be written
+     */
+    public void finish(Network network, int epoch) throws IOException {
+        try {
+            WeightSnapshot snapshot = free.take();
+            snapshot.capture(network, epoch);
+            ready.put(snapshot);
+            ready.put(done);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing checkpoint " + filename, e);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Get the epoch of the last checkpoint written (-1 if none yet)
+     */
+    public int getLastEpoch() {
+        return lastEpoch;
+    }
+
+    /**
+     * Get number of checkpoints skipped because the writer was busy
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Stop the writer thread without waiting for queued checkpoints
+     */
+    @Override
+    public void close() {
+        writer.interrupt();
+    }
+}
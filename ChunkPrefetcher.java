@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Background reader that keeps the next chunks of a StreamingDataset ready.
+ * A fixed set of DataChunk buffers cycles between a free queue and a ready
+ * queue: the reader thread fills free buffers in epoch order and the trainer
+ * takes them, trains, and releases them. Memory is bounded by the number of
+ * buffers whatever the dataset size. With shuffling on, the chunk order is
+ * permuted every epoch (rows within a chunk keep their order).
+ */
+public class ChunkPrefetcher implements AutoCloseable {
+    private final StreamingDataset dataset;
+    private final int numEpochs;
+    private final boolean shuffle;
+    private final Random random;
+    private final BlockingQueue<DataChunk> free;
+    private final BlockingQueue<DataChunk> ready;
+    private final DataChunk failed;  // Queued in place of a chunk when reading fails
+    private final Thread reader;
+    private volatile Exception failure;
+
+    /**
+     * Constructor for ChunkPrefetcher; starts the reader thread
+     * @param dataset Source of the chunks
+     * @param numEpochs Number of passes to read
+     * @param numBuffers Chunks held in memory at once (at least 2 to overlap reading and training)
+     * @param shuffle Permute the chunk order every epoch
+     * @param random Source of the permutations
+     */
+    public ChunkPrefetcher(StreamingDataset dataset, int numEpochs, int numBuffers, boolean shuffle, Random random) {
+        if (numBuffers < 1) {
+            throw new IllegalArgumentException("numBuffers must be at least 1, got " + numBuffers);
+        }
+        this.dataset = dataset;
+        this.numEpochs = numEpochs;
+        this.shuffle = shuffle;
+        this.random = random;
+        this.free = new ArrayBlockingQueue<>(numBuffers);
+        this.ready = new ArrayBlockingQueue<>(numBuffers + 1);
+        for (int b = 0; b < numBuffers; b++) {
+            free.add(dataset.newChunk());
+        }
+        this.failed = new DataChunk(0, 0, 0);
+
+        reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readAll();
+            }
+        }, "chunk-prefetcher");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void readAll() {
+        int numChunks = dataset.getNumChunks();
+        int[] order = new int[numChunks];
+        for (int c = 0; c < numChunks; c++) {
+            order[c] = c;
+        }
+
+        try {
+            for (int e = 0; e < numEpochs; e++) {
+                if (shuffle) {
+                    for (int c = numChunks - 1; c > 0; c--) {
+                        int j = random.nextInt(c + 1);
+                        int tmp = order[c];
+                        order[c] = order[j];
+                        order[j] = tmp;
+                    }
+                }
+                for (int c = 0; c < numChunks; c++) {
+                    DataChunk chunk = free.take();
+                    dataset.readChunk(order[c], chunk);
+                    ready.put(chunk);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closed before all epochs were read
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            ready.offer(failed);
+        }
+    }
+
+    /**
+     * Wait for the next chunk in epoch order; give it back with release
+     * @throws IllegalStateException if the reader failed or the wait was interrupted
+     */
+    public DataChunk next() {
+        DataChunk chunk;
+        try {
+            chunk = ready.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a chunk", e);
+        }
+        if (chunk == failed) {
+            throw new IllegalStateException("Error reading chunk: " + failure.getMessage(), failure);
+        }
+        return chunk;
+    }
+
+    /**
+     * Return a chunk buffer so the reader can refill it
+     */
+    public void release(DataChunk chunk) {
+        free.offer(chunk);
+    }
+
+    /**
+     * Stop the reader thread
+     */
+    @Override
+    public void close() {
+        reader.interrupt();
+    }
+}
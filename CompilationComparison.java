@@ -0,0 +1,80 @@
+/**
+ * CompilationComparison: Generic vs compiled inference
+ * Compiles networks of the Test1, Test2 and Test3 shapes with ModelCompiler
+ * and compares single-thread prediction throughput against MLPInference,
+ * checking that both give the same outputs. Each shape runs with the exact
+ * activations and with FastActivations, where the loop overhead the
+ * compiler removes is a larger share of the time.
+ *
+ * Usage: java CompilationComparison [secondsPerRun]
+ */
+public class CompilationComparison {
+
+    public static void main(String[] args) {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 1.0;
+
+        System.out.println("===========================================");
+        System.out.println("Compilation Comparison");
+        System.out.println("===========================================");
+        System.out.println("Kernels: " + Kernels.INSTANCE.name() + "\n");
+
+        int[][] shapes = {MLPBenchmarks.SHAPES[0], MLPBenchmarks.SHAPES[1], MLPBenchmarks.SHAPES[2]};
+        System.out.printf("%-10s %-12s %14s %16s %16s %9s %12s%n", "Shape", "Activations", "Compile (ms)",
+                "Generic/sec", "Compiled/sec", "Speedup", "Max diff");
+        for (int[] shape : shapes) {
+            for (boolean fast : new boolean[] {false, true}) {
+                MLP network = MLPBenchmarks.network(shape);
+                network.setFastActivations(fast);
+                double[][] inputs = MLPBenchmarks.randomInputs(4096, shape[0]);
+
+                long start = System.nanoTime();
+                CompiledInference compiled = ModelCompiler.compile(network);
+                double compileMillis = (System.nanoTime() - start) / 1e6;
+                InferenceModel generic = network.inference();
+
+                // Same outputs (bit for bit with the scalar kernels)
+                InferenceContext genericContext = generic.newContext();
+                InferenceContext compiledContext = compiled.newContext();
+                double maxDiff = 0.0;
+                for (double[] input : inputs) {
+                    double[] a = generic.predict(input, genericContext);
+                    double[] b = compiled.predict(input, compiledContext);
+                    for (int k = 0; k < a.length; k++) {
+                        maxDiff = Math.max(maxDiff, Math.abs(a[k] - b[k]));
+                    }
+                }
+
+                measure(generic, inputs, seconds / 2);  // Warm up the JIT
+                measure(compiled, inputs, seconds / 2);
+                double genericRate = measure(generic, inputs, seconds);
+                double compiledRate = measure(compiled, inputs, seconds);
+                System.out.printf("%-10s %-12s %14.2f %16.0f %16.0f %8.2fx %12.3g%n",
+                        MLPBenchmarks.shapeName(shape), fast ? "fast" : "exact", compileMillis, genericRate,
+                        compiledRate, compiledRate / genericRate, maxDiff);
+            }
+        }
+    }
+
+    /**
+     * Predictions per second on one thread
+     */
+    private static double measure(InferenceModel model, double[][] inputs, double seconds) {
+        InferenceContext context = model.newContext();
+        double sum = 0;
+        long count = 0;
+        long start = System.nanoTime();
+        long end = start + (long) (seconds * 1e9);
+        long now;
+        do {
+            for (double[] input : inputs) {
+                sum += model.predict(input, context)[0];
+            }
+            count += inputs.length;
+            now = System.nanoTime();
+        } while (now < end);
+        if (Double.isNaN(sum)) {
+            System.out.println("NaN output");
+        }
+        return count / ((now - start) / 1e9);
+    }
+}
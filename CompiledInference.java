@@ -0,0 +1,54 @@
+/**
+ * Base class of the inference models generated by ModelCompiler.
+ * A generated subclass implements forward with the network's shape and
+ * weights baked into its bytecode; this class supplies the rest of the
+ * InferenceModel contract. Like every InferenceModel it keeps no per-call
+ * state, so one instance serves any number of threads, one context each.
+ */
+public abstract class CompiledInference implements InferenceModel {
+    private final int NI;  // Number of inputs
+    private final int NH;  // Number of hidden units
+    private final int NO;  // Number of outputs
+
+    protected CompiledInference(int numInputs, int numHidden, int numOutputs) {
+        this.NI = numInputs;
+        this.NH = numHidden;
+        this.NO = numOutputs;
+    }
+
+    /**
+     * Forward pass with constant weights
+     * @param input Input vector (NI values)
+     * @param hidden Receives the hidden layer outputs (NH values)
+     * @param output Receives the outputs (NO values)
+     */
+    protected abstract void forward(double[] input, double[] hidden, double[] output);
+
+    @Override
+    public int getNumInputs() {
+        return NI;
+    }
+
+    @Override
+    public int getNumOutputs() {
+        return NO;
+    }
+
+    /**
+     * Get number of hidden units
+     */
+    public int getNumHidden() {
+        return NH;
+    }
+
+    @Override
+    public InferenceContext newContext() {
+        return new InferenceContext(NH, NO);
+    }
+
+    @Override
+    public double[] predict(double[] input, InferenceContext context) {
+        forward(input, context.hidden, context.output);
+        return context.output;
+    }
+}
@@ -0,0 +1,169 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * k-fold cross-validation with the folds trained concurrently.
+ * The folds are never materialised: one shuffled permutation of the row
+ * indices is shared by all of them, fold f holds out the f-th range of it,
+ * and each model trains on a FoldDataset view of the remaining rows. Every
+ * fold gets its own MLP and Training on a worker of a fixed-size pool, so
+ * the only memory beyond the one shared copy of the dataset is the
+ * permutation and a few chunk buffers per running fold.
+ */
+public class CrossValidation {
+    private final double[][] inputs;
+    private final double[][] targets;
+    private final boolean useLinearOutput;
+    private int numThreads = Runtime.getRuntime().availableProcessors();
+    private int chunkRows = 256;  // Rows gathered per chunk (rounded down to whole batches)
+    private long seed = 42;       // Seed of the fold assignment
+
+    /**
+     * Constructor for CrossValidation
+     * @param inputs Input vectors of the whole dataset (shared read-only by all folds)
+     * @param targets Target vectors of the whole dataset
+     * @param useLinearOutput true for linear output units (regression), false for sigmoid
+     */
+    public CrossValidation(double[][] inputs, double[][] targets, boolean useLinearOutput) {
+        if (inputs.length != targets.length) {
+            throw new IllegalArgumentException("inputs and targets differ in length: "
+                    + inputs.length + " vs " + targets.length);
+        }
+        this.inputs = inputs;
+        this.targets = targets;
+        this.useLinearOutput = useLinearOutput;
+    }
+
+    /**
+     * Train and validate one model per fold
+     * @param config Network and training settings shared by every fold
+     * @param k Number of folds (2 to the number of rows)
+     * @param epochs Epochs each fold's model is trained for
+     * @return Per-fold held-out scores with their mean and variance
+     */
+    public CrossValidationResult run(final SweepConfig config, final int k, final int epochs) {
+        final int n = inputs.length;
+        if (k < 2 || k > n) {
+            throw new IllegalArgumentException("k must be between 2 and " + n + ", got " + k);
+        }
+
+        final int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Random random = new Random(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        // Whole batches per chunk, so no mini-batch is cut short at a chunk boundary
+        int batch = config.getBatchSize();
+        final int rows = Math.max(batch, chunkRows / batch * batch);
+
+        final double[] trainErrors = new double[k];
+        final double[] losses = new double[k];
+        final double[] accuracies = new double[k];
+        List<Callable<Void>> tasks = new ArrayList<>(k);
+        for (int f = 0; f < k; f++) {
+            final int fold = f;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    // Fold sizes differ by at most one row
+                    int from = (int) ((long) n * fold / k);
+                    int to = (int) ((long) n * (fold + 1) / k);
+                    FoldDataset training = new FoldDataset(inputs, targets, order, from, to, true, rows);
+
+                    MLP network = config.createNetwork(inputs[0].length, targets[0].length, useLinearOutput);
+                    Training trainer = new Training(network, epochs, config.getBatchSize(), config.getLearningRate());
+                    trainer.setLogFileName(null);
+                    trainer.setTimePhases(false);
+                    trainer.setOptimiser(config.createOptimiser());
+                    trainErrors[fold] = trainer.train(training, false, 1);
+
+                    // Score the held-out rows order[from..to) straight from the shared arrays
+                    try (Evaluator evaluator = new Evaluator(network.inference(), 1)) {
+                        EvaluationResult result = evaluator.evaluate(inputs, targets, order, from, to, 1);
+                        losses[fold] = result.getLoss() / result.getNumExamples();
+                        accuracies[fold] = result.getNumClasses() > 1 ? result.getAccuracy() : Double.NaN;
+                    }
+                    return null;
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(numThreads, k)));
+        try {
+            for (Future<Void> task : pool.invokeAll(tasks)) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during cross-validation", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cross-validation fold failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return new CrossValidationResult(config, epochs, trainErrors, losses, accuracies,
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Bytes of chunk buffers one fold holds while training (the dataset itself is shared)
+     * @param config Settings the folds are trained with
+     * @param prefetchChunks Chunk buffers per fold (Training.getPrefetchChunks())
+     */
+    public long bufferBytesPerFold(SweepConfig config, int prefetchChunks) {
+        int batch = config.getBatchSize();
+        long rows = Math.max(batch, chunkRows / batch * batch);
+        return (long) prefetchChunks * rows * (inputs[0].length + targets[0].length) * Double.BYTES;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Set the number of folds trained at once (default: all processors)
+     */
+    public void setNumThreads(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be at least 1, got " + numThreads);
+        }
+        this.numThreads = numThreads;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    /**
+     * Set how many rows a fold gathers into its buffers at a time
+     */
+    public void setChunkRows(int chunkRows) {
+        if (chunkRows < 1) {
+            throw new IllegalArgumentException("chunkRows must be at least 1, got " + chunkRows);
+        }
+        this.chunkRows = chunkRows;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Set the seed of the random fold assignment
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
@@ -0,0 +1,49 @@
+import java.io.IOException;
+
+/**
+ * CrossValidationDemo: k-fold cross-validation of the Test3 network
+ * Trains one letter-recognition model per fold concurrently, each on an
+ * index view of the shared dataset, and reports the held-out accuracy and
+ * loss of every fold with their mean and standard deviation.
+ *
+ * Usage: java CrossValidationDemo [k] [threads] [epochs]
+ */
+public class CrossValidationDemo {
+
+    public static void main(String[] args) throws IOException {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int epochs = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        System.out.println("===========================================");
+        System.out.println("Cross-Validation: Letter Recognition");
+        System.out.println("===========================================\n");
+
+        LetterData data = LetterData.load("letter-recognition.csv");
+        SweepConfig config = new SweepConfig(30, true, 0.005, 100, "adam");
+
+        CrossValidation validation = new CrossValidation(data.inputs, data.targets, false);
+        validation.setNumThreads(threads);
+
+        long datasetBytes = (long) data.size() * (data.inputs[0].length + data.targets[0].length) * Double.BYTES;
+        long bufferBytes = validation.bufferBytesPerFold(config, 2);
+        System.out.println(k + " folds of " + data.size() + " examples, " + threads + " threads, "
+                + epochs + " epochs (" + config + ")");
+        System.out.printf("Shared dataset: %.2f MB, per-fold buffers: %.1f KB, fold index: %.1f KB%n%n",
+                datasetBytes / 1e6, bufferBytes / 1e3, data.size() * (double) Integer.BYTES / 1e3);
+
+        CrossValidationResult result = validation.run(config, k, epochs);
+
+        System.out.printf("%4s %12s %13s %10s%n", "Fold", "Train error", "Held-out loss", "Accuracy");
+        for (int f = 0; f < result.getNumFolds(); f++) {
+            System.out.printf("%4d %12.2f %13.4f %9.2f%%%n", f + 1, result.getTrainError(f), result.getLoss(f),
+                    100.0 * result.getAccuracy(f));
+        }
+        System.out.printf("%nAccuracy: mean %.2f%%, std dev %.2f%% (variance %.3g)%n",
+                100.0 * result.getMeanAccuracy(), 100.0 * Math.sqrt(result.getAccuracyVariance()),
+                result.getAccuracyVariance());
+        System.out.printf("Loss:     mean %.4f, std dev %.4f (variance %.3g)%n", result.getMeanLoss(),
+                Math.sqrt(result.getLossVariance()), result.getLossVariance());
+        System.out.printf("Finished in %.2f seconds%n", result.getSeconds());
+    }
+}
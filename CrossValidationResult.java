@@ -0,0 +1,94 @@
+/**
+ * Outcome of k-fold cross-validation: the held-out accuracy and loss of each
+ * fold's model, and their mean and (sample) variance across folds.
+ */
+public class CrossValidationResult {
+    private final SweepConfig config;
+    private final int epochs;
+    private final double[] trainErrors;  // Training error of each fold's last epoch
+    private final double[] losses;       // Held-out squared error / 2, per example
+    private final double[] accuracies;   // Held-out accuracy (NaN for single-output models)
+    private final double seconds;        // Wall time of the whole run
+
+    CrossValidationResult(SweepConfig config, int epochs, double[] trainErrors, double[] losses,
+                          double[] accuracies, double seconds) {
+        this.config = config;
+        this.epochs = epochs;
+        this.trainErrors = trainErrors;
+        this.losses = losses;
+        this.accuracies = accuracies;
+        this.seconds = seconds;
+    }
+
+    public SweepConfig getConfig() {
+        return config;
+    }
+
+    public int getEpochs() {
+        return epochs;
+    }
+
+    /**
+     * Get number of folds
+     */
+    public int getNumFolds() {
+        return losses.length;
+    }
+
+    public double getTrainError(int fold) {
+        return trainErrors[fold];
+    }
+
+    /**
+     * Held-out loss of one fold's model (squared error / 2 per example)
+     */
+    public double getLoss(int fold) {
+        return losses[fold];
+    }
+
+    public double getAccuracy(int fold) {
+        return accuracies[fold];
+    }
+
+    public double getMeanLoss() {
+        return mean(losses);
+    }
+
+    public double getLossVariance() {
+        return variance(losses);
+    }
+
+    public double getMeanAccuracy() {
+        return mean(accuracies);
+    }
+
+    public double getAccuracyVariance() {
+        return variance(accuracies);
+    }
+
+    public double getSeconds() {
+        return seconds;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0.0;
+        for (double v : values) sum += v;
+        return sum / values.length;
+    }
+
+    /**
+     * Sample variance (k - 1 denominator)
+     */
+    private static double variance(double[] values) {
+        if (values.length < 2) {
+            return 0.0;
+        }
+        double mean = mean(values);
+        double sum = 0.0;
+        for (double v : values) {
+            double diff = v - mean;
+            sum += diff * diff;
+        }
+        return sum / (values.length - 1);
+    }
+}
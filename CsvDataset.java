@@ -0,0 +1,158 @@
+import java.util.Arrays;
+
+/**
+ * Dataset parsed by CsvLoader
+ * Features are held in one flat row-major double[] (row r, column c at
+ * r * numFeatures + c), already normalised; labels are class indices into
+ * the sorted class symbols. Per-column statistics describe the raw values
+ * as read from the file, before normalisation.
+ */
+public class CsvDataset {
+    private final int numRows;
+    private final int numFeatures;
+    private final double[] features;
+    private final int[] labels;
+    private final char[] classSymbols;
+    private final double[] min;
+    private final double[] max;
+    private final double[] mean;
+    private final double[] variance;
+
+    CsvDataset(int numRows, int numFeatures, double[] features, int[] labels, char[] classSymbols,
+               double[] min, double[] max, double[] mean, double[] variance) {
+        this.numRows = numRows;
+        this.numFeatures = numFeatures;
+        this.features = features;
+        this.labels = labels;
+        this.classSymbols = classSymbols;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.variance = variance;
+    }
+
+    /**
+     * Get number of rows
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Get number of feature columns
+     */
+    public int getNumFeatures() {
+        return numFeatures;
+    }
+
+    /**
+     * Get number of classes
+     */
+    public int getNumClasses() {
+        return classSymbols.length;
+    }
+
+    /**
+     * Get the label of a class index
+     */
+    public char getClassSymbol(int k) {
+        return classSymbols[k];
+    }
+
+    /**
+     * Get the flat row-major feature buffer (not a copy)
+     */
+    public double[] getFeatures() {
+        return features;
+    }
+
+    /**
+     * Get the class index of every row (not a copy)
+     */
+    public int[] getLabels() {
+        return labels;
+    }
+
+    /**
+     * Read one normalised feature value
+     */
+    public double feature(int row, int c) {
+        return features[row * numFeatures + c];
+    }
+
+    /**
+     * Read the class index of a row
+     */
+    public int label(int row) {
+        return labels[row];
+    }
+
+    /**
+     * Get the smallest raw value of a column
+     */
+    public double getMin(int c) {
+        return min[c];
+    }
+
+    /**
+     * Get the largest raw value of a column
+     */
+    public double getMax(int c) {
+        return max[c];
+    }
+
+    /**
+     * Get the mean raw value of a column
+     */
+    public double getMean(int c) {
+        return mean[c];
+    }
+
+    /**
+     * Get the (population) variance of the raw values of a column
+     */
+    public double getVariance(int c) {
+        return variance[c];
+    }
+
+    /**
+     * Copy one row into a network input vector
+     * @param row Row index
+     * @param input Destination of length numFeatures
+     */
+    public void copyRow(int row, double[] input) {
+        System.arraycopy(features, row * numFeatures, input, 0, numFeatures);
+    }
+
+    /**
+     * Copy one row's class index into a one-hot target vector
+     * @param row Row index
+     * @param target Destination of length numClasses
+     */
+    public void copyOneHot(int row, double[] target) {
+        Arrays.fill(target, 0.0);
+        target[labels[row]] = 1.0;
+    }
+
+    /**
+     * Copy the features into one input array per row, as Training expects
+     */
+    public double[][] toInputs() {
+        double[][] inputs = new double[numRows][numFeatures];
+        for (int r = 0; r < numRows; r++) {
+            copyRow(r, inputs[r]);
+        }
+        return inputs;
+    }
+
+    /**
+     * Build one-hot target arrays from the class indices
+     */
+    public double[][] toTargets() {
+        double[][] targets = new double[numRows][classSymbols.length];
+        for (int r = 0; r < numRows; r++) {
+            targets[r][labels[r]] = 1.0;
+        }
+        return targets;
+    }
+}
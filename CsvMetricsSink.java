@@ -0,0 +1,68 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes epoch metrics as CSV through a reused line buffer.
+ * Columns: epoch, error, examples, examples_per_second, epoch_nanos,
+ * forward_nanos, backward_nanos, update_nanos. Times are integer nanoseconds
+ * so they parse exactly.
+ */
+public class CsvMetricsSink implements MetricsSink {
+    static final String HEADER = "epoch,error,examples,examples_per_second,epoch_nanos,"
+            + "forward_nanos,backward_nanos,update_nanos";
+
+    private final OutputStream out;
+    private final StringBuilder line = new StringBuilder(128);
+    private final byte[] buffer = new byte[8192];
+    private int size;
+
+    /**
+     * Constructor for CsvMetricsSink; writes the header line
+     * @param out Destination stream (closed by close())
+     * @throws IOException if the header cannot be written
+     */
+    public CsvMetricsSink(OutputStream out) throws IOException {
+        this.out = out;
+        out.write((HEADER + "\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public void write(EpochMetrics metrics) throws IOException {
+        line.setLength(0);
+        line.append(metrics.epoch).append(',').append(metrics.error);
+        line.append(',').append(metrics.examples).append(',');
+        line.append(Math.round(metrics.examplesPerSecond())).append(',');
+        line.append(metrics.epochNanos).append(',');
+        line.append(metrics.forwardNanos).append(',');
+        line.append(metrics.backwardNanos).append(',');
+        line.append(metrics.updateNanos).append('\n');
+
+        int length = line.length();
+        if (size + length > buffer.length) {
+            flushBuffer();
+        }
+        for (int c = 0; c < length; c++) {
+            buffer[size++] = (byte) line.charAt(c);  // The line is plain ASCII
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (size > 0) {
+            out.write(buffer, 0, size);
+            size = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Reusable buffer holding the rows of one StreamingDataset chunk.
+ * Rows [0, count) are valid; the arrays keep their capacity between chunks.
+ */
+public class DataChunk {
+    final double[][] inputs;
+    final double[][] targets;
+    int count;  // Rows filled by the last readChunk
+    int index;  // Chunk index the rows came from
+
+    /**
+     * Constructor for DataChunk
+     * @param capacity Maximum rows per chunk
+     * @param numInputs Values per input vector
+     * @param numOutputs Values per target vector
+     */
+    public DataChunk(int capacity, int numInputs, int numOutputs) {
+        inputs = new double[capacity][numInputs];
+        targets = new double[capacity][numOutputs];
+    }
+
+    /**
+     * Get number of valid rows
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Get the chunk index the rows came from
+     */
+    public int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,299 @@
+import java.util.Arrays;
+
+/**
+ * One fully connected layer: y = act(W x + b).
+ * W is stored like the MLP weight matrices, flat and row-major with the bias
+ * last in each row, so W[j * (NI + 1) + i] is the weight from input i to
+ * unit j. The activation is fixed by the subclass chosen in create(), so the
+ * forward kernel computes a tile of weighted sums and activates it while it
+ * is still in cache, and neither the forward nor the backward kernels test
+ * the activation per element.
+ */
+abstract class DenseLayer {
+    // Block sizes for the batched kernels (examples x units per tile)
+    private static final int ROW_BLOCK = 64;
+    private static final int COL_BLOCK = 64;
+
+    final int NI;  // Number of inputs
+    final int NO;  // Number of units
+    final double[] W;   // Weights (NO x NI+1, +1 for bias)
+    final double[] dW;  // Accumulated weight changes, same layout as W
+
+    DenseLayer(int numInputs, int numUnits) {
+        this.NI = numInputs;
+        this.NO = numUnits;
+        this.W = new double[NO * (NI + 1)];
+        this.dW = new double[NO * (NI + 1)];
+    }
+
+    /**
+     * Create a layer specialised for an activation function
+     * @param numInputs Number of inputs
+     * @param numUnits Number of units (outputs)
+     * @param activation Activation applied to every unit
+     */
+    static DenseLayer create(int numInputs, int numUnits, Activation activation) {
+        switch (activation) {
+            case SIGMOID:
+                return new Sigmoid(numInputs, numUnits);
+            case TANH:
+                return new Tanh(numInputs, numUnits);
+            case LINEAR:
+                return new Linear(numInputs, numUnits);
+            case FAST_SIGMOID:
+                return new FastSigmoid(numInputs, numUnits);
+            case FAST_TANH:
+                return new FastTanh(numInputs, numUnits);
+            default:
+                throw new IllegalArgumentException("Unknown activation " + activation);
+        }
+    }
+
+    /**
+     * Get the activation this layer was specialised for
+     */
+    abstract Activation getActivation();
+
+    /**
+     * Apply the activation in place to values[off..off+n)
+     */
+    abstract void activate(double[] values, int off, int n);
+
+    /**
+     * Multiply delta[off..off+n) by the activation derivative at the outputs out[off..off+n)
+     */
+    abstract void applyDerivative(double[] delta, double[] out, int off, int n);
+
+    /**
+     * Initialize weights to small random values and reset weight changes to zero
+     */
+    void randomise() {
+        for (int w = 0; w < W.length; w++) {
+            W[w] = (Math.random() - 0.5) * 0.5;  // Random values in [-0.25, 0.25]
+        }
+        Arrays.fill(dW, 0.0);
+    }
+
+    /**
+     * y = act(W x + b) for one example
+     * @param x Input vector (NI values)
+     * @param y Destination for the NO outputs
+     */
+    final void forward(double[] x, double[] y) {
+        for (int j = 0; j < NO; j++) {
+            int row = j * (NI + 1);
+            y[j] = MLP.dot(W[row + NI], W, row, x, 0, NI);
+        }
+        activate(y, 0, NO);
+    }
+
+    /**
+     * Y = act(X W^T + b) for n examples, one row per example. Each tile of
+     * weighted sums is activated as soon as it is complete.
+     * @param X Inputs (n x NI, row-major)
+     * @param n Number of examples
+     * @param Y Destination (n x NO, row-major)
+     */
+    final void forwardBatch(double[] X, int n, double[] Y) {
+        for (int b0 = 0; b0 < n; b0 += ROW_BLOCK) {
+            int b1 = Math.min(b0 + ROW_BLOCK, n);
+            for (int j0 = 0; j0 < NO; j0 += COL_BLOCK) {
+                int j1 = Math.min(j0 + COL_BLOCK, NO);
+                for (int b = b0; b < b1; b++) {
+                    int out = b * NO;
+                    for (int j = j0; j < j1; j++) {
+                        int row = j * (NI + 1);
+                        Y[out + j] = MLP.dot(W[row + NI], W, row, X, b * NI, NI);
+                    }
+                    activate(Y, out + j0, j1 - j0);
+                }
+            }
+        }
+    }
+
+    /**
+     * dW += delta [x | 1] for one example
+     */
+    final void accumulate(double[] delta, double[] x) {
+        for (int j = 0; j < NO; j++) {
+            int row = j * (NI + 1);
+            MLP.axpy(delta[j], x, 0, dW, row, NI);
+            dW[row + NI] += delta[j];  // Bias update
+        }
+    }
+
+    /**
+     * dW += D^T [X | 1] for n examples, visited in order
+     */
+    final void accumulateBatch(double[] D, int n, double[] X) {
+        MLP.accumulateOuter(D, n, NO, X, NI, dW);
+    }
+
+    /**
+     * Propagate deltas to the inputs: deltaIn = W^T delta (without the bias
+     * column), read row by row; the caller applies the previous layer's derivative
+     */
+    final void backpropagate(double[] delta, double[] deltaIn) {
+        Arrays.fill(deltaIn, 0, NI, 0.0);
+        for (int j = 0; j < NO; j++) {
+            MLP.axpy(delta[j], W, j * (NI + 1), deltaIn, 0, NI);
+        }
+    }
+
+    /**
+     * Batched backpropagate over n examples, one row per example
+     */
+    final void backpropagateBatch(double[] D, int n, double[] DIn) {
+        for (int b = 0; b < n; b++) {
+            int row = b * NI;
+            Arrays.fill(DIn, row, row + NI, 0.0);
+            for (int j = 0; j < NO; j++) {
+                MLP.axpy(D[b * NO + j], W, j * (NI + 1), DIn, row, NI);
+            }
+        }
+    }
+
+    /**
+     * W += learningRate * dW, then reset dW
+     */
+    final void update(double learningRate) {
+        for (int w = 0; w < W.length; w++) {
+            W[w] += learningRate * dW[w];
+            dW[w] = 0.0;  // Reset for next batch
+        }
+    }
+
+    /**
+     * Logistic units
+     */
+    static final class Sigmoid extends DenseLayer {
+        Sigmoid(int numInputs, int numUnits) {
+            super(numInputs, numUnits);
+        }
+
+        @Override
+        Activation getActivation() {
+            return Activation.SIGMOID;
+        }
+
+        @Override
+        void activate(double[] values, int off, int n) {
+            for (int j = off; j < off + n; j++) {
+                values[j] = MLP.sigmoid(values[j]);
+            }
+        }
+
+        @Override
+        void applyDerivative(double[] delta, double[] out, int off, int n) {
+            for (int j = off; j < off + n; j++) {
+                delta[j] *= out[j] * (1.0 - out[j]);
+            }
+        }
+    }
+
+    /**
+     * Hyperbolic tangent units
+     */
+    static final class Tanh extends DenseLayer {
+        Tanh(int numInputs, int numUnits) {
+            super(numInputs, numUnits);
+        }
+
+        @Override
+        Activation getActivation() {
+            return Activation.TANH;
+        }
+
+        @Override
+        void activate(double[] values, int off, int n) {
+            for (int j = off; j < off + n; j++) {
+                values[j] = Math.tanh(values[j]);
+            }
+        }
+
+        @Override
+        void applyDerivative(double[] delta, double[] out, int off, int n) {
+            for (int j = off; j < off + n; j++) {
+                delta[j] *= 1.0 - out[j] * out[j];
+            }
+        }
+    }
+
+    /**
+     * Logistic units through the FastActivations table
+     */
+    static final class FastSigmoid extends DenseLayer {
+        FastSigmoid(int numInputs, int numUnits) {
+            super(numInputs, numUnits);
+        }
+
+        @Override
+        Activation getActivation() {
+            return Activation.FAST_SIGMOID;
+        }
+
+        @Override
+        void activate(double[] values, int off, int n) {
+            for (int j = off; j < off + n; j++) {
+                values[j] = FastActivations.sigmoid(values[j]);
+            }
+        }
+
+        @Override
+        void applyDerivative(double[] delta, double[] out, int off, int n) {
+            for (int j = off; j < off + n; j++) {
+                delta[j] *= out[j] * (1.0 - out[j]);
+            }
+        }
+    }
+
+    /**
+     * Hyperbolic tangent units through the FastActivations table
+     */
+    static final class FastTanh extends DenseLayer {
+        FastTanh(int numInputs, int numUnits) {
+            super(numInputs, numUnits);
+        }
+
+        @Override
+        Activation getActivation() {
+            return Activation.FAST_TANH;
+        }
+
+        @Override
+        void activate(double[] values, int off, int n) {
+            for (int j = off; j < off + n; j++) {
+                values[j] = FastActivations.tanh(values[j]);
+            }
+        }
+
+        @Override
+        void applyDerivative(double[] delta, double[] out, int off, int n) {
+            for (int j = off; j < off + n; j++) {
+                delta[j] *= 1.0 - out[j] * out[j];
+            }
+        }
+    }
+
+    /**
+     * Identity units (regression outputs); both hooks are no-ops
+     */
+    static final class Linear extends DenseLayer {
+        Linear(int numInputs, int numUnits) {
+            super(numInputs, numUnits);
+        }
+
+        @Override
+        Activation getActivation() {
+            return Activation.LINEAR;
+        }
+
+        @Override
+        void activate(double[] values, int off, int n) {
+        }
+
+        @Override
+        void applyDerivative(double[] delta, double[] out, int off, int n) {
+        }
+    }
+}
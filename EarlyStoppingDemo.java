@@ -0,0 +1,100 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * EarlyStoppingDemo: Fixed epoch budget vs background validation
+ * Trains the Test3 network (16x30x26, batch size 100) on a 60/20/20
+ * train/validation/test split of the letter data, once for the full epoch
+ * budget and once with validation every few epochs, early stopping and best
+ * weight restoring, and reports epochs run, time and test accuracy.
+ *
+ * Usage: java EarlyStoppingDemo [maxEpochs] [interval] [patience] [minDelta]
+ */
+public class EarlyStoppingDemo {
+
+    public static void main(String[] args) throws IOException {
+        int maxEpochs = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int interval = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int patience = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        double minDelta = args.length > 3 ? Double.parseDouble(args[3]) : 1.0;
+
+        System.out.println("===========================================");
+        System.out.println("Early Stopping: Letter Recognition");
+        System.out.println("===========================================\n");
+
+        LetterData data = LetterData.load("letter-recognition.csv");
+
+        int total = data.size();
+        int[] order = new int[total];
+        for (int i = 0; i < total; i++) order[i] = i;
+        Random random = new Random(42);
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        int trainSize = (int) (total * 0.6);
+        int validationSize = (int) (total * 0.2);
+        int testSize = total - trainSize - validationSize;
+        double[][] trainInputs = new double[trainSize][];
+        double[][] trainTargets = new double[trainSize][];
+        double[][] validationInputs = new double[validationSize][];
+        double[][] validationTargets = new double[validationSize][];
+        double[][] testInputs = new double[testSize][];
+        char[] testLetters = new char[testSize];
+        for (int i = 0; i < trainSize; i++) {
+            trainInputs[i] = data.inputs[order[i]];
+            trainTargets[i] = data.targets[order[i]];
+        }
+        for (int i = 0; i < validationSize; i++) {
+            validationInputs[i] = data.inputs[order[trainSize + i]];
+            validationTargets[i] = data.targets[order[trainSize + i]];
+        }
+        for (int i = 0; i < testSize; i++) {
+            testInputs[i] = data.inputs[order[trainSize + validationSize + i]];
+            testLetters[i] = data.letters[order[trainSize + validationSize + i]];
+        }
+
+        File log = File.createTempFile("early_stopping", ".txt");
+        log.deleteOnExit();
+
+        System.out.println("Max epochs: " + maxEpochs + ", validate every " + interval + " epochs, patience "
+                + patience + ", min delta " + minDelta);
+        System.out.println("Train / validation / test: " + trainSize + " / " + validationSize + " / " + testSize + "\n");
+        System.out.printf("%-16s %8s %10s %10s %16s %14s%n", "Run", "Epochs", "Best at", "Time (s)",
+                "Validation err", "Test accuracy");
+
+        for (boolean earlyStopping : new boolean[] {false, true}) {
+            Network network = new MLP(16, 30, 26, true, false);
+            Training trainer = new Training(network, maxEpochs, 100, 0.01);
+            trainer.setLogFileName(log.getPath());
+            if (earlyStopping) {
+                trainer.setValidation(validationInputs, validationTargets, interval);
+                trainer.setEarlyStopping(patience, minDelta);
+            }
+
+            long start = System.nanoTime();
+            trainer.train(trainInputs, trainTargets, false);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            int correct = 0;
+            for (int p = 0; p < testSize; p++) {
+                double[] output = network.forward(testInputs[p]);
+                int predicted = 0;
+                for (int k = 1; k < 26; k++) {
+                    if (output[k] > output[predicted]) predicted = k;
+                }
+                if ('A' + predicted == testLetters[p]) correct++;
+            }
+
+            int epochsRun = trainer.getStoppedEpoch() >= 0 ? trainer.getStoppedEpoch() + 1 : maxEpochs;
+            System.out.printf("%-16s %8d %10s %10.2f %16.2f %13.2f%%%n",
+                    earlyStopping ? "early stopping" : "fixed budget", epochsRun,
+                    earlyStopping ? Integer.toString(trainer.getBestValidationEpoch()) : "-", seconds,
+                    trainer.test(validationInputs, validationTargets),
+                    100.0 * correct / testSize);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes "Error at epoch N is X" lines through reused buffers.
+ * As a MetricsSink it can also append each epoch's throughput and phase
+ * times: "Error at epoch N is X (R examples/s; forward F ms, backward B ms,
+ * update U ms)".
+ * The line is formatted into a reused StringBuilder, copied as ASCII into a
+ * reused byte buffer and written to the stream in large chunks. Errors are
+ * printed exactly as Double.toString does; that can allocate, but Training
+ * only calls the writer from the metrics thread, never the training thread.
+ */
+public class EpochLogWriter implements MetricsSink {
+    private static final String PREFIX = "Error at epoch ";
+    private static final String INFIX = " is ";
+    private static final String NEWLINE = System.lineSeparator();
+
+    private final OutputStream out;
+    private final boolean flushEveryLine;  // true for consoles, false for files
+    private boolean timings = false;       // Append throughput and phase times to MetricsSink lines
+    private final StringBuilder line = new StringBuilder(64);
+    private final byte[] buffer = new byte[8192];
+    private int size;
+
+    /**
+     * Constructor for EpochLogWriter
+     * @param out Destination stream (closed by close())
+     * @param flushEveryLine true to write each line through immediately
+     */
+    public EpochLogWriter(OutputStream out, boolean flushEveryLine) {
+        this.out = out;
+        this.flushEveryLine = flushEveryLine;
+    }
+
+    /**
+     * Write one epoch line
+     * @param epoch Epoch number
+     * @param error Training error for the epoch
+     */
+    public void writeEpoch(int epoch, double error) throws IOException {
+        line.setLength(0);
+        line.append(PREFIX).append(epoch).append(INFIX).append(error).append(NEWLINE);
+        writeLine();
+    }
+
+    /**
+     * Write one epoch line, with throughput and phase times if timings are on
+     */
+    @Override
+    public void write(EpochMetrics metrics) throws IOException {
+        if (!timings) {
+            writeEpoch(metrics.epoch, metrics.error);
+            return;
+        }
+        line.setLength(0);
+        line.append(PREFIX).append(metrics.epoch).append(INFIX).append(metrics.error);
+        line.append(" (").append(Math.round(metrics.examplesPerSecond())).append(" examples/s; forward ");
+        appendMillis(line, metrics.forwardNanos);
+        line.append(" ms, backward ");
+        appendMillis(line, metrics.backwardNanos);
+        line.append(" ms, update ");
+        appendMillis(line, metrics.updateNanos);
+        line.append(" ms)").append(NEWLINE);
+        writeLine();
+    }
+
+    private void writeLine() throws IOException {
+        int length = line.length();
+        if (size + length > buffer.length) {
+            flush();
+        }
+        for (int c = 0; c < length; c++) {
+            buffer[size++] = (byte) line.charAt(c);  // The line is plain ASCII
+        }
+        if (flushEveryLine) {
+            flush();
+        }
+    }
+
+    /**
+     * Append nanoseconds as milliseconds with three decimals
+     */
+    static void appendMillis(StringBuilder sb, long nanos) {
+        long micros = (nanos + 500) / 1000;
+        sb.append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) sb.append('0');
+        if (fraction < 10) sb.append('0');
+        sb.append(fraction);
+    }
+
+    public boolean isTimings() {
+        return timings;
+    }
+
+    /**
+     * Append examples/s and forward/backward/update times to lines written as a MetricsSink
+     */
+    public void setTimings(boolean timings) {
+        this.timings = timings;
+    }
+
+    /**
+     * Write any buffered lines to the stream
+     */
+    @Override
+    public void flush() throws IOException {
+        if (size > 0) {
+            out.write(buffer, 0, size);
+            size = 0;
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Measurements of one training epoch, as delivered to a MetricsSink.
+ * Instances are reused by the metrics thread: sinks must copy any values they
+ * keep. Phase times cover the serial and mini-batch loops; online epochs are
+ * timed as a whole and split in the proportions timed on one example in
+ * Training.PHASE_SAMPLE_INTERVAL. In data-parallel mode the workers' fused
+ * forward and backward pass is counted as backward (forward is 0), and in
+ * asynchronous mode all phases are 0.
+ */
+public class EpochMetrics {
+    int epoch;
+    double error;
+    long examples;      // Examples trained on in the epoch
+    long epochNanos;    // Wall-clock time of the whole epoch
+    long forwardNanos;
+    long backwardNanos;
+    long updateNanos;
+
+    /**
+     * Get the epoch number
+     */
+    public int getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Get the training error for the epoch
+     */
+    public double getError() {
+        return error;
+    }
+
+    /**
+     * Get the number of examples trained on in the epoch
+     */
+    public long getExamples() {
+        return examples;
+    }
+
+    /**
+     * Get the wall-clock time of the epoch in nanoseconds
+     */
+    public long getEpochNanos() {
+        return epochNanos;
+    }
+
+    /**
+     * Get the time spent in forward passes in nanoseconds
+     */
+    public long getForwardNanos() {
+        return forwardNanos;
+    }
+
+    /**
+     * Get the time spent in backward passes in nanoseconds
+     */
+    public long getBackwardNanos() {
+        return backwardNanos;
+    }
+
+    /**
+     * Get the time spent updating weights in nanoseconds
+     */
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    /**
+     * Get the training throughput of the epoch
+     */
+    public double examplesPerSecond() {
+        return epochNanos > 0 ? examples * 1e9 / epochNanos : 0.0;
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Results of one Evaluator pass over a labelled dataset.
+ * Per-example arrays are in input order; top-k arrays are flat row-major
+ * (example p's i-th best class is at p * k + i). The confusion matrix is
+ * indexed [actual][predicted], where the actual class is the argmax of the
+ * target vector.
+ */
+public class EvaluationResult {
+    private final int numExamples;
+    private final int numClasses;
+    private final int k;
+    private final int[] predicted;
+    private final double[] confidence;
+    private final int[] topK;
+    private final double[] topKConfidence;
+    private final int[][] confusion;
+    private final int correct;
+    private final int topKCorrect;
+    private final double loss;
+
+    EvaluationResult(int numExamples, int numClasses, int k, int[] predicted, double[] confidence,
+                     int[] topK, double[] topKConfidence, int[][] confusion, int correct, int topKCorrect,
+                     double loss) {
+        this.numExamples = numExamples;
+        this.numClasses = numClasses;
+        this.k = k;
+        this.predicted = predicted;
+        this.confidence = confidence;
+        this.topK = topK;
+        this.topKConfidence = topKConfidence;
+        this.confusion = confusion;
+        this.correct = correct;
+        this.topKCorrect = topKCorrect;
+        this.loss = loss;
+    }
+
+    /**
+     * Get number of examples evaluated
+     */
+    public int getNumExamples() {
+        return numExamples;
+    }
+
+    /**
+     * Get number of classes (network outputs)
+     */
+    public int getNumClasses() {
+        return numClasses;
+    }
+
+    /**
+     * Get the k used for the top-k results
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Get the predicted (argmax) class of every example (not a copy)
+     */
+    public int[] getPredicted() {
+        return predicted;
+    }
+
+    /**
+     * Get the output value of every example's predicted class (not a copy)
+     */
+    public double[] getConfidence() {
+        return confidence;
+    }
+
+    /**
+     * Get the k highest-scoring classes of every example, best first (not a copy)
+     */
+    public int[] getTopK() {
+        return topK;
+    }
+
+    /**
+     * Get the outputs matching getTopK (not a copy)
+     */
+    public double[] getTopKConfidence() {
+        return topKConfidence;
+    }
+
+    /**
+     * Get the confusion matrix, [actual][predicted] (not a copy)
+     */
+    public int[][] getConfusionMatrix() {
+        return confusion;
+    }
+
+    /**
+     * Get number of examples whose predicted class matches the target
+     */
+    public int getCorrect() {
+        return correct;
+    }
+
+    /**
+     * Get the fraction of examples classified correctly
+     */
+    public double getAccuracy() {
+        return numExamples > 0 ? (double) correct / numExamples : 0.0;
+    }
+
+    /**
+     * Get the fraction of examples whose target class is among the top k
+     */
+    public double getTopKAccuracy() {
+        return numExamples > 0 ? (double) topKCorrect / numExamples : 0.0;
+    }
+
+    /**
+     * Get the total error (sum of squared errors / 2, as in Training.test)
+     */
+    public double getLoss() {
+        return loss;
+    }
+
+    /**
+     * Get number of examples whose target is class c
+     */
+    public int getClassCount(int c) {
+        int count = 0;
+        for (int p = 0; p < numClasses; p++) {
+            count += confusion[c][p];
+        }
+        return count;
+    }
+
+    /**
+     * Get the fraction of class c examples classified correctly (0 if there are none)
+     */
+    public double getClassAccuracy(int c) {
+        int count = getClassCount(c);
+        return count > 0 ? (double) confusion[c][c] / count : 0.0;
+    }
+}
@@ -0,0 +1,242 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Batched, parallel evaluation of a classifier.
+ * The examples are cut into one contiguous slice per thread; each slice is
+ * pushed through predictBatch in blocks of BLOCK_ROWS and, in the same pass,
+ * every example gets its argmax, top-k classes, loss and confusion matrix
+ * entry. Slice results are merged in slice order, so the loss is
+ * reproducible for a fixed thread count.
+ */
+public class Evaluator implements AutoCloseable {
+    static final int BLOCK_ROWS = 256;  // Examples per predictBatch call
+
+    private final InferenceModel model;
+    private final int numThreads;
+    private final ExecutorService pool;
+    private final InferenceContext[] contexts;  // One per slice
+
+    /**
+     * Constructor for Evaluator
+     * @param model Model to evaluate (shared read-only by all threads)
+     * @param numThreads Number of worker threads
+     */
+    public Evaluator(InferenceModel model, int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be at least 1, got " + numThreads);
+        }
+        this.model = model;
+        this.numThreads = numThreads;
+        this.pool = Executors.newFixedThreadPool(numThreads);
+        this.contexts = new InferenceContext[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            contexts[t] = model.newContext();
+        }
+    }
+
+    /**
+     * Constructor for Evaluator on all available processors
+     */
+    public Evaluator(InferenceModel model) {
+        this(model, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Get an inference model for any network: the network's own view, or a
+     * snapshot of the weights for other precisions
+     */
+    public static InferenceModel modelOf(Network network) {
+        if (network instanceof MLP) {
+            return ((MLP) network).inference();
+        }
+        if (network instanceof LayeredNetwork) {
+            return ((LayeredNetwork) network).inference();
+        }
+        WeightSnapshot snapshot = new WeightSnapshot(network);
+        snapshot.capture(network, -1);
+        return snapshot.inference();
+    }
+
+    /**
+     * Evaluate every example in one pass
+     * @param inputs Array of input vectors
+     * @param targets One-hot (or score) target vectors; the argmax is the actual class
+     * @param k Number of top classes to keep per example (1 to numOutputs)
+     * @return Predictions, top-k results, confusion matrix, accuracy and loss
+     */
+    public EvaluationResult evaluate(double[][] inputs, double[][] targets, int k) {
+        return evaluateRange(inputs, targets, null, 0, inputs.length, k);
+    }
+
+    /**
+     * Evaluate the examples named by rows[from..to) in one pass, without
+     * copying them out of the shared arrays (e.g. a cross-validation fold).
+     * Example i of the result is row rows[from + i].
+     * @param inputs Array of input vectors
+     * @param targets One-hot (or score) target vectors; the argmax is the actual class
+     * @param rows Row indices into inputs and targets
+     * @param from Start of the examples in rows
+     * @param to End (exclusive) of the examples in rows
+     * @param k Number of top classes to keep per example (1 to numOutputs)
+     * @return Predictions, top-k results, confusion matrix, accuracy and loss
+     */
+    public EvaluationResult evaluate(double[][] inputs, double[][] targets, int[] rows, int from, int to, int k) {
+        if (from < 0 || to < from || to > rows.length) {
+            throw new IllegalArgumentException("Invalid row range [" + from + ", " + to + ") of " + rows.length);
+        }
+        return evaluateRange(inputs, targets, rows, from, to - from, k);
+    }
+
+    /**
+     * Evaluate n examples: rows[offset..offset+n) if rows is given, otherwise inputs[offset..offset+n)
+     */
+    private EvaluationResult evaluateRange(final double[][] inputs, final double[][] targets, final int[] rows,
+                                           final int offset, final int n, final int k) {
+        final int numClasses = model.getNumOutputs();
+        if (k < 1 || k > numClasses) {
+            throw new IllegalArgumentException("k must be between 1 and " + numClasses + ", got " + k);
+        }
+        final int[] predicted = new int[n];
+        final double[] confidence = new double[n];
+        final int[] topK = new int[n * k];
+        final double[] topKConfidence = new double[n * k];
+
+        int slices = Math.max(1, Math.min(numThreads, n));
+        List<Callable<Slice>> tasks = new ArrayList<>(slices);
+        for (int t = 0; t < slices; t++) {
+            final InferenceContext context = contexts[t];
+            final int from = (int) ((long) n * t / slices);
+            final int to = (int) ((long) n * (t + 1) / slices);
+            tasks.add(new Callable<Slice>() {
+                @Override
+                public Slice call() {
+                    Slice slice = new Slice(numClasses);
+                    double[][] block = rows != null ? new double[BLOCK_ROWS][] : null;
+                    for (int start = from; start < to; start += BLOCK_ROWS) {
+                        int count = Math.min(BLOCK_ROWS, to - start);
+                        double[] outputs;
+                        if (rows == null) {
+                            outputs = model.predictBatch(inputs, offset + start, count, context);
+                        } else {
+                            // Gather the block's row references; the rows themselves are not copied
+                            for (int b = 0; b < count; b++) {
+                                block[b] = inputs[rows[offset + start + b]];
+                            }
+                            outputs = model.predictBatch(block, 0, count, context);
+                        }
+                        for (int b = 0; b < count; b++) {
+                            int p = offset + start + b;
+                            slice.add(start + b, outputs, b * numClasses, targets[rows != null ? rows[p] : p], k,
+                                    predicted, confidence, topK, topKConfidence);
+                        }
+                    }
+                    return slice;
+                }
+            });
+        }
+
+        Slice total = new Slice(numClasses);
+        try {
+            for (Future<Slice> slice : pool.invokeAll(tasks)) {
+                total.merge(slice.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during evaluation", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Evaluation worker failed", e.getCause());
+        }
+
+        return new EvaluationResult(n, numClasses, k, predicted, confidence, topK, topKConfidence,
+                total.confusion, total.correct, total.topKCorrect, total.loss);
+    }
+
+    /**
+     * Totals of one slice of examples
+     */
+    private static final class Slice {
+        final int[][] confusion;
+        int correct;
+        int topKCorrect;
+        double loss;
+
+        Slice(int numClasses) {
+            confusion = new int[numClasses][numClasses];
+        }
+
+        /**
+         * Score one example whose outputs start at outputs[off]
+         */
+        void add(int p, double[] outputs, int off, double[] target, int k,
+                 int[] predicted, double[] confidence, int[] topK, double[] topKConfidence) {
+            int numClasses = confusion.length;
+            int actual = 0;
+            double error = 0.0;
+            for (int c = 0; c < numClasses; c++) {
+                double diff = target[c] - outputs[off + c];
+                error += diff * diff;
+                if (target[c] > target[actual]) actual = c;
+            }
+            loss += error / 2.0;
+
+            // Insertion into the top-k list, best first (ties keep the lower class)
+            int base = p * k;
+            int filled = 0;
+            for (int c = 0; c < numClasses; c++) {
+                double value = outputs[off + c];
+                if (filled == k && value <= topKConfidence[base + k - 1]) continue;
+                int i = filled < k ? filled++ : k - 1;
+                while (i > 0 && value > topKConfidence[base + i - 1]) {
+                    topK[base + i] = topK[base + i - 1];
+                    topKConfidence[base + i] = topKConfidence[base + i - 1];
+                    i--;
+                }
+                topK[base + i] = c;
+                topKConfidence[base + i] = value;
+            }
+
+            predicted[p] = topK[base];
+            confidence[p] = topKConfidence[base];
+            confusion[actual][predicted[p]]++;
+            if (predicted[p] == actual) correct++;
+            for (int i = 0; i < k; i++) {
+                if (topK[base + i] == actual) {
+                    topKCorrect++;
+                    break;
+                }
+            }
+        }
+
+        void merge(Slice other) {
+            for (int a = 0; a < confusion.length; a++) {
+                for (int c = 0; c < confusion.length; c++) {
+                    confusion[a][c] += other.confusion[a][c];
+                }
+            }
+            correct += other.correct;
+            topKCorrect += other.topKCorrect;
+            loss += other.loss;
+        }
+    }
+
+    /**
+     * Get number of worker threads
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Shut down the worker pool
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
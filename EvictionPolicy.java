@@ -0,0 +1,16 @@
+/**
+ * Which entry a full PredictionCache gives up for a new one.
+ */
+public enum EvictionPolicy {
+    /** Least recently used: exact recency order, one list update per hit */
+    LRU,
+    /** CLOCK (second chance): a hit only sets a reference bit; approximates LRU */
+    CLOCK;
+
+    /**
+     * Parse a policy name, ignoring case
+     */
+    public static EvictionPolicy parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
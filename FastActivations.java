@@ -0,0 +1,87 @@
+/**
+ * Table-interpolated sigmoid and tanh.
+ * The logistic function is tabulated on [-16, 16] at 64 points per unit and
+ * linearly interpolated between them; each entry holds the value and the
+ * slope to the next point, so one evaluation is an index computation, two
+ * adjacent loads and a multiply-add. Outside the table the result is 0 or 1.
+ * tanh reuses the same table through tanh(x) = 2 sigmoid(2x) - 1.
+ *
+ * Maximum absolute error over all doubles (the interpolation bound
+ * h^2/8 * max|sigmoid''| with h = 1/64):
+ * - sigmoid: 3.0e-6
+ * - tanh:    6.0e-6
+ * NaN maps to NaN. Run "java FastActivations" to measure the errors.
+ */
+public final class FastActivations {
+    /** Largest absolute difference from 1 / (1 + exp(-x)) */
+    public static final double MAX_SIGMOID_ERROR = 3.0e-6;
+    /** Largest absolute difference from Math.tanh(x) */
+    public static final double MAX_TANH_ERROR = 6.0e-6;
+
+    private static final double RANGE = 16.0;          // Table covers [-RANGE, RANGE]
+    private static final double STEPS_PER_UNIT = 64.0;
+    private static final int STEPS = (int) (2 * RANGE * STEPS_PER_UNIT);
+
+    // TABLE[2i] = sigmoid(x_i), TABLE[2i + 1] = sigmoid(x_i+1) - sigmoid(x_i)
+    private static final double[] TABLE = new double[2 * (STEPS + 1)];
+
+    static {
+        for (int i = 0; i <= STEPS; i++) {
+            double x0 = i / STEPS_PER_UNIT - RANGE;
+            double x1 = (i + 1) / STEPS_PER_UNIT - RANGE;
+            double y0 = MLP.sigmoid(x0);
+            TABLE[2 * i] = y0;
+            TABLE[2 * i + 1] = MLP.sigmoid(x1) - y0;
+        }
+    }
+
+    private FastActivations() {
+    }
+
+    /**
+     * Approximate 1 / (1 + exp(-x)), within MAX_SIGMOID_ERROR
+     */
+    public static double sigmoid(double x) {
+        if (x <= -RANGE) return 0.0;
+        if (x >= RANGE) return 1.0;
+        double t = (x + RANGE) * STEPS_PER_UNIT;
+        int i = (int) t;
+        return TABLE[2 * i] + (t - i) * TABLE[2 * i + 1];
+    }
+
+    /**
+     * Approximate Math.tanh(x), within MAX_TANH_ERROR
+     */
+    public static double tanh(double x) {
+        return 2.0 * sigmoid(2.0 * x) - 1.0;
+    }
+
+    /**
+     * Measure the maximum absolute error of both approximations on a dense grid
+     * Usage: java FastActivations [pointsPerUnit]
+     */
+    public static void main(String[] args) {
+        int pointsPerUnit = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        double sigmoidError = 0.0;
+        double sigmoidWorst = 0.0;
+        double tanhError = 0.0;
+        double tanhWorst = 0.0;
+        for (long p = -20L * pointsPerUnit; p <= 20L * pointsPerUnit; p++) {
+            double x = (double) p / pointsPerUnit;
+            double e = Math.abs(sigmoid(x) - MLP.sigmoid(x));
+            if (e > sigmoidError) {
+                sigmoidError = e;
+                sigmoidWorst = x;
+            }
+            e = Math.abs(tanh(x) - Math.tanh(x));
+            if (e > tanhError) {
+                tanhError = e;
+                tanhWorst = x;
+            }
+        }
+        System.out.printf("sigmoid: max error %.3e at x = %.5f (documented %.1e)%n", sigmoidError, sigmoidWorst,
+                MAX_SIGMOID_ERROR);
+        System.out.printf("tanh:    max error %.3e at x = %.5f (documented %.1e)%n", tanhError, tanhWorst,
+                MAX_TANH_ERROR);
+    }
+}
@@ -0,0 +1,411 @@
+import java.util.Arrays;
+
+/**
+ * Single-precision Multi-Layer Perceptron
+ * Same network, training rule and flat row-major weight layout as MLP, but
+ * every weight, activation and gradient is a float. Inputs and targets are
+ * still passed as double[] and converted at the boundary.
+ */
+public class FloatMLP implements Network {
+    // Block sizes for the mini-batch matrix kernels (examples x neurons per tile)
+    private static final int ROW_BLOCK = 64;
+    private static final int COL_BLOCK = 64;
+
+    // Network architecture
+    private int NI;  // Number of inputs
+    private int NH;  // Number of hidden units
+    private int NO;  // Number of outputs
+
+    // Weights (NH x NI+1 and NO x NH+1, bias last in each row)
+    private float[] W1;
+    private float[] W2;
+
+    // Weight changes (gradients accumulated)
+    private float[] dW1;
+    private float[] dW2;
+
+    // Per-example buffers
+    private float[] I;          // Input converted to float
+    private float[] H;          // Hidden layer outputs
+    private float[] O;          // Output layer outputs
+    private float[] deltaHidden;
+    private float[] deltaOutput;
+    private double[] output;    // O widened to double for callers
+
+    // Mini-batch buffers (row-major, one row per example), grown on demand
+    private int batchCapacity;
+    private float[] XB;
+    private float[] HB;
+    private float[] OB;
+    private float[] deltaHB;
+    private float[] deltaOB;
+    private double[] outputB;
+
+    // Activation function options
+    private boolean useTanhHidden;    // true = tanh, false = sigmoid for hidden layer
+    private boolean useLinearOutput;  // true = linear, false = sigmoid for output layer
+
+    /**
+     * Constructor for FloatMLP
+     * @param numInputs Number of input neurons
+     * @param numHidden Number of hidden neurons
+     * @param numOutputs Number of output neurons
+     * @param useTanhHidden true for tanh hidden activation, false for sigmoid
+     * @param useLinearOutput true for linear output, false for sigmoid
+     */
+    public FloatMLP(int numInputs, int numHidden, int numOutputs, boolean useTanhHidden, boolean useLinearOutput) {
+        this.NI = numInputs;
+        this.NH = numHidden;
+        this.NO = numOutputs;
+        this.useTanhHidden = useTanhHidden;
+        this.useLinearOutput = useLinearOutput;
+
+        W1 = new float[NH * (NI + 1)];
+        W2 = new float[NO * (NH + 1)];
+        dW1 = new float[NH * (NI + 1)];
+        dW2 = new float[NO * (NH + 1)];
+
+        I = new float[NI];
+        H = new float[NH];
+        O = new float[NO];
+        deltaHidden = new float[NH];
+        deltaOutput = new float[NO];
+        output = new double[NO];
+
+        randomise();
+    }
+
+    @Override
+    public void randomise() {
+        for (int w = 0; w < W1.length; w++) {
+            W1[w] = (float) ((Math.random() - 0.5) * 0.5);  // Random values in [-0.25, 0.25]
+        }
+        for (int w = 0; w < W2.length; w++) {
+            W2[w] = (float) ((Math.random() - 0.5) * 0.5);
+        }
+        Arrays.fill(dW1, 0f);
+        Arrays.fill(dW2, 0f);
+    }
+
+    private static float sigmoid(float x) {
+        return 1f / (1f + (float) Math.exp(-x));
+    }
+
+    private static float dot(float init, float[] a, int aOff, float[] b, int bOff, int n) {
+        float sum = init;
+        for (int i = 0; i < n; i++) {
+            sum += a[aOff + i] * b[bOff + i];
+        }
+        return sum;
+    }
+
+    private static void axpy(float alpha, float[] x, int xOff, float[] y, int yOff, int n) {
+        for (int i = 0; i < n; i++) {
+            y[yOff + i] += alpha * x[xOff + i];
+        }
+    }
+
+    private void activateHidden(float[] values, int off, int n) {
+        if (useTanhHidden) {
+            for (int j = off; j < off + n; j++) {
+                values[j] = (float) Math.tanh(values[j]);
+            }
+        } else {
+            for (int j = off; j < off + n; j++) {
+                values[j] = sigmoid(values[j]);
+            }
+        }
+    }
+
+    private void activateOutput(float[] values, int off, int n) {
+        if (!useLinearOutput) {
+            for (int k = off; k < off + n; k++) {
+                values[k] = sigmoid(values[k]);
+            }
+        }
+    }
+
+    private void applyHiddenDerivative(float[] delta, float[] out, int off, int n) {
+        if (useTanhHidden) {
+            for (int j = off; j < off + n; j++) {
+                delta[j] *= 1f - out[j] * out[j];
+            }
+        } else {
+            for (int j = off; j < off + n; j++) {
+                delta[j] *= out[j] * (1f - out[j]);
+            }
+        }
+    }
+
+    /**
+     * Output delta for one unit given its error and output
+     */
+    private float outputDelta(float diff, float out) {
+        return useLinearOutput ? diff : diff * out * (1f - out);
+    }
+
+    @Override
+    public double[] forward(double[] input) {
+        for (int i = 0; i < NI; i++) {
+            I[i] = (float) input[i];
+        }
+
+        for (int j = 0; j < NH; j++) {
+            int row = j * (NI + 1);
+            H[j] = dot(W1[row + NI], W1, row, I, 0, NI);
+        }
+        activateHidden(H, 0, NH);
+
+        for (int k = 0; k < NO; k++) {
+            int row = k * (NH + 1);
+            O[k] = dot(W2[row + NH], W2, row, H, 0, NH);
+        }
+        activateOutput(O, 0, NO);
+
+        for (int k = 0; k < NO; k++) {
+            output[k] = O[k];
+        }
+        return output;
+    }
+
+    @Override
+    public double backwards(double[] input, double[] t) {
+        for (int i = 0; i < NI; i++) {
+            I[i] = (float) input[i];
+        }
+
+        float error = 0f;
+        for (int k = 0; k < NO; k++) {
+            float diff = (float) t[k] - O[k];
+            error += diff * diff;
+            deltaOutput[k] = outputDelta(diff, O[k]);
+        }
+
+        for (int k = 0; k < NO; k++) {
+            int row = k * (NH + 1);
+            axpy(deltaOutput[k], H, 0, dW2, row, NH);
+            dW2[row + NH] += deltaOutput[k];
+        }
+
+        Arrays.fill(deltaHidden, 0f);
+        for (int k = 0; k < NO; k++) {
+            axpy(deltaOutput[k], W2, k * (NH + 1), deltaHidden, 0, NH);
+        }
+        applyHiddenDerivative(deltaHidden, H, 0, NH);
+
+        for (int j = 0; j < NH; j++) {
+            int row = j * (NI + 1);
+            axpy(deltaHidden[j], I, 0, dW1, row, NI);
+            dW1[row + NI] += deltaHidden[j];
+        }
+
+        return error / 2.0;
+    }
+
+    private void ensureBatchCapacity(int count) {
+        if (count <= batchCapacity) return;
+        batchCapacity = count;
+        XB = new float[count * NI];
+        HB = new float[count * NH];
+        OB = new float[count * NO];
+        deltaHB = new float[count * NH];
+        deltaOB = new float[count * NO];
+        outputB = new double[count * NO];
+    }
+
+    @Override
+    public double[] forwardBatch(double[][] inputs, int start, int count) {
+        ensureBatchCapacity(count);
+
+        for (int b = 0; b < count; b++) {
+            double[] input = inputs[start + b];
+            for (int i = 0; i < NI; i++) {
+                XB[b * NI + i] = (float) input[i];
+            }
+        }
+
+        multiplyTransposed(XB, count, NI, W1, NH, HB);
+        activateHidden(HB, 0, count * NH);
+        multiplyTransposed(HB, count, NH, W2, NO, OB);
+        activateOutput(OB, 0, count * NO);
+
+        for (int v = 0; v < count * NO; v++) {
+            outputB[v] = OB[v];
+        }
+        return outputB;
+    }
+
+    @Override
+    public double backwardsBatch(double[][] targets, int start, int count) {
+        double error = 0.0;
+        for (int b = 0; b < count; b++) {
+            double[] t = targets[start + b];
+            int row = b * NO;
+            float exampleError = 0f;
+            for (int k = 0; k < NO; k++) {
+                float diff = (float) t[k] - OB[row + k];
+                exampleError += diff * diff;
+                deltaOB[row + k] = outputDelta(diff, OB[row + k]);
+            }
+            error += exampleError / 2.0;
+        }
+
+        accumulateOuter(deltaOB, count, NO, HB, NH, dW2);
+
+        for (int b = 0; b < count; b++) {
+            int row = b * NH;
+            Arrays.fill(deltaHB, row, row + NH, 0f);
+            for (int k = 0; k < NO; k++) {
+                axpy(deltaOB[b * NO + k], W2, k * (NH + 1), deltaHB, row, NH);
+            }
+        }
+        applyHiddenDerivative(deltaHB, HB, 0, count * NH);
+
+        accumulateOuter(deltaHB, count, NH, XB, NI, dW1);
+
+        return error;
+    }
+
+    /**
+     * C = A * W^T + bias (see MLP.multiplyTransposed)
+     */
+    private static void multiplyTransposed(float[] A, int n, int K, float[] W, int m, float[] C) {
+        for (int b0 = 0; b0 < n; b0 += ROW_BLOCK) {
+            int b1 = Math.min(b0 + ROW_BLOCK, n);
+            for (int j0 = 0; j0 < m; j0 += COL_BLOCK) {
+                int j1 = Math.min(j0 + COL_BLOCK, m);
+                for (int b = b0; b < b1; b++) {
+                    for (int j = j0; j < j1; j++) {
+                        int row = j * (K + 1);
+                        C[b * m + j] = dot(W[row + K], W, row, A, b * K, K);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * G += D^T * [A | 1] (see MLP.accumulateOuter)
+     */
+    private static void accumulateOuter(float[] D, int n, int m, float[] A, int K, float[] G) {
+        for (int j0 = 0; j0 < m; j0 += COL_BLOCK) {
+            int j1 = Math.min(j0 + COL_BLOCK, m);
+            for (int b0 = 0; b0 < n; b0 += ROW_BLOCK) {
+                int b1 = Math.min(b0 + ROW_BLOCK, n);
+                for (int j = j0; j < j1; j++) {
+                    int row = j * (K + 1);
+                    for (int b = b0; b < b1; b++) {
+                        float d = D[b * m + j];
+                        axpy(d, A, b * K, G, row, K);
+                        G[row + K] += d;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void updateWeights(double learningRate) {
+        float lr = (float) learningRate;
+        for (int w = 0; w < W1.length; w++) {
+            W1[w] += lr * dW1[w];
+            dW1[w] = 0f;
+        }
+        for (int w = 0; w < W2.length; w++) {
+            W2[w] += lr * dW2[w];
+            dW2[w] = 0f;
+        }
+    }
+
+    @Override
+    public void updateWeights(Optimiser optimiser, double learningRate) {
+        optimiser.beginStep();
+        optimiser.update(W1, dW1, 0, W1.length, learningRate);
+        optimiser.update(W2, dW2, W1.length, W2.length, learningRate);
+    }
+
+    /**
+     * Copy the weights into caller-owned arrays, widened to double
+     * @param w1 Destination for W1 (NH x NI+1, row-major, bias last)
+     * @param w2 Destination for W2 (NO x NH+1, row-major, bias last)
+     */
+    public void copyWeights(double[] w1, double[] w2) {
+        copyLayerWeights(0, w1);
+        copyLayerWeights(1, w2);
+    }
+
+    /**
+     * Overwrite the weights (same layout as copyWeights, rounded to float) and reset weight changes
+     * @param w1 New W1 values
+     * @param w2 New W2 values
+     */
+    public void setWeights(double[] w1, double[] w2) {
+        setLayerWeights(0, w1);
+        setLayerWeights(1, w2);
+    }
+
+    @Override
+    public int getNumLayers() {
+        return 2;
+    }
+
+    @Override
+    public int getLayerSize(int layer) {
+        return layer == 0 ? NH : NO;
+    }
+
+    @Override
+    public Activation getActivation(int layer) {
+        if (layer == 0) {
+            return useTanhHidden ? Activation.TANH : Activation.SIGMOID;
+        }
+        return useLinearOutput ? Activation.LINEAR : Activation.SIGMOID;
+    }
+
+    @Override
+    public void copyLayerWeights(int layer, double[] w) {
+        float[] W = layer == 0 ? W1 : W2;
+        for (int i = 0; i < W.length; i++) {
+            w[i] = W[i];
+        }
+    }
+
+    @Override
+    public void setLayerWeights(int layer, double[] w) {
+        float[] W = layer == 0 ? W1 : W2;
+        for (int i = 0; i < W.length; i++) {
+            W[i] = (float) w[i];
+        }
+        Arrays.fill(layer == 0 ? dW1 : dW2, 0f);
+    }
+
+    @Override
+    public double[] getOutput() {
+        return output;
+    }
+
+    @Override
+    public int getNumInputs() {
+        return NI;
+    }
+
+    @Override
+    public int getNumHidden() {
+        return NH;
+    }
+
+    @Override
+    public int getNumOutputs() {
+        return NO;
+    }
+
+    @Override
+    public boolean isTanhHidden() {
+        return useTanhHidden;
+    }
+
+    @Override
+    public boolean isLinearOutput() {
+        return useLinearOutput;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * StreamingDataset view of one side of a cross-validation fold.
+ * The rows are named by a shared permutation of the dataset's row indices:
+ * the held-out fold is the range order[from..to), and the training side is
+ * every other entry of order. Nothing is copied up front; readChunk gathers
+ * the rows of one chunk from the shared arrays, so a fold costs only its
+ * chunk buffers.
+ */
+public class FoldDataset implements StreamingDataset {
+    private final double[][] inputs;
+    private final double[][] targets;
+    private final int[] order;       // Permutation of the row indices (shared, read-only)
+    private final int from;          // Held-out fold is order[from..to)
+    private final int to;
+    private final boolean complement; // true: every row outside the fold
+    private final int chunkRows;
+
+    /**
+     * Constructor for FoldDataset
+     * @param inputs Input vectors of the whole dataset (shared, read-only)
+     * @param targets Target vectors of the whole dataset (shared, read-only)
+     * @param order Permutation of the row indices
+     * @param from Start of the held-out fold in order
+     * @param to End (exclusive) of the held-out fold in order
+     * @param complement false for the held-out rows, true for the training rows
+     * @param chunkRows Rows per chunk (a multiple of the batch size keeps mini-batches whole)
+     */
+    public FoldDataset(double[][] inputs, double[][] targets, int[] order, int from, int to,
+                       boolean complement, int chunkRows) {
+        if (from < 0 || to < from || to > order.length) {
+            throw new IllegalArgumentException("Invalid fold range [" + from + ", " + to + ") of " + order.length);
+        }
+        if (chunkRows < 1) {
+            throw new IllegalArgumentException("chunkRows must be at least 1, got " + chunkRows);
+        }
+        this.inputs = inputs;
+        this.targets = targets;
+        this.order = order;
+        this.from = from;
+        this.to = to;
+        this.complement = complement;
+        this.chunkRows = chunkRows;
+    }
+
+    /**
+     * Dataset row index of the i-th row of this view
+     */
+    public int row(int i) {
+        if (!complement) {
+            return order[from + i];
+        }
+        return i < from ? order[i] : order[i + (to - from)];
+    }
+
+    @Override
+    public int getNumRows() {
+        return complement ? order.length - (to - from) : to - from;
+    }
+
+    @Override
+    public int getNumInputs() {
+        return inputs[0].length;
+    }
+
+    @Override
+    public int getNumOutputs() {
+        return targets[0].length;
+    }
+
+    @Override
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    @Override
+    public void readChunk(int chunk, DataChunk dst) {
+        int start = chunk * chunkRows;
+        int count = Math.min(chunkRows, getNumRows() - start);
+        int numInputs = getNumInputs();
+        int numOutputs = getNumOutputs();
+        for (int r = 0; r < count; r++) {
+            int row = row(start + r);
+            System.arraycopy(inputs[row], 0, dst.inputs[r], 0, numInputs);
+            System.arraycopy(targets[row], 0, dst.targets[r], 0, numOutputs);
+        }
+        dst.count = count;
+        dst.index = chunk;
+    }
+}
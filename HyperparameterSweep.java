@@ -0,0 +1,294 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many training trials concurrently and ranks them on a validation set.
+ * Every trial trains its own MLP with its own Training on a worker of a
+ * fixed-size pool; all of them read the same training and validation arrays,
+ * which are never written. Trials advance in rungs of successive halving:
+ * all trials train for minEpochs, the best 1/reductionFactor of them go on to
+ * reductionFactor times as many epochs, and so on up to maxEpochs, so most
+ * of the budget goes to the promising configurations. A reduction factor of
+ * 1 trains every trial for maxEpochs.
+ */
+public class HyperparameterSweep {
+    private final double[][] trainInputs;
+    private final double[][] trainTargets;
+    private final double[][] validationInputs;
+    private final double[][] validationTargets;
+    private final boolean useLinearOutput;
+    private int numThreads = Runtime.getRuntime().availableProcessors();
+    private int minEpochs = 25;       // Budget of the first rung
+    private int maxEpochs = 200;      // Budget of the last rung
+    private int reductionFactor = 3;  // Rung-to-rung growth of the budget and shrink of the field
+    private boolean rankByAccuracy;   // false: rank by validation loss
+    private PrintStream progress;     // Rung summaries (null = quiet)
+
+    /**
+     * Constructor for HyperparameterSweep
+     * @param trainInputs Training input vectors (shared read-only by all trials)
+     * @param trainTargets Training target vectors
+     * @param validationInputs Validation input vectors used for ranking
+     * @param validationTargets Validation target vectors
+     * @param useLinearOutput true for linear output units (regression), false for sigmoid
+     */
+    public HyperparameterSweep(double[][] trainInputs, double[][] trainTargets,
+                               double[][] validationInputs, double[][] validationTargets, boolean useLinearOutput) {
+        this.trainInputs = trainInputs;
+        this.trainTargets = trainTargets;
+        this.validationInputs = validationInputs;
+        this.validationTargets = validationTargets;
+        this.useLinearOutput = useLinearOutput;
+        this.rankByAccuracy = !useLinearOutput && trainTargets[0].length > 1;
+    }
+
+    /**
+     * Train and rank every configuration
+     * @param configs Configurations to try, e.g. from SearchSpace.grid()
+     * @return One result per configuration, best first
+     */
+    public List<SweepResult> run(List<SweepConfig> configs) {
+        List<Trial> active = new ArrayList<>();
+        List<Trial> all = new ArrayList<>();
+        for (SweepConfig config : configs) {
+            Trial trial = new Trial(config);
+            active.add(trial);
+            all.add(trial);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(numThreads, configs.size())));
+        try {
+            int budget = reductionFactor > 1 ? Math.min(minEpochs, maxEpochs) : maxEpochs;
+            int rung = 0;
+            while (!active.isEmpty()) {
+                final int target = budget;
+                List<Callable<Void>> tasks = new ArrayList<>(active.size());
+                for (final Trial trial : active) {
+                    tasks.add(new Callable<Void>() {
+                        @Override
+                        public Void call() {
+                            trial.trainTo(target);
+                            return null;
+                        }
+                    });
+                }
+                for (Future<Void> task : pool.invokeAll(tasks)) {
+                    task.get();
+                }
+
+                Collections.sort(active, ranking());
+                if (progress != null) {
+                    Trial best = active.get(0);
+                    progress.printf("Rung %d: %d trials at %d epochs, best %s (%s)%n", rung, active.size(), budget,
+                            score(best), best.config);
+                }
+                if (budget >= maxEpochs) {
+                    break;
+                }
+
+                // Keep the top 1/reductionFactor (at least one) for the next rung
+                int keep = Math.max(1, (active.size() + reductionFactor - 1) / reductionFactor);
+                for (int t = keep; t < active.size(); t++) {
+                    active.get(t).stopped = true;
+                }
+                active = new ArrayList<>(active.subList(0, keep));
+                budget = (int) Math.min((long) budget * reductionFactor, maxEpochs);
+                rung++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during sweep", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sweep trial failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        // Trials that went further rank above those stopped earlier
+        Collections.sort(all, new Comparator<Trial>() {
+            @Override
+            public int compare(Trial a, Trial b) {
+                if (a.epochs != b.epochs) {
+                    return Integer.compare(b.epochs, a.epochs);
+                }
+                return ranking().compare(a, b);
+            }
+        });
+        List<SweepResult> results = new ArrayList<>(all.size());
+        for (Trial trial : all) {
+            results.add(new SweepResult(trial.config, trial.epochs, !trial.stopped, trial.trainError,
+                    trial.loss, trial.accuracy, trial.nanos / 1e9));
+        }
+        return results;
+    }
+
+    /**
+     * Order trials best first: by accuracy (then loss) or by loss; NaN losses last
+     */
+    private Comparator<Trial> ranking() {
+        return new Comparator<Trial>() {
+            @Override
+            public int compare(Trial a, Trial b) {
+                if (rankByAccuracy && Double.compare(a.accuracy, b.accuracy) != 0) {
+                    return Double.compare(b.accuracy, a.accuracy);
+                }
+                boolean aNaN = Double.isNaN(a.loss);
+                if (aNaN != Double.isNaN(b.loss)) {
+                    return aNaN ? 1 : -1;
+                }
+                return Double.compare(a.loss, b.loss);
+            }
+        };
+    }
+
+    private String score(Trial trial) {
+        return rankByAccuracy ? String.format("%.2f%% accuracy", 100.0 * trial.accuracy)
+                : String.format("%.4f loss", trial.loss);
+    }
+
+    /**
+     * Print the ranked results as a table
+     * @param results Results of run (best first)
+     * @param out Destination
+     * @param limit Largest number of rows to print
+     */
+    public static void printTable(List<SweepResult> results, PrintStream out, int limit) {
+        out.printf("%4s %7s %8s %10s %6s %-9s %7s %12s %12s %10s %9s%n", "Rank", "Hidden", "Act", "Rate",
+                "Batch", "Optimiser", "Epochs", "Train error", "Valid loss", "Accuracy", "Time (s)");
+        for (int r = 0; r < Math.min(limit, results.size()); r++) {
+            SweepResult result = results.get(r);
+            SweepConfig config = result.getConfig();
+            String accuracy = Double.isNaN(result.getValidationAccuracy()) ? "-"
+                    : String.format("%.2f%%", 100.0 * result.getValidationAccuracy());
+            out.printf("%4d %7d %8s %10.4g %6d %-9s %7s %12.4f %12.4f %10s %9.2f%n", r + 1,
+                    config.getNumHidden(), config.isTanhHidden() ? "tanh" : "sigmoid", config.getLearningRate(),
+                    config.getBatchSize(), config.getOptimiser(),
+                    result.getEpochs() + (result.isCompleted() ? "" : "*"), result.getTrainError(),
+                    result.getValidationLoss(), accuracy, result.getSeconds());
+        }
+        if (results.size() > limit) {
+            out.println("... " + (results.size() - limit) + " more");
+        }
+        out.println("* stopped early by successive halving");
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Set the number of trials trained at once (default: all processors)
+     */
+    public void setNumThreads(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be at least 1, got " + numThreads);
+        }
+        this.numThreads = numThreads;
+    }
+
+    public int getMinEpochs() {
+        return minEpochs;
+    }
+
+    /**
+     * Set the epochs every trial gets before the first halving
+     */
+    public void setMinEpochs(int minEpochs) {
+        this.minEpochs = minEpochs;
+    }
+
+    public int getMaxEpochs() {
+        return maxEpochs;
+    }
+
+    /**
+     * Set the epochs the surviving trials are trained for
+     */
+    public void setMaxEpochs(int maxEpochs) {
+        this.maxEpochs = maxEpochs;
+    }
+
+    public int getReductionFactor() {
+        return reductionFactor;
+    }
+
+    /**
+     * Set how much the budget grows and the field shrinks per rung (1 = no early termination)
+     */
+    public void setReductionFactor(int reductionFactor) {
+        if (reductionFactor < 1) {
+            throw new IllegalArgumentException("reductionFactor must be at least 1, got " + reductionFactor);
+        }
+        this.reductionFactor = reductionFactor;
+    }
+
+    public boolean isRankByAccuracy() {
+        return rankByAccuracy;
+    }
+
+    /**
+     * Rank by validation accuracy (default for classification) or by validation loss
+     */
+    public void setRankByAccuracy(boolean rankByAccuracy) {
+        this.rankByAccuracy = rankByAccuracy;
+    }
+
+    /**
+     * Print a summary line after every rung, or null for none
+     */
+    public void setProgress(PrintStream progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * One configuration being trained; only touched by one worker at a time
+     */
+    private final class Trial {
+        final SweepConfig config;
+        MLP network;
+        Training trainer;
+        int epochs;
+        boolean stopped;
+        double trainError = Double.NaN;
+        double loss = Double.NaN;
+        double accuracy;
+        long nanos;
+
+        Trial(SweepConfig config) {
+            this.config = config;
+        }
+
+        /**
+         * Continue training until budget epochs in total, then validate
+         */
+        void trainTo(int budget) {
+            if (network == null) {
+                network = config.createNetwork(trainInputs[0].length, trainTargets[0].length, useLinearOutput);
+                trainer = new Training(network, budget, config.getBatchSize(), config.getLearningRate());
+                trainer.setLogFileName(null);
+                trainer.setTimePhases(false);
+                trainer.setOptimiser(config.createOptimiser());
+            }
+            if (budget > epochs) {
+                trainer.setMaxEpochs(budget - epochs);
+                long start = System.nanoTime();
+                trainError = trainer.train(trainInputs, trainTargets, false);
+                nanos += System.nanoTime() - start;
+                epochs = budget;
+            }
+            try (Evaluator evaluator = new Evaluator(network.inference(), 1)) {
+                EvaluationResult result = evaluator.evaluate(validationInputs, validationTargets, 1);
+                loss = result.getLoss();
+                accuracy = validationTargets[0].length > 1 ? result.getAccuracy() : Double.NaN;
+            }
+        }
+    }
+}
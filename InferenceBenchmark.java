@@ -0,0 +1,89 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * InferenceBenchmark: Concurrent inference throughput
+ * Shares one Test3-sized network (16 inputs, 30 hidden, 26 outputs) between
+ * 1, 2, 4, ... threads, each with its own InferenceContext, and reports
+ * predictions per second and scaling efficiency relative to one thread.
+ *
+ * Usage: java InferenceBenchmark [maxThreads] [secondsPerRun]
+ */
+public class InferenceBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 2.0;
+
+        System.out.println("===========================================");
+        System.out.println("Inference Throughput Benchmark");
+        System.out.println("===========================================\n");
+
+        MLP network = new MLP(16, 30, 26, true, false);
+        InferenceModel model = network.inference();
+
+        // Random inputs in [0, 1], like the normalised letter features
+        double[][] inputs = new double[4096][16];
+        for (double[] input : inputs) {
+            for (int i = 0; i < input.length; i++) {
+                input[i] = Math.random();
+            }
+        }
+
+        // Warm up the JIT on one thread
+        run(model, inputs, 1, 1.0);
+
+        System.out.printf("%-8s %18s %10s %12s%n", "Threads", "Predictions/sec", "Speedup", "Efficiency");
+        double baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double rate = run(model, inputs, threads, seconds);
+            if (threads == 1) baseline = rate;
+            double speedup = rate / baseline;
+            System.out.printf("%-8d %18.0f %9.2fx %11.1f%%%n", threads, rate, speedup, 100.0 * speedup / threads);
+            if (threads < maxThreads && threads * 2 > maxThreads) threads = maxThreads / 2;  // Always finish on maxThreads
+        }
+    }
+
+    /**
+     * Run inference on the given number of threads for a fixed wall-clock time
+     * @return Total predictions per second across all threads
+     */
+    static double run(final InferenceModel model, final double[][] inputs, int threads, double seconds)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + (long) (seconds * 1e9);
+        final AtomicLong total = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int offset = t * 97;
+            workers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    InferenceContext context = model.newContext();
+                    long count = 0;
+                    double sink = 0;
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    while (System.nanoTime() < deadline) {
+                        for (int p = 0; p < 1024; p++) {
+                            sink += model.predict(inputs[(offset + p) % inputs.length], context)[0];
+                        }
+                        count += 1024;
+                    }
+                    total.addAndGet(count + (sink == 42.0 ? 1 : 0));  // Keep the result live
+                }
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double elapsed = (System.nanoTime() - begin) / 1e9;
+        return total.get() / elapsed;
+    }
+}
@@ -0,0 +1,94 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Blocking client for InferenceServer: one connection, one request at a time.
+ * Not thread-safe; open one client per thread.
+ */
+public class InferenceClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private ByteBuffer request = ByteBuffer.allocate(0);
+    private ByteBuffer response = ByteBuffer.allocate(0);
+    private final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+    private double[] output = new double[0];
+
+    private InferenceClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Connect to a server
+     * @param address InetSocketAddress or UnixDomainSocketAddress, e.g. from InferenceServer.parseAddress
+     */
+    public static InferenceClient connect(SocketAddress address) throws IOException {
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX) : SocketChannel.open();
+        try {
+            channel.connect(address);
+            if (address instanceof InetSocketAddress) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new InferenceClient(channel);
+    }
+
+    /**
+     * Send one input vector and wait for the outputs
+     * @param input Input vector
+     * @return Output vector, reused by the next call
+     * @throws IOException If the connection fails or the server rejects the request
+     */
+    public double[] predict(double[] input) throws IOException {
+        int frame = Integer.BYTES + input.length * Double.BYTES;
+        if (request.capacity() != frame) {
+            request = ByteBuffer.allocate(frame);
+        }
+        request.clear();
+        request.putInt(input.length);
+        request.asDoubleBuffer().put(input);
+        request.position(frame).flip();
+        while (request.hasRemaining()) {
+            channel.write(request);
+        }
+
+        header.clear();
+        readFully(header);
+        int count = header.getInt(0);
+        if (count < 0) {
+            throw new IOException(count == InferenceServer.ERROR_BAD_REQUEST
+                    ? "Server rejected a request with " + input.length + " inputs" : "Server error " + count);
+        }
+        if (output.length != count) {
+            output = new double[count];
+            response = ByteBuffer.allocate(count * Double.BYTES);
+        }
+        response.clear();
+        readFully(response);
+        response.asDoubleBuffer().get(output);
+        return output;
+    }
+
+    private void readFully(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (channel.read(buf) < 0) {
+                throw new EOFException("Server closed the connection");
+            }
+        }
+        buf.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Per-thread scratch space for an InferenceModel.
+ * Holds the hidden and output buffers written during a forward pass (and
+ * their batched counterparts), so the model itself can stay read-only. A
+ * context must not be used by two threads at the same time.
+ */
+public class InferenceContext {
+    final double[] hidden;  // Hidden layer outputs
+    final double[] output;  // Output layer outputs
+
+    // Row-major buffers for predictBatch (one row per example), grown on demand
+    int batchCapacity;
+    double[] batchInput;
+    double[] batchHidden;
+    double[] batchOutput;
+
+    /**
+     * Constructor for InferenceContext
+     * @param numHidden Number of hidden units
+     * @param numOutputs Number of output units
+     */
+    public InferenceContext(int numHidden, int numOutputs) {
+        this.hidden = new double[numHidden];
+        this.output = new double[numOutputs];
+    }
+
+    /**
+     * Get the output of the last prediction made with this context
+     * @return Output array
+     */
+    public double[] getOutput() {
+        return output;
+    }
+
+    /**
+     * Grow the batch buffers so they hold at least count examples
+     * @param count Number of examples
+     * @param numInputs Values per input vector
+     */
+    void ensureBatchCapacity(int count, int numInputs) {
+        if (count <= batchCapacity) return;
+        batchCapacity = count;
+        batchInput = new double[count * numInputs];
+        batchHidden = new double[count * hidden.length];
+        batchOutput = new double[count * output.length];
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Read-only inference interface for a trained network.
+ * Implementations keep no per-call state of their own: all scratch space lives
+ * in an InferenceContext, so one model can be shared between threads as long
+ * as each thread uses its own context.
+ */
+public interface InferenceModel {
+
+    /**
+     * Get number of inputs
+     */
+    int getNumInputs();
+
+    /**
+     * Get number of outputs
+     */
+    int getNumOutputs();
+
+    /**
+     * Create scratch space sized for this model
+     * @return A new context; reuse it across calls on the same thread
+     */
+    InferenceContext newContext();
+
+    /**
+     * Compute the output for one input vector
+     * @param input Input vector
+     * @param context Caller-owned scratch space (not shared between threads)
+     * @return Output vector, owned by the context and overwritten by the next call
+     */
+    double[] predict(double[] input, InferenceContext context);
+
+    /**
+     * Compute the outputs for inputs[start..start+count)
+     * @param inputs Array of input vectors
+     * @param start Index of the first example
+     * @param count Number of examples
+     * @param context Caller-owned scratch space (not shared between threads)
+     * @return Flat row-major outputs (count x numOutputs), owned by the context
+     */
+    default double[] predictBatch(double[][] inputs, int start, int count, InferenceContext context) {
+        int numOutputs = getNumOutputs();
+        context.ensureBatchCapacity(count, getNumInputs());
+        double[] outputs = context.batchOutput;
+        for (int b = 0; b < count; b++) {
+            System.arraycopy(predict(inputs[start + b], context), 0, outputs, b * numOutputs, numOutputs);
+        }
+        return outputs;
+    }
+}
@@ -0,0 +1,475 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Embedded inference server with micro-batching.
+ * Listens on a TCP address (normally localhost) or a Unix domain socket.
+ * Every connection gets its own handler thread, which reads one request at a
+ * time and parks until its answer is ready; the handlers run on virtual
+ * threads when the JVM has them (Java 21+) and on a cached pool of platform
+ * threads otherwise. Requests from all connections go into one bounded
+ * queue, and batch workers drain it into micro-batches of at most
+ * maxBatchSize requests, waiting no longer than maxDelay after the first one
+ * arrived, then run a single predictBatch for the whole batch.
+ *
+ * Protocol (big-endian, one request in flight per connection):
+ * - request:  int32 n, then n float64 inputs (n must equal the model's inputs)
+ * - response: int32 n, then n float64 outputs; ERROR_BAD_REQUEST instead of n
+ *   answers a malformed request and closes the connection
+ */
+public class InferenceServer implements AutoCloseable {
+    /** Response header for a request with the wrong number of inputs */
+    public static final int ERROR_BAD_REQUEST = -1;
+
+    private final InferenceModel model;
+    private final SocketAddress address;
+    private int maxBatchSize = 64;
+    private long maxDelayNanos = 200_000;  // Longest wait for a batch to fill, from its first request
+    private int numWorkers = 1;            // Threads running batched forward passes
+    private int queueCapacity = 4096;      // Requests waiting for a batch (handlers block when full)
+
+    private ServerSocketChannel server;
+    private BlockingQueue<Request> queue;
+    private ExecutorService connections;
+    private Thread acceptor;
+    private Thread[] workers;
+    private final Set<SocketChannel> open = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    // Monitoring
+    private final LatencyHistogram latency = new LatencyHistogram();  // Request decoded to answer ready
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile long statsStart = System.nanoTime();
+
+    // Marks the end of the queue for one batch worker
+    private static final Request STOP = new Request(0, 0);
+
+    /**
+     * Constructor for InferenceServer
+     * @param model Model to serve; must be safe for concurrent use with one context per thread
+     * @param address InetSocketAddress (port 0 picks a free port) or UnixDomainSocketAddress
+     */
+    public InferenceServer(InferenceModel model, SocketAddress address) {
+        this.model = model;
+        this.address = address;
+    }
+
+    /**
+     * Parse "unix:/path", "host:port" or "port" (on localhost)
+     */
+    public static SocketAddress parseAddress(String spec) {
+        if (spec.startsWith("unix:")) {
+            return UnixDomainSocketAddress.of(spec.substring("unix:".length()));
+        }
+        int colon = spec.lastIndexOf(':');
+        if (colon < 0) {
+            return new InetSocketAddress("localhost", Integer.parseInt(spec));
+        }
+        return new InetSocketAddress(spec.substring(0, colon), Integer.parseInt(spec.substring(colon + 1)));
+    }
+
+    /**
+     * Bind the socket and start accepting connections
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("Server already started");
+        }
+        server = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX) : ServerSocketChannel.open();
+        server.bind(address);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        connections = newConnectionExecutor();
+        running = true;
+        resetStats();
+
+        workers = new Thread[numWorkers];
+        for (int w = 0; w < numWorkers; w++) {
+            workers[w] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    runBatches();
+                }
+            }, "inference-batcher-" + w);
+            workers[w].setDaemon(true);
+            workers[w].start();
+        }
+
+        acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                acceptConnections();
+            }
+        }, "inference-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() if this JVM has it, else a cached daemon thread pool
+     */
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "inference-connection");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+
+    private void acceptConnections() {
+        while (running) {
+            try {
+                final SocketChannel channel = server.accept();
+                if (channel.getRemoteAddress() instanceof InetSocketAddress) {
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                }
+                open.add(channel);
+                connections.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        serve(channel);
+                    }
+                });
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error accepting connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Answer requests on one connection until the client disconnects
+     */
+    private void serve(SocketChannel channel) {
+        int numInputs = model.getNumInputs();
+        int numOutputs = model.getNumOutputs();
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        ByteBuffer payload = ByteBuffer.allocate(numInputs * Double.BYTES);
+        ByteBuffer response = ByteBuffer.allocate(Integer.BYTES + numOutputs * Double.BYTES);
+        Request request = new Request(numInputs, numOutputs);
+        try {
+            while (running) {
+                header.clear();
+                if (!readFully(channel, header)) {
+                    break;  // Client closed the connection
+                }
+                if (header.getInt(0) != numInputs) {
+                    header.clear();
+                    header.putInt(ERROR_BAD_REQUEST).flip();
+                    writeFully(channel, header);
+                    break;
+                }
+                payload.clear();
+                if (!readFully(channel, payload)) {
+                    throw new EOFException("Connection closed inside a request");
+                }
+                payload.asDoubleBuffer().get(request.input);
+
+                request.waiter = Thread.currentThread();
+                request.done = false;
+                request.arrived = System.nanoTime();
+                queue.put(request);
+                while (!request.done) {
+                    LockSupport.park(this);
+                    if (Thread.interrupted()) {
+                        return;  // Server shutting down
+                    }
+                }
+
+                response.clear();
+                response.putInt(numOutputs);
+                response.asDoubleBuffer().put(request.output);
+                response.position(response.capacity()).flip();
+                writeFully(channel, response);
+            }
+        } catch (IOException e) {
+            // The client went away; nothing to answer
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            open.remove(channel);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    /**
+     * Fill buf from the channel
+     * @return false if the channel reached end-of-stream before any byte was read
+     */
+    private static boolean readFully(SocketChannel channel, ByteBuffer buf) throws IOException {
+        boolean started = false;
+        while (buf.hasRemaining()) {
+            if (channel.read(buf) < 0) {
+                if (!started) return false;
+                throw new EOFException("Connection closed inside a frame");
+            }
+            started = true;
+        }
+        buf.flip();
+        return true;
+    }
+
+    private static void writeFully(SocketChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    /**
+     * Batch worker loop: gather a micro-batch, run it, wake its handlers
+     */
+    private void runBatches() {
+        int numOutputs = model.getNumOutputs();
+        InferenceContext context = model.newContext();
+        Request[] batch = new Request[maxBatchSize];
+        double[][] inputs = new double[maxBatchSize][];
+        boolean stopping = false;
+        try {
+            while (!stopping) {
+                Request first = queue.take();
+                if (first == STOP) {
+                    break;
+                }
+                batch[0] = first;
+                int count = 1;
+                long deadline = first.arrived + maxDelayNanos;
+                while (count < maxBatchSize) {
+                    Request next = queue.poll();
+                    if (next == null) {
+                        long wait = deadline - System.nanoTime();
+                        if (wait <= 0) break;
+                        next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                        if (next == null) break;
+                    }
+                    if (next == STOP) {
+                        stopping = true;
+                        break;
+                    }
+                    batch[count++] = next;
+                }
+
+                for (int b = 0; b < count; b++) {
+                    inputs[b] = batch[b].input;
+                }
+                double[] outputs = model.predictBatch(inputs, 0, count, context);
+                long now = System.nanoTime();
+                for (int b = 0; b < count; b++) {
+                    Request request = batch[b];
+                    System.arraycopy(outputs, b * numOutputs, request.output, 0, numOutputs);
+                    latency.record(now - request.arrived);
+                    batch[b] = null;
+                    request.done = true;
+                    LockSupport.unpark(request.waiter);
+                }
+                requests.addAndGet(count);
+                batches.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop accepting, close every connection and stop the batch workers
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        server.close();
+        for (SocketChannel channel : open) {
+            channel.close();
+        }
+        connections.shutdownNow();
+        try {
+            for (int w = 0; w < workers.length; w++) {
+                queue.put(STOP);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (address instanceof UnixDomainSocketAddress) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+        }
+    }
+
+    /**
+     * Address the server is listening on (with the actual port if 0 was requested)
+     */
+    public SocketAddress getLocalAddress() throws IOException {
+        return server.getLocalAddress();
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Set the largest number of requests run as one batch (1 disables batching); before start()
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1, got " + maxBatchSize);
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getMaxDelayMicros() {
+        return maxDelayNanos / 1000;
+    }
+
+    /**
+     * Set how long a batch may wait to fill up after its first request arrived
+     */
+    public void setMaxDelayMicros(long micros) {
+        if (micros < 0) {
+            throw new IllegalArgumentException("Delay must not be negative, got " + micros);
+        }
+        this.maxDelayNanos = micros * 1000;
+    }
+
+    public int getNumWorkers() {
+        return numWorkers;
+    }
+
+    /**
+     * Set the number of threads running batches; before start()
+     */
+    public void setNumWorkers(int numWorkers) {
+        if (numWorkers < 1) {
+            throw new IllegalArgumentException("numWorkers must be at least 1, got " + numWorkers);
+        }
+        this.numWorkers = numWorkers;
+    }
+
+    /**
+     * Set how many requests may wait for a batch before handlers block; before start()
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1, got " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Server-side latency percentile (request decoded to answer ready)
+     * @param percentile Between 0 and 100
+     * @return Latency in nanoseconds (within about 6%)
+     */
+    public long getLatencyPercentile(double percentile) {
+        return latency.getPercentile(percentile);
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Average number of requests per batch
+     */
+    public double getMeanBatchSize() {
+        long count = batches.get();
+        return count > 0 ? (double) requests.get() / count : 0.0;
+    }
+
+    /**
+     * Requests answered per second since start() or the last resetStats()
+     */
+    public double getThroughput() {
+        return requests.get() / ((System.nanoTime() - statsStart) / 1e9);
+    }
+
+    /**
+     * Zero the latency histogram and counters
+     */
+    public void resetStats() {
+        latency.reset();
+        requests.set(0);
+        batches.set(0);
+        statsStart = System.nanoTime();
+    }
+
+    /**
+     * Serve a saved model until the process is killed
+     * Usage: java InferenceServer model.ckpt [port | host:port | unix:/path] [maxBatch] [maxDelayMicros]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: java InferenceServer model.ckpt [port | host:port | unix:/path]"
+                    + " [maxBatch] [maxDelayMicros]");
+            System.exit(1);
+        }
+        InferenceModel model = ModelCheckpoint.open(args[0]).inference();
+        InferenceServer server = new InferenceServer(model, parseAddress(args.length > 1 ? args[1] : "7878"));
+        if (args.length > 2) server.setMaxBatchSize(Integer.parseInt(args[2]));
+        if (args.length > 3) server.setMaxDelayMicros(Long.parseLong(args[3]));
+        server.start();
+        System.out.println("Serving " + args[0] + " (" + model.getNumInputs() + " inputs, " + model.getNumOutputs()
+                + " outputs) on " + server.getLocalAddress());
+        while (true) {
+            Thread.sleep(10_000);
+            System.out.printf("%d requests, %.0f/s, mean batch %.1f, p50 %.1f us, p99 %.1f us%n",
+                    server.getRequestCount(), server.getThroughput(), server.getMeanBatchSize(),
+                    server.getLatencyPercentile(50) / 1e3, server.getLatencyPercentile(99) / 1e3);
+        }
+    }
+
+    /**
+     * One connection's request slot, reused for every request on it
+     */
+    private static final class Request {
+        final double[] input;
+        final double[] output;
+        Thread waiter;
+        long arrived;
+        volatile boolean done;
+
+        Request(int numInputs, int numOutputs) {
+            this.input = new double[numInputs];
+            this.output = new double[numOutputs];
+        }
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Packs an input vector into a 64-bit key for PredictionCache.
+ * Two inputs may share a key only if the model gives them the same output,
+ * so a packer must be exact: an input it cannot represent losslessly gets
+ * UNCACHEABLE and goes straight to the model.
+ */
+public interface InputPacker {
+    /** Returned for inputs without an exact key (the one input that would pack to it is never cached) */
+    long UNCACHEABLE = Long.MIN_VALUE;
+
+    /**
+     * Get the key of an input vector
+     * @param input Input vector
+     * @return Exact key of the input, or UNCACHEABLE
+     */
+    long pack(double[] input);
+}
@@ -0,0 +1,98 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * KernelBenchmark: Scalar vs SIMD kernel throughput
+ * Measures the dot and axpy kernels of every available backend at the row
+ * lengths that occur in the Test3 network (16 inputs, 26 outputs, 30 hidden)
+ * and in wider hidden layers, and prints the vector speedup.
+ *
+ * Run with the Vector API enabled to include the SIMD backend:
+ *   java --add-modules jdk.incubator.vector KernelBenchmark
+ * End-to-end numbers come from MLPBenchmarks run once per backend with
+ * -Dmlp.kernels=scalar and -Dmlp.kernels=vector.
+ */
+public class KernelBenchmark {
+    static final int[] LENGTHS = {16, 26, 30, 128, 512};
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("===========================================");
+        System.out.println("Kernel Benchmark");
+        System.out.println("===========================================\n");
+
+        boolean vector = Kernels.loadVector() != null;
+        if (!vector) {
+            System.out.println("Vector API not available; measuring scalar kernels only\n");
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner();
+        runner.setIterationSeconds(0.5);
+        List<BenchmarkRunner.Result> results = runner.run(KernelBenchmark.class);
+
+        if (vector) {
+            System.out.println("\nVector speedup over scalar:");
+            System.out.printf("%-8s %10s %10s%n", "Length", "dot", "axpy");
+            for (int l = 0; l < LENGTHS.length; l++) {
+                // Results are ordered scalar dot, scalar axpy, vector dot, vector axpy per length
+                int base = l * 4;
+                System.out.printf("%-8d %9.2fx %9.2fx%n", LENGTHS[l],
+                        results.get(base + 2).score / results.get(base).score,
+                        results.get(base + 3).score / results.get(base + 1).score);
+            }
+        }
+    }
+
+    /**
+     * Dot and axpy for each backend at each length, in run order
+     */
+    static List<Benchmark> benchmarks() {
+        List<Kernels> backends = new ArrayList<>();
+        backends.add(new ScalarKernels());
+        Kernels vector = Kernels.loadVector();
+        if (vector != null) {
+            backends.add(vector);
+        }
+
+        List<Benchmark> benchmarks = new ArrayList<>();
+        for (int n : LENGTHS) {
+            for (Kernels kernels : backends) {
+                benchmarks.add(dot(kernels, n));
+                benchmarks.add(axpy(kernels, n));
+            }
+        }
+        return benchmarks;
+    }
+
+    static Benchmark dot(final Kernels kernels, final int n) {
+        return new Benchmark("KernelBenchmark.dot") {
+            final double[] a = MLPBenchmarks.randomInputs(1, n)[0];
+            final double[] b = MLPBenchmarks.randomInputs(1, n)[0];
+
+            @Override
+            protected long iteration() {
+                double sum = 0;
+                for (int r = 0; r < 1024; r++) {
+                    sum += kernels.dot(sum * 1e-9, a, 0, b, 0, n);
+                }
+                consume(sum);
+                return 1024;
+            }
+        }.param("kernels", kernels.name()).param("n", n);
+    }
+
+    static Benchmark axpy(final Kernels kernels, final int n) {
+        return new Benchmark("KernelBenchmark.axpy") {
+            final double[] x = MLPBenchmarks.randomInputs(1, n)[0];
+            final double[] y = new double[n];
+
+            @Override
+            protected long iteration() {
+                for (int r = 0; r < 1024; r++) {
+                    kernels.axpy(1e-9, x, 0, y, 0, n);
+                }
+                consume(y[0]);
+                return 1024;
+            }
+        }.param("kernels", kernels.name()).param("n", n);
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Inner-loop kernels used by MLP: dot products for the forward pass and
+ * scaled vector additions (axpy) for gradient accumulation, plus the int8
+ * dot product of QuantisedInference.
+ *
+ * The implementation is picked once at class-load time. If the
+ * jdk.incubator.vector module is present and VectorKernels was compiled
+ * (see README), the SIMD backend is used; otherwise the scalar loops are.
+ * Set -Dmlp.kernels=scalar or -Dmlp.kernels=vector to force a choice.
+ */
+public abstract class Kernels {
+    /** Backend selected for this JVM */
+    public static final Kernels INSTANCE = select();
+
+    /**
+     * Dot product of a[aOff..aOff+n) and b[bOff..bOff+n), added to init
+     */
+    public abstract double dot(double init, double[] a, int aOff, double[] b, int bOff, int n);
+
+    /**
+     * y[yOff..yOff+n) += alpha * x[xOff..xOff+n)
+     */
+    public abstract void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n);
+
+    /**
+     * Integer dot product of a[aOff..aOff+n) and b[bOff..bOff+n); exact for
+     * n up to 2^17 (every product is at most 2^14 in magnitude)
+     */
+    public abstract int dot(byte[] a, int aOff, byte[] b, int bOff, int n);
+
+    /**
+     * Short name of the backend, e.g. "scalar" or "vector"
+     */
+    public abstract String name();
+
+    /**
+     * Try to load the SIMD backend
+     * @return The vector kernels, or null if the Vector API is not available
+     */
+    static Kernels loadVector() {
+        try {
+            Kernels kernels = (Kernels) Class.forName("VectorKernels").getDeclaredConstructor().newInstance();
+            // Touch the Vector API once so a missing module fails here, not in a hot loop
+            kernels.dot(0.0, new double[1], 0, new double[1], 0, 1);
+            return kernels;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static Kernels select() {
+        String choice = System.getProperty("mlp.kernels", "auto");
+        if (choice.equals("scalar")) {
+            return new ScalarKernels();
+        }
+        Kernels vector = loadVector();
+        if (vector == null && choice.equals("vector")) {
+            System.err.println("Vector kernels requested but not available; using scalar kernels");
+        }
+        return vector != null ? vector : new ScalarKernels();
+    }
+}
@@ -0,0 +1,108 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+/**
+ * LargeDatasetCheck: Verifies BinaryDataset on a file larger than 2 GB
+ * Repeats a small dataset until the file crosses several mapping windows
+ * (1700 copies of the letter data: 34M rows, 2.21 GB), then reads every
+ * column and the labels back through the zero-copy views, reads random rows
+ * through feature/label, and streams the last chunk. Every value must match
+ * the source row it was copied from; exits with status 1 otherwise. The
+ * file is deleted afterwards unless an output path is given.
+ *
+ * Usage: java LargeDatasetCheck <letter-recognition.csv|.bin> [copies] [output.bin]
+ */
+public class LargeDatasetCheck {
+    static final int RANDOM_READS = 200000;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java LargeDatasetCheck <letter-recognition.csv|.bin> [copies] [output.bin]");
+            System.exit(1);
+        }
+        int copies = args.length > 1 ? Integer.parseInt(args[1]) : 1700;
+
+        System.out.println("===========================================");
+        System.out.println("Large Dataset Check: Memory-Mapped Views");
+        System.out.println("===========================================\n");
+
+        String sourceFile = args[0];
+        if (!sourceFile.endsWith(".bin")) {
+            File converted = File.createTempFile("large_dataset_source", ".bin");
+            converted.deleteOnExit();
+            BinaryDataset.convert(sourceFile, converted.getPath());
+            sourceFile = converted.getPath();
+        }
+        BinaryDataset source = BinaryDataset.open(sourceFile);
+
+        File output = args.length > 2 ? new File(args[2]) : File.createTempFile("large_dataset", ".bin");
+        if (args.length <= 2) {
+            output.deleteOnExit();
+        }
+        long start = System.nanoTime();
+        BinaryDataset.repeat(source, copies, output.getPath());
+        BinaryDataset data = BinaryDataset.open(output.getPath());
+        System.out.printf("Wrote %d rows (%d copies), %.2f GB in %.1f s%n", data.getNumRows(), copies,
+                data.getSizeBytes() / 1e9, (System.nanoTime() - start) / 1e9);
+
+        int n = source.getNumRows();
+        long mismatches = 0;
+        int views = 0;
+
+        // Every value through the views, crossing each window boundary
+        start = System.nanoTime();
+        for (int c = 0; c < data.getNumFeatures(); c++) {
+            for (int r = 0; r < data.getNumRows(); ) {
+                FloatBuffer column = data.column(c, r);
+                int end = r + column.remaining();
+                for (int i = 0; r < end; i++, r++) {
+                    if (column.get(i) != source.feature(r % n, c)) mismatches++;
+                }
+                views++;
+            }
+        }
+        for (int r = 0; r < data.getNumRows(); ) {
+            ByteBuffer labels = data.labels(r);
+            int end = r + labels.remaining();
+            for (int i = 0; r < end; i++, r++) {
+                if ((labels.get(i) & 0xFF) != source.label(r % n)) mismatches++;
+            }
+            views++;
+        }
+        System.out.printf("Read all values through %d views in %.1f s%n", views, (System.nanoTime() - start) / 1e9);
+
+        // Random rows, plus the last rows of the file
+        Random random = new Random(42);
+        for (int i = 0; i < RANDOM_READS; i++) {
+            int row = i < 1000 ? data.getNumRows() - 1 - i : random.nextInt(data.getNumRows());
+            int c = random.nextInt(data.getNumFeatures());
+            if (data.feature(row, c) != source.feature(row % n, c) || data.label(row) != source.label(row % n)) {
+                mismatches++;
+            }
+        }
+
+        BinaryDatasetStream stream = new BinaryDatasetStream(data, 8000, 15.0);
+        DataChunk chunk = stream.newChunk();
+        stream.readChunk(stream.getNumChunks() - 1, chunk);
+        int first = (stream.getNumChunks() - 1) * stream.getChunkRows();
+        for (int r = 0; r < chunk.count; r++) {
+            if (chunk.inputs[r][0] != source.feature((first + r) % n, 0) / 15.0
+                    || chunk.targets[r][source.label((first + r) % n)] != 1.0) {
+                mismatches++;
+            }
+        }
+
+        boolean large = data.getSizeBytes() > Integer.MAX_VALUE;
+        if (!large) {
+            System.out.println("\nWARNING: file is under 2 GB; use more copies to cross the limit");
+        }
+        System.out.println(mismatches == 0 ? "\nPASS: every value matches its source row"
+                : "\nFAIL: " + mismatches + " values differ from their source rows");
+        if (mismatches != 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds.
+ * Buckets are log-linear: every power of two is split into 16 equal
+ * sub-buckets, so a recorded value is known to within 1/16 (about 6%)
+ * across the whole range from 1 ns to 2^63 ns. Recording is one atomic
+ * increment, so any number of threads can record at once; percentiles read
+ * the counts without stopping them.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;                 // log2 of the sub-buckets per power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int NUM_BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+
+    /**
+     * Record one latency (negative values count as 0)
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucket(Math.max(0, nanos)));
+    }
+
+    /**
+     * Bucket of a value: values below SUB_BUCKETS map one to one, larger ones
+     * by their highest bit and the SUB_BITS bits below it
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Largest value that falls into a bucket
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long base = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return base + (1L << shift) - 1;
+    }
+
+    /**
+     * Get number of recorded values
+     */
+    public long getCount() {
+        long total = 0;
+        for (int b = 0; b < NUM_BUCKETS; b++) {
+            total += counts.get(b);
+        }
+        return total;
+    }
+
+    /**
+     * Get a percentile of the recorded values
+     * @param percentile Between 0 and 100, e.g. 99 for p99
+     * @return Upper bound of the bucket holding the percentile, in nanoseconds (0 if empty)
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[NUM_BUCKETS];
+        long total = 0;
+        for (int b = 0; b < NUM_BUCKETS; b++) {
+            snapshot[b] = counts.get(b);
+            total += snapshot[b];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int b = 0; b < NUM_BUCKETS; b++) {
+            seen += snapshot[b];
+            if (seen >= rank) {
+                return upperBound(b);
+            }
+        }
+        return upperBound(NUM_BUCKETS - 1);
+    }
+
+    /**
+     * Forget every recorded value
+     */
+    public void reset() {
+        for (int b = 0; b < NUM_BUCKETS; b++) {
+            counts.set(b, 0);
+        }
+    }
+}
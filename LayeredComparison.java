@@ -0,0 +1,116 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * LayeredComparison: MLP vs LayeredNetwork on letter recognition
+ * First trains an MLP and the equivalent two-layer LayeredNetwork from the
+ * same weights, online and with mini-batches, and checks that the final
+ * weights are bit-identical. Then compares training throughput and test
+ * accuracy of the MLP, the two-layer LayeredNetwork and a deeper network.
+ *
+ * Usage: java LayeredComparison [epochs]
+ */
+public class LayeredComparison {
+
+    public static void main(String[] args) throws IOException {
+        int epochs = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        System.out.println("===========================================");
+        System.out.println("Layered Network Comparison: Letter Recognition");
+        System.out.println("===========================================\n");
+
+        LetterData data = LetterData.load("letter-recognition.csv");
+
+        // Shuffle once so every network sees the same split
+        int total = data.size();
+        int[] order = new int[total];
+        for (int i = 0; i < total; i++) order[i] = i;
+        Random random = new Random(42);
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        int trainSize = (int) (total * 0.8);
+        int testSize = total - trainSize;
+        double[][] trainInputs = new double[trainSize][];
+        double[][] trainTargets = new double[trainSize][];
+        double[][] testInputs = new double[testSize][];
+        double[][] testTargets = new double[testSize][];
+        for (int i = 0; i < trainSize; i++) {
+            trainInputs[i] = data.inputs[order[i]];
+            trainTargets[i] = data.targets[order[i]];
+        }
+        for (int i = 0; i < testSize; i++) {
+            testInputs[i] = data.inputs[order[trainSize + i]];
+            testTargets[i] = data.targets[order[trainSize + i]];
+        }
+
+        File log = File.createTempFile("layered_comparison", ".txt");
+        log.deleteOnExit();
+
+        // Two-layer case: same starting weights, same training, same result
+        System.out.println("--- Two-layer equivalence (5 epochs from the same weights) ---");
+        for (int batchSize : new int[] {1, 100}) {
+            MLP mlp = new MLP(16, 30, 26, true, false);
+            LayeredNetwork layered = LayeredNetwork.twoLayer(16, 30, 26, true, false);
+            double[] w1 = new double[30 * 17];
+            double[] w2 = new double[26 * 31];
+            mlp.copyWeights(w1, w2);
+            layered.setLayerWeights(0, w1);
+            layered.setLayerWeights(1, w2);
+
+            for (Network network : new Network[] {mlp, layered}) {
+                Training trainer = new Training(network, 5, batchSize, 0.01);
+                trainer.setLogFileName(log.getPath());
+                trainer.train(trainInputs, trainTargets, false);
+            }
+
+            double[] v1 = new double[w1.length];
+            double[] v2 = new double[w2.length];
+            mlp.copyWeights(w1, w2);
+            layered.copyLayerWeights(0, v1);
+            layered.copyLayerWeights(1, v2);
+            int differing = 0;
+            for (int w = 0; w < w1.length; w++) {
+                if (Double.doubleToLongBits(w1[w]) != Double.doubleToLongBits(v1[w])) differing++;
+            }
+            for (int w = 0; w < w2.length; w++) {
+                if (Double.doubleToLongBits(w2[w]) != Double.doubleToLongBits(v2[w])) differing++;
+            }
+            System.out.println("Batch size " + batchSize + ": "
+                    + (differing == 0 ? "bit-identical weights" : differing + " weights differ"));
+        }
+
+        System.out.println("\nEpochs: " + epochs + ", batch size 100, training examples: " + trainSize
+                + ", test examples: " + testSize + "\n");
+        System.out.printf("%-22s %12s %16s %14s %14s%n", "Network", "Time (s)", "Examples/sec", "Train error",
+                "Test accuracy");
+
+        String[] names = {"MLP 16-30-26", "Layered 16-30-26", "Layered 16-40-30-26"};
+        Network[] networks = {
+                new MLP(16, 30, 26, true, false),
+                LayeredNetwork.twoLayer(16, 30, 26, true, false),
+                new LayeredNetwork(new int[] {16, 40, 30, 26},
+                        new Activation[] {Activation.TANH, Activation.TANH, Activation.SIGMOID})};
+        for (int n = 0; n < networks.length; n++) {
+            Network network = networks[n];
+            Training trainer = new Training(network, epochs, 100, 0.01);
+            trainer.setLogFileName(log.getPath());
+
+            long start = System.nanoTime();
+            double trainError = trainer.train(trainInputs, trainTargets, false);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            EvaluationResult result;
+            try (Evaluator evaluator = new Evaluator(Evaluator.modelOf(network))) {
+                result = evaluator.evaluate(testInputs, testTargets, 1);
+            }
+
+            System.out.printf("%-22s %12.2f %16.0f %14.2f %13.2f%%%n", names[n], seconds,
+                    (double) trainSize * epochs / seconds, trainError, 100.0 * result.getAccuracy());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Inference view over the layers of a LayeredNetwork.
+ * Shares the weight arrays with the network it was created from and only ever
+ * reads them; every intermediate value goes into the caller's context, which
+ * holds one buffer per layer.
+ */
+public class LayeredInference implements InferenceModel {
+    private final int[] sizes;          // Input width followed by the width of every layer
+    private final DenseLayer[] layers;
+
+    LayeredInference(int[] sizes, DenseLayer[] layers) {
+        this.sizes = sizes;
+        this.layers = layers;
+    }
+
+    @Override
+    public int getNumInputs() {
+        return sizes[0];
+    }
+
+    @Override
+    public int getNumOutputs() {
+        return sizes[sizes.length - 1];
+    }
+
+    @Override
+    public InferenceContext newContext() {
+        return new Context(sizes);
+    }
+
+    @Override
+    public double[] predict(double[] input, InferenceContext context) {
+        Context layered = (Context) context;
+        int last = layers.length - 1;
+        double[] in = input;
+        for (int l = 0; l < last; l++) {
+            layers[l].forward(in, layered.layerOutputs[l]);
+            in = layered.layerOutputs[l];
+        }
+        layers[last].forward(in, context.output);
+        return context.output;
+    }
+
+    /**
+     * Batched forward pass through the tiled layer kernels
+     */
+    @Override
+    public double[] predictBatch(double[][] inputs, int start, int count, InferenceContext context) {
+        Context layered = (Context) context;
+        int numInputs = sizes[0];
+        layered.ensureBatchCapacity(count, numInputs);
+        double[] XB = layered.batchInput;
+        for (int b = 0; b < count; b++) {
+            System.arraycopy(inputs[start + b], 0, XB, b * numInputs, numInputs);
+        }
+
+        int last = layers.length - 1;
+        double[] in = XB;
+        for (int l = 0; l < last; l++) {
+            layers[l].forwardBatch(in, count, layered.batchLayerOutputs[l]);
+            in = layered.batchLayerOutputs[l];
+        }
+        layers[last].forwardBatch(in, count, layered.batchOutput);
+        return layered.batchOutput;
+    }
+
+    /**
+     * Scratch space with one output buffer per hidden layer
+     */
+    static final class Context extends InferenceContext {
+        private final int[] sizes;
+        final double[][] layerOutputs;       // Outputs of the hidden layers
+        final double[][] batchLayerOutputs;  // Batched outputs of the hidden layers
+
+        Context(int[] sizes) {
+            super(sizes.length > 2 ? sizes[1] : 0, sizes[sizes.length - 1]);
+            this.sizes = sizes;
+            int numHiddenLayers = sizes.length - 2;
+            this.layerOutputs = new double[numHiddenLayers][];
+            this.batchLayerOutputs = new double[numHiddenLayers][];
+            for (int l = 0; l < numHiddenLayers; l++) {
+                layerOutputs[l] = l == 0 ? hidden : new double[sizes[l + 1]];
+            }
+        }
+
+        @Override
+        void ensureBatchCapacity(int count, int numInputs) {
+            if (count <= batchCapacity) return;
+            super.ensureBatchCapacity(count, numInputs);
+            for (int l = 0; l < batchLayerOutputs.length; l++) {
+                batchLayerOutputs[l] = l == 0 ? batchHidden : new double[count * sizes[l + 1]];
+            }
+        }
+    }
+}
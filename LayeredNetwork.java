@@ -0,0 +1,327 @@
+import java.util.Arrays;
+
+/**
+ * Feed-forward network with any number of dense layers.
+ * Layer l maps sizes[l] values to sizes[l + 1] units with its own activation;
+ * each layer is a DenseLayer specialised for that activation when the
+ * network is built. A two-layer network with a sigmoid or tanh hidden layer
+ * and a sigmoid or linear output layer computes exactly what MLP computes,
+ * operation for operation, so given the same weights both produce
+ * bit-identical outputs and gradients.
+ */
+public class LayeredNetwork implements Network {
+    private final int[] sizes;         // Input width followed by the width of every layer
+    private final DenseLayer[] layers;
+
+    // Per-example buffers (reused, never reallocated)
+    private final double[][] outputs;  // Output of each layer
+    private final double[][] deltas;   // Deltas of each layer
+
+    // Mini-batch buffers (one row per example), grown on demand
+    private int batchCapacity;
+    private double[] batchInput;
+    private double[][] batchOutputs;
+    private double[][] batchDeltas;
+
+    /**
+     * Constructor for LayeredNetwork
+     * @param sizes Number of inputs followed by the number of units in each layer
+     * @param activations Activation of each layer (one fewer than sizes)
+     */
+    public LayeredNetwork(int[] sizes, Activation[] activations) {
+        if (sizes.length < 2 || activations.length != sizes.length - 1) {
+            throw new IllegalArgumentException("Need at least one layer and one activation per layer, got "
+                    + sizes.length + " sizes and " + activations.length + " activations");
+        }
+        for (int l = 0; l < sizes.length; l++) {
+            if (sizes[l] < 1) {
+                throw new IllegalArgumentException("Layer sizes must be positive, got " + sizes[l]);
+            }
+        }
+        this.sizes = sizes.clone();
+        int numLayers = activations.length;
+        this.layers = new DenseLayer[numLayers];
+        this.outputs = new double[numLayers][];
+        this.deltas = new double[numLayers][];
+        this.batchOutputs = new double[numLayers][];
+        this.batchDeltas = new double[numLayers][];
+        for (int l = 0; l < numLayers; l++) {
+            layers[l] = DenseLayer.create(sizes[l], sizes[l + 1], activations[l]);
+            outputs[l] = new double[sizes[l + 1]];
+            deltas[l] = new double[sizes[l + 1]];
+        }
+
+        // Initialize weights to small random values
+        randomise();
+    }
+
+    /**
+     * Build the two-layer network equivalent to new MLP(numInputs, numHidden,
+     * numOutputs, useTanhHidden, useLinearOutput)
+     */
+    public static LayeredNetwork twoLayer(int numInputs, int numHidden, int numOutputs,
+                                          boolean useTanhHidden, boolean useLinearOutput) {
+        return new LayeredNetwork(new int[] {numInputs, numHidden, numOutputs}, new Activation[] {
+                useTanhHidden ? Activation.TANH : Activation.SIGMOID,
+                useLinearOutput ? Activation.LINEAR : Activation.SIGMOID});
+    }
+
+    /**
+     * Initialize weights to small random values and reset weight changes to zero
+     */
+    public void randomise() {
+        for (DenseLayer layer : layers) {
+            layer.randomise();
+        }
+    }
+
+    /**
+     * Forward pass - compute output for given input
+     * @param I Input vector
+     * @return Output vector
+     */
+    public double[] forward(double[] I) {
+        double[] in = I;
+        for (int l = 0; l < layers.length; l++) {
+            layers[l].forward(in, outputs[l]);
+            in = outputs[l];
+        }
+        return in;
+    }
+
+    /**
+     * Backward pass - accumulate weight changes for the last forward pass
+     * @param I Input vector (needed for computing gradients)
+     * @param t Target vector
+     * @return Error on this example (sum of squared errors / 2)
+     */
+    public double backwards(double[] I, double[] t) {
+        int last = layers.length - 1;
+        double[] out = outputs[last];
+        double[] delta = deltas[last];
+        double error = 0.0;
+
+        // Output deltas
+        for (int k = 0; k < out.length; k++) {
+            double diff = t[k] - out[k];
+            error += diff * diff;
+            delta[k] = diff;
+        }
+        error /= 2.0;  // Standard squared error
+        layers[last].applyDerivative(delta, out, 0, out.length);
+
+        // Accumulate each layer's weight changes, then pass its deltas down
+        for (int l = last; l >= 0; l--) {
+            layers[l].accumulate(deltas[l], l == 0 ? I : outputs[l - 1]);
+            if (l > 0) {
+                layers[l].backpropagate(deltas[l], deltas[l - 1]);
+                layers[l - 1].applyDerivative(deltas[l - 1], outputs[l - 1], 0, sizes[l]);
+            }
+        }
+
+        return error;
+    }
+
+    /**
+     * Batched forward pass over inputs[start..start+count).
+     * Computes the same values as calling forward on each example.
+     * @param inputs Array of input vectors
+     * @param start Index of the first example in the batch
+     * @param count Number of examples in the batch
+     * @return Flat row-major outputs (count x NO); only the first count rows are valid
+     */
+    public double[] forwardBatch(double[][] inputs, int start, int count) {
+        ensureBatchCapacity(count);
+        int numInputs = sizes[0];
+        for (int b = 0; b < count; b++) {
+            System.arraycopy(inputs[start + b], 0, batchInput, b * numInputs, numInputs);
+        }
+
+        double[] in = batchInput;
+        for (int l = 0; l < layers.length; l++) {
+            layers[l].forwardBatch(in, count, batchOutputs[l]);
+            in = batchOutputs[l];
+        }
+        return in;
+    }
+
+    /**
+     * Batched backward pass over targets[start..start+count).
+     * Must follow a forwardBatch call over the same examples; accumulates
+     * gradients into the same weight changes as backwards.
+     * @param targets Array of target vectors
+     * @param start Index of the first example in the batch
+     * @param count Number of examples in the batch
+     * @return Total error over the batch (sum of squared errors / 2)
+     */
+    public double backwardsBatch(double[][] targets, int start, int count) {
+        int last = layers.length - 1;
+        int numOutputs = sizes[last + 1];
+        double[] out = batchOutputs[last];
+        double[] delta = batchDeltas[last];
+        double error = 0.0;
+
+        // Output deltas
+        for (int b = 0; b < count; b++) {
+            double[] t = targets[start + b];
+            int row = b * numOutputs;
+            double exampleError = 0.0;
+            for (int k = 0; k < numOutputs; k++) {
+                double diff = t[k] - out[row + k];
+                exampleError += diff * diff;
+                delta[row + k] = diff;
+            }
+            error += exampleError / 2.0;
+        }
+        layers[last].applyDerivative(delta, out, 0, count * numOutputs);
+
+        // Accumulate each layer's weight changes, then pass its deltas down
+        for (int l = last; l >= 0; l--) {
+            layers[l].accumulateBatch(batchDeltas[l], count, l == 0 ? batchInput : batchOutputs[l - 1]);
+            if (l > 0) {
+                layers[l].backpropagateBatch(batchDeltas[l], count, batchDeltas[l - 1]);
+                layers[l - 1].applyDerivative(batchDeltas[l - 1], batchOutputs[l - 1], 0, count * sizes[l]);
+            }
+        }
+
+        return error;
+    }
+
+    /**
+     * Grow the batch buffers so they hold at least count examples
+     */
+    private void ensureBatchCapacity(int count) {
+        if (count <= batchCapacity) return;
+        batchCapacity = count;
+        batchInput = new double[count * sizes[0]];
+        for (int l = 0; l < layers.length; l++) {
+            batchOutputs[l] = new double[count * sizes[l + 1]];
+            batchDeltas[l] = new double[count * sizes[l + 1]];
+        }
+    }
+
+    /**
+     * Update weights using accumulated gradients
+     * @param learningRate Learning rate for gradient descent
+     */
+    public void updateWeights(double learningRate) {
+        for (DenseLayer layer : layers) {
+            layer.update(learningRate);
+        }
+    }
+
+    /**
+     * Update weights with an optimiser; the layers occupy consecutive ranges
+     * of its state in layer order
+     * @param optimiser Update rule holding this network's per-weight state
+     * @param learningRate Learning rate passed to the optimiser
+     */
+    public void updateWeights(Optimiser optimiser, double learningRate) {
+        optimiser.beginStep();
+        int offset = 0;
+        for (DenseLayer layer : layers) {
+            optimiser.update(layer.W, layer.dW, offset, layer.W.length, learningRate);
+            offset += layer.W.length;
+        }
+    }
+
+    /**
+     * Get a read-only inference view over this network's weights.
+     * Like MLP.inference(), it reads the live weights, so it should not be
+     * used while this network is still being trained.
+     * @return Thread-safe inference model backed by this network's weights
+     */
+    public InferenceModel inference() {
+        return new LayeredInference(sizes, layers);
+    }
+
+    /**
+     * Get number of layers (hidden layers plus the output layer)
+     */
+    @Override
+    public int getNumLayers() {
+        return layers.length;
+    }
+
+    /**
+     * Get number of units in a layer
+     */
+    @Override
+    public int getLayerSize(int layer) {
+        return sizes[layer + 1];
+    }
+
+    /**
+     * Get the activation of a layer
+     */
+    @Override
+    public Activation getActivation(int layer) {
+        return layers[layer].getActivation();
+    }
+
+    /**
+     * Copy the weights of one layer (units x inputs+1, row-major, bias last)
+     * @param layer Layer index
+     * @param w Destination array
+     */
+    @Override
+    public void copyLayerWeights(int layer, double[] w) {
+        DenseLayer dense = layers[layer];
+        System.arraycopy(dense.W, 0, w, 0, dense.W.length);
+    }
+
+    /**
+     * Overwrite the weights of one layer (same layout as copyLayerWeights)
+     * and reset its weight changes
+     * @param layer Layer index
+     * @param w New weight values
+     */
+    @Override
+    public void setLayerWeights(int layer, double[] w) {
+        DenseLayer dense = layers[layer];
+        System.arraycopy(w, 0, dense.W, 0, dense.W.length);
+        Arrays.fill(dense.dW, 0.0);
+    }
+
+    /**
+     * Get the output of the last forward pass
+     */
+    public double[] getOutput() {
+        return outputs[layers.length - 1];
+    }
+
+    /**
+     * Get number of inputs
+     */
+    public int getNumInputs() {
+        return sizes[0];
+    }
+
+    /**
+     * Get number of units in the first hidden layer (0 without hidden layers)
+     */
+    public int getNumHidden() {
+        return layers.length > 1 ? sizes[1] : 0;
+    }
+
+    /**
+     * Get number of outputs
+     */
+    public int getNumOutputs() {
+        return sizes[sizes.length - 1];
+    }
+
+    /**
+     * Whether the first hidden layer uses tanh
+     */
+    public boolean isTanhHidden() {
+        return layers.length > 1 && layers[0].getActivation() == Activation.TANH;
+    }
+
+    /**
+     * Whether the output layer is linear
+     */
+    public boolean isLinearOutput() {
+        return layers[layers.length - 1].getActivation() == Activation.LINEAR;
+    }
+}
@@ -0,0 +1,83 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Letter recognition dataset loaded from letter-recognition.csv
+ * - 16 input features normalised to [0, 1] (original values are 0-15)
+ * - One-hot targets over the 26 letters A-Z
+ */
+public class LetterData {
+    public final double[][] inputs;
+    public final double[][] targets;
+    public final char[] letters;
+
+    private LetterData(double[][] inputs, double[][] targets, char[] letters) {
+        this.inputs = inputs;
+        this.targets = targets;
+        this.letters = letters;
+    }
+
+    /**
+     * Load the CSV file (header line, 16 feature columns, letter label last),
+     * or a binary dataset converted from it if the name ends in .bin
+     * @param filename Path to letter-recognition.csv or letter-recognition.bin
+     * @return The loaded dataset, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static LetterData load(String filename) throws IOException {
+        if (filename.endsWith(".bin")) {
+            return fromBinary(BinaryDataset.open(filename));
+        }
+
+        CsvLoader loader = new CsvLoader();
+        loader.setRange(0.0, 15.0);  // Same values as dividing by 15
+        return fromCsv(loader.load(filename));
+    }
+
+    /**
+     * Copy a parsed CSV dataset into network inputs and one-hot targets
+     * @param data Letter dataset loaded by CsvLoader (features already normalised)
+     */
+    public static LetterData fromCsv(CsvDataset data) {
+        int n = data.getNumRows();
+        double[][] inputs = data.toInputs();
+        double[][] targets = new double[n][26];
+        char[] letters = new char[n];
+        for (int p = 0; p < n; p++) {
+            letters[p] = data.getClassSymbol(data.label(p));
+            targets[p][letters[p] - 'A'] = 1.0;
+        }
+        return new LetterData(inputs, targets, letters);
+    }
+
+    /**
+     * Copy a mapped binary dataset into network inputs and one-hot targets
+     * @param data Letter dataset converted with BinaryDataset
+     */
+    public static LetterData fromBinary(BinaryDataset data) {
+        int n = data.getNumRows();
+        double[][] inputs = new double[n][data.getNumFeatures()];
+        double[][] targets = new double[n][26];
+        char[] letters = new char[n];
+        for (int i = 0; i < data.getNumFeatures(); i++) {
+            FloatBuffer column = data.column(i);
+            for (int p = 0; p < n; p++) {
+                inputs[p][i] = column.get(p) / 15.0;  // Same values as the CSV path
+            }
+        }
+        ByteBuffer labels = data.labels();
+        for (int p = 0; p < n; p++) {
+            letters[p] = data.getClassSymbol(labels.get(p) & 0xFF);
+            targets[p][letters[p] - 'A'] = 1.0;
+        }
+        return new LetterData(inputs, targets, letters);
+    }
+
+    /**
+     * Get number of examples
+     */
+    public int size() {
+        return inputs.length;
+    }
+}
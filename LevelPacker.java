@@ -0,0 +1,52 @@
+/**
+ * InputPacker for inputs that take a few evenly spaced values in [0, 1]:
+ * each feature is v = level / maxLevel for an integer level, and the levels
+ * are packed side by side with just enough bits each. The letter features
+ * (0-15 divided by 15) fit exactly: 16 features of 4 bits fill one long.
+ *
+ * Packing is exact, as InputPacker requires: a feature is accepted only if
+ * v * maxLevel == level with no rounding slack and v is exactly the double
+ * level / maxLevel. Neighbouring doubles can also multiply to the same level
+ * (Math.nextUp(1.0 / 15) * 15 == 1.0), so the second test keeps each key to
+ * one input vector. Anything else is UNCACHEABLE.
+ */
+public class LevelPacker implements InputPacker {
+    private final int numInputs;
+    private final int maxLevel;
+    private final int bits;  // Bits per feature
+
+    /**
+     * Constructor for LevelPacker
+     * @param numInputs Number of features
+     * @param maxLevel Level of the value 1.0 (e.g. 15 for the letter data)
+     */
+    public LevelPacker(int numInputs, int maxLevel) {
+        if (maxLevel < 1) {
+            throw new IllegalArgumentException("maxLevel must be at least 1, got " + maxLevel);
+        }
+        this.numInputs = numInputs;
+        this.maxLevel = maxLevel;
+        this.bits = 32 - Integer.numberOfLeadingZeros(maxLevel);
+        if ((long) numInputs * bits > 64) {
+            throw new IllegalArgumentException(numInputs + " features of " + bits + " bits do not fit in 64 bits");
+        }
+    }
+
+    @Override
+    public long pack(double[] input) {
+        long key = 0;
+        for (int i = 0; i < numInputs; i++) {
+            double scaled = input[i] * maxLevel;
+            double level = Math.rint(scaled);
+            if (scaled != level || input[i] != level / maxLevel || level < 0 || level > maxLevel) {
+                return UNCACHEABLE;  // Off the grid (or NaN)
+            }
+            key = (key << bits) | (long) level;
+        }
+        return key;
+    }
+
+    public int getBitsPerFeature() {
+        return bits;
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LoadGenerator: End-to-end load test for InferenceServer
+ * Opens many client connections, each sending letter-recognition inputs back
+ * to back, and reports throughput with client-side p50/p99 latency.
+ *
+ * - embedded (default) / unix: trains a Test3 network briefly, serves it
+ *   in-process over localhost TCP or a Unix socket, and compares one request
+ *   per forward pass with micro-batching, adding the server's own counters
+ * - host:port or unix:/path: loads a running InferenceServer
+ *
+ * Usage: java LoadGenerator [embedded | unix | host:port | unix:/path] [connections] [seconds]
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String target = args.length > 0 ? args[0] : "embedded";
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 3.0;
+
+        System.out.println("===========================================");
+        System.out.println("Inference Server Load Test");
+        System.out.println("===========================================\n");
+
+        LetterData data = LetterData.load("letter-recognition.csv");
+
+        if (!target.equals("embedded") && !target.equals("unix")) {
+            System.out.println(connections + " connections to " + target + " for " + seconds + " s\n");
+            printHeader(false);
+            run(InferenceServer.parseAddress(target), data.inputs, connections, seconds, null, "remote");
+            return;
+        }
+
+        MLP network = new MLP(16, 30, 26, true, false);
+        Training trainer = new Training(network, 10, 100, 0.005);
+        trainer.setLogFileName(null);
+        trainer.setOptimiser(new AdamOptimiser());
+        trainer.train(data.inputs, data.targets, false);
+        InferenceModel model = network.inference();
+
+        System.out.println(connections + " connections over " + (target.equals("unix") ? "a Unix socket" : "localhost TCP")
+                + ", " + seconds + " s per run\n");
+        printHeader(true);
+        int[][] configs = {{1, 0}, {16, 100}, {64, 200}};  // {maxBatch, maxDelayMicros}
+        for (int[] config : configs) {
+            SocketAddress address;
+            if (target.equals("unix")) {
+                File socket = File.createTempFile("inference", ".sock");
+                socket.delete();
+                address = UnixDomainSocketAddress.of(socket.getPath());
+            } else {
+                address = new InetSocketAddress("localhost", 0);
+            }
+            try (InferenceServer server = new InferenceServer(model, address)) {
+                server.setMaxBatchSize(config[0]);
+                server.setMaxDelayMicros(config[1]);
+                server.start();
+                // Warm up the JIT, then measure
+                run(server.getLocalAddress(), data.inputs, connections, Math.min(1.0, seconds), null, null);
+                server.resetStats();
+                String name = config[0] == 1 ? "no batching" : "batch " + config[0] + "/" + config[1] + "us";
+                run(server.getLocalAddress(), data.inputs, connections, seconds, server, name);
+            }
+        }
+    }
+
+    private static void printHeader(boolean withServer) {
+        System.out.printf("%-18s %14s %13s %13s", "Configuration", "Requests/sec", "Client p50", "Client p99");
+        if (withServer) {
+            System.out.printf(" %13s %13s %11s", "Server p50", "Server p99", "Mean batch");
+        }
+        System.out.println();
+    }
+
+    /**
+     * Drive the server from one thread per connection for a fixed time
+     * @param name Row label, or null to run without printing
+     */
+    private static void run(final SocketAddress address, final double[][] inputs, int connections, double seconds,
+                            InferenceServer server, String name) throws InterruptedException {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong failures = new AtomicLong();
+        final long end = System.nanoTime() + (long) (seconds * 1e9);
+        final CountDownLatch done = new CountDownLatch(connections);
+        long start = System.nanoTime();
+        for (int c = 0; c < connections; c++) {
+            final int offset = c * 997;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try (InferenceClient client = InferenceClient.connect(address)) {
+                        for (int r = offset; System.nanoTime() < end; r++) {
+                            long sent = System.nanoTime();
+                            client.predict(inputs[r % inputs.length]);
+                            latency.record(System.nanoTime() - sent);
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }, "load-" + c);
+            thread.start();
+        }
+        done.await();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        if (name == null) {
+            return;
+        }
+        System.out.printf("%-18s %14.0f %10.1f us %10.1f us", name, latency.getCount() / elapsed,
+                latency.getPercentile(50) / 1e3, latency.getPercentile(99) / 1e3);
+        if (server != null) {
+            System.out.printf(" %10.1f us %10.1f us %11.1f", server.getLatencyPercentile(50) / 1e3,
+                    server.getLatencyPercentile(99) / 1e3, server.getMeanBatchSize());
+        }
+        System.out.println(failures.get() > 0 ? "  (" + failures.get() + " connections failed)" : "");
+    }
+}
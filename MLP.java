@@ -1,35 +1,54 @@
+import java.util.Arrays;
+
 /**
  * Multi-Layer Perceptron implementation
  * A neural network with one hidden layer, supporting:
  * - Sigmoidal or tanh activation for hidden units
  * - Sigmoidal or linear activation for output units
+ *
+ * Weights are stored as flat row-major arrays: row j of W1 holds the NI input
+ * weights of hidden unit j followed by its bias, so W1[j * (NI + 1) + i] is the
+ * weight from input i to hidden unit j. W2 is laid out the same way.
  */
-public class MLP {
+public class MLP implements Network {
+    // Block sizes for the mini-batch matrix kernels (examples x neurons per tile)
+    private static final int ROW_BLOCK = 64;
+    private static final int COL_BLOCK = 64;
+
     // Network architecture
     private int NI;  // Number of inputs
     private int NH;  // Number of hidden units
     private int NO;  // Number of outputs
-    
+
     // Weights
-    private double[][] W1;  // Weights from input to hidden layer (NH x NI+1, +1 for bias)
-    private double[][] W2;  // Weights from hidden to output layer (NO x NH+1, +1 for bias)
-    
+    private double[] W1;  // Weights from input to hidden layer (NH x NI+1, +1 for bias)
+    private double[] W2;  // Weights from hidden to output layer (NO x NH+1, +1 for bias)
+    private double[] W2T; // Optional transposed copy of W2 without bias (NH x NO), null when disabled
+
     // Weight changes (gradients accumulated)
-    private double[][] dW1;
-    private double[][] dW2;
-    
+    private double[] dW1;
+    private double[] dW2;
+
     // Activations (weighted sums before activation function)
     private double[] Z1;  // Activations for hidden layer
     private double[] Z2;  // Activations for output layer
-    
+
     // Neuron outputs
     private double[] H;   // Hidden layer outputs
     private double[] O;   // Output layer outputs
-    
+
+    // Deltas for the per-example backward pass (reused, never reallocated)
+    private double[] deltaHidden;
+    private double[] deltaOutput;
+
+    // Mini-batch buffers for forwardBatch/backwardsBatch (accumulates into dW1/dW2)
+    private final MLPWorkspace batch;
+
     // Activation function options
     private boolean useTanhHidden;    // true = tanh, false = sigmoid for hidden layer
     private boolean useLinearOutput;  // true = linear, false = sigmoid for output layer
-    
+    private boolean fastActivations;  // true = table-interpolated sigmoid/tanh (FastActivations)
+
     /**
      * Constructor for MLP
      * @param numInputs Number of input neurons
@@ -44,24 +63,29 @@ public class MLP {
         this.NO = numOutputs;
         this.useTanhHidden = useTanhHidden;
         this.useLinearOutput = useLinearOutput;
-        
+
         // Initialize weight arrays (+1 for bias in each layer)
-        W1 = new double[NH][NI + 1];
-        W2 = new double[NO][NH + 1];
-        
-        dW1 = new double[NH][NI + 1];
-        dW2 = new double[NO][NH + 1];
-        
+        W1 = new double[NH * (NI + 1)];
+        W2 = new double[NO * (NH + 1)];
+
+        dW1 = new double[NH * (NI + 1)];
+        dW2 = new double[NO * (NH + 1)];
+
         Z1 = new double[NH];
         Z2 = new double[NO];
-        
+
         H = new double[NH];
         O = new double[NO];
-        
+
+        deltaHidden = new double[NH];
+        deltaOutput = new double[NO];
+
+        batch = new MLPWorkspace(NI, NH, NO, dW1, dW2);
+
         // Initialize weights to small random values
         randomise();
     }
-    
+
     /**
      * Initialize weights to small random values and reset weight changes to zero
      */
@@ -69,95 +93,189 @@ public class MLP {
         // Initialize W1 to small random values
         for (int j = 0; j < NH; j++) {
             for (int i = 0; i <= NI; i++) {
-                W1[j][i] = (Math.random() - 0.5) * 0.5;  // Random values in [-0.25, 0.25]
+                W1[j * (NI + 1) + i] = (Math.random() - 0.5) * 0.5;  // Random values in [-0.25, 0.25]
             }
         }
-        
+
         // Initialize W2 to small random values
         for (int k = 0; k < NO; k++) {
             for (int j = 0; j <= NH; j++) {
-                W2[k][j] = (Math.random() - 0.5) * 0.5;
+                W2[k * (NH + 1) + j] = (Math.random() - 0.5) * 0.5;
             }
         }
-        
+
+        refreshTransposedW2();
+
         // Reset weight changes to zero
         resetWeightChanges();
     }
-    
+
     /**
      * Reset all weight changes to zero
      */
     private void resetWeightChanges() {
-        for (int j = 0; j < NH; j++) {
-            for (int i = 0; i <= NI; i++) {
-                dW1[j][i] = 0.0;
-            }
+        Arrays.fill(dW1, 0.0);
+        Arrays.fill(dW2, 0.0);
+    }
+
+    /**
+     * Enable or disable the transposed copy of W2.
+     * When enabled, the hidden-delta loop in backwards reads W2T row by row
+     * instead of walking down a column of W2. The copy is refreshed on every
+     * updateWeights call.
+     * @param enabled true to keep a transposed copy of W2
+     */
+    public void setTransposedCopy(boolean enabled) {
+        if (enabled && W2T == null) {
+            W2T = new double[NH * NO];
+            refreshTransposedW2();
+        } else if (!enabled) {
+            W2T = null;
         }
+    }
+
+    /**
+     * Whether a transposed copy of W2 is being maintained
+     */
+    public boolean hasTransposedCopy() {
+        return W2T != null;
+    }
+
+    /**
+     * Rebuild W2T from W2 (no-op when the transposed copy is disabled)
+     */
+    void refreshTransposedW2() {
+        if (W2T == null) return;
         for (int k = 0; k < NO; k++) {
-            for (int j = 0; j <= NH; j++) {
-                dW2[k][j] = 0.0;
+            int row = k * (NH + 1);
+            for (int j = 0; j < NH; j++) {
+                W2T[j * NO + k] = W2[row + j];
             }
         }
     }
-    
+
+    /**
+     * Use the table-interpolated sigmoid and tanh of FastActivations instead
+     * of Math.exp/Math.tanh (off by default). Outputs then differ from the
+     * exact functions by at most FastActivations.MAX_TANH_ERROR per unit
+     * before propagation through the next layer. getActivation reports the
+     * FAST_* activations, so weight snapshots (validation, checkpoints) keep them.
+     * @param enabled true for the fast approximations
+     */
+    public void setFastActivations(boolean enabled) {
+        this.fastActivations = enabled;
+    }
+
+    /**
+     * Whether the fast approximate activations are in use
+     */
+    public boolean hasFastActivations() {
+        return fastActivations;
+    }
+
     /**
      * Sigmoid activation function
      */
-    private double sigmoid(double x) {
+    static double sigmoid(double x) {
         return 1.0 / (1.0 + Math.exp(-x));
     }
-    
+
     /**
      * Derivative of sigmoid (given the output of sigmoid)
      */
     private double sigmoidDerivative(double sigmoidOutput) {
         return sigmoidOutput * (1.0 - sigmoidOutput);
     }
-    
+
     /**
      * Derivative of tanh (given the output of tanh)
      */
     private double tanhDerivative(double tanhOutput) {
         return 1.0 - tanhOutput * tanhOutput;
     }
-    
+
+    /**
+     * Dot product of a[aOff..aOff+n) and b[bOff..bOff+n), added to an initial value
+     */
+    static double dot(double init, double[] a, int aOff, double[] b, int bOff, int n) {
+        return Kernels.INSTANCE.dot(init, a, aOff, b, bOff, n);
+    }
+
+    /**
+     * y[yOff..yOff+n) += alpha * x[xOff..xOff+n)
+     */
+    static void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n) {
+        Kernels.INSTANCE.axpy(alpha, x, xOff, y, yOff, n);
+    }
+
+    /**
+     * Apply the hidden activation in place to values[off..off+n)
+     */
+    private void activateHidden(double[] values, int off, int n) {
+        if (useTanhHidden) {
+            if (fastActivations) {
+                for (int j = off; j < off + n; j++) {
+                    values[j] = FastActivations.tanh(values[j]);
+                }
+            } else {
+                for (int j = off; j < off + n; j++) {
+                    values[j] = Math.tanh(values[j]);
+                }
+            }
+        } else {
+            activateSigmoid(values, off, n);
+        }
+    }
+
+    /**
+     * Apply the output activation in place to values[off..off+n)
+     */
+    private void activateOutput(double[] values, int off, int n) {
+        if (!useLinearOutput) {
+            activateSigmoid(values, off, n);
+        }
+    }
+
+    /**
+     * Apply the (exact or fast) sigmoid in place to values[off..off+n)
+     */
+    private void activateSigmoid(double[] values, int off, int n) {
+        if (fastActivations) {
+            for (int j = off; j < off + n; j++) {
+                values[j] = FastActivations.sigmoid(values[j]);
+            }
+        } else {
+            for (int j = off; j < off + n; j++) {
+                values[j] = sigmoid(values[j]);
+            }
+        }
+    }
+
     /**
      * Forward pass - compute output for given input
      * @param I Input vector
      * @return Output vector
      */
     public double[] forward(double[] I) {
-        // Compute hidden layer activations and outputs
+        // Compute hidden layer activations and outputs (bias term is the last weight of each row)
         for (int j = 0; j < NH; j++) {
-            Z1[j] = W1[j][NI];  // Bias term (last weight)
-            for (int i = 0; i < NI; i++) {
-                Z1[j] += W1[j][i] * I[i];
-            }
-            // Apply activation function
-            if (useTanhHidden) {
-                H[j] = Math.tanh(Z1[j]);
-            } else {
-                H[j] = sigmoid(Z1[j]);
-            }
+            int row = j * (NI + 1);
+            Z1[j] = dot(W1[row + NI], W1, row, I, 0, NI);
         }
-        
+        System.arraycopy(Z1, 0, H, 0, NH);
+        activateHidden(H, 0, NH);
+
         // Compute output layer activations and outputs
         for (int k = 0; k < NO; k++) {
-            Z2[k] = W2[k][NH];  // Bias term
-            for (int j = 0; j < NH; j++) {
-                Z2[k] += W2[k][j] * H[j];
-            }
-            // Apply activation function
-            if (useLinearOutput) {
-                O[k] = Z2[k];  // Linear output
-            } else {
-                O[k] = sigmoid(Z2[k]);
-            }
+            int row = k * (NH + 1);
+            Z2[k] = dot(W2[row + NH], W2, row, H, 0, NH);
         }
-        
+        System.arraycopy(Z2, 0, O, 0, NO);
+        activateOutput(O, 0, NO);
+
         return O;
     }
-    
+
     /**
      * Backward pass - compute weight updates based on target
      * @param I Input vector (needed for computing gradients)
@@ -166,13 +284,12 @@ public class MLP {
      */
     public double backwards(double[] I, double[] t) {
         double error = 0.0;
-        
+
         // Compute output layer deltas
-        double[] deltaOutput = new double[NO];
         for (int k = 0; k < NO; k++) {
             double diff = t[k] - O[k];
             error += diff * diff;
-            
+
             // Compute delta based on activation function
             if (useLinearOutput) {
                 deltaOutput[k] = diff;  // Linear: derivative is 1
@@ -181,63 +298,411 @@ public class MLP {
             }
         }
         error /= 2.0;  // Standard squared error
-        
+
         // Accumulate weight changes for W2 (hidden to output)
         for (int k = 0; k < NO; k++) {
+            int row = k * (NH + 1);
+            axpy(deltaOutput[k], H, 0, dW2, row, NH);
+            dW2[row + NH] += deltaOutput[k];  // Bias update
+        }
+
+        // Compute hidden layer deltas, reading W2 row by row (or W2T when enabled)
+        if (W2T != null) {
             for (int j = 0; j < NH; j++) {
-                dW2[k][j] += deltaOutput[k] * H[j];
+                deltaHidden[j] = dot(0.0, W2T, j * NO, deltaOutput, 0, NO);
+            }
+        } else {
+            Arrays.fill(deltaHidden, 0.0);
+            for (int k = 0; k < NO; k++) {
+                axpy(deltaOutput[k], W2, k * (NH + 1), deltaHidden, 0, NH);
             }
-            dW2[k][NH] += deltaOutput[k];  // Bias update
         }
-        
-        // Compute hidden layer deltas
-        double[] deltaHidden = new double[NH];
+        applyHiddenDerivative(deltaHidden, H, 0, NH);
+
+        // Accumulate weight changes for W1 (input to hidden)
         for (int j = 0; j < NH; j++) {
-            double sum = 0.0;
+            int row = j * (NI + 1);
+            axpy(deltaHidden[j], I, 0, dW1, row, NI);
+            dW1[row + NI] += deltaHidden[j];  // Bias update
+        }
+
+        return error;
+    }
+
+    /**
+     * Multiply delta[off..off+n) by the hidden activation derivative at out[off..off+n)
+     */
+    private void applyHiddenDerivative(double[] delta, double[] out, int off, int n) {
+        if (useTanhHidden) {
+            for (int j = off; j < off + n; j++) {
+                delta[j] *= tanhDerivative(out[j]);
+            }
+        } else {
+            for (int j = off; j < off + n; j++) {
+                delta[j] *= sigmoidDerivative(out[j]);
+            }
+        }
+    }
+
+    /**
+     * Batched forward pass over inputs[start..start+count).
+     * Computes the same values as calling forward on each example, but as
+     * cache-blocked matrix-matrix products over the whole mini-batch.
+     * @param inputs Array of input vectors
+     * @param start Index of the first example in the batch
+     * @param count Number of examples in the batch
+     * @return Flat row-major outputs (count x NO); only the first count rows are valid
+     */
+    public double[] forwardBatch(double[][] inputs, int start, int count) {
+        forwardBatch(batch, inputs, start, count);
+        return batch.OB;
+    }
+
+    /**
+     * Batched backward pass over targets[start..start+count).
+     * Must follow a forwardBatch call over the same examples; accumulates
+     * gradients into the same weight changes as backwards.
+     * @param targets Array of target vectors
+     * @param start Index of the first example in the batch
+     * @param count Number of examples in the batch
+     * @return Total error over the batch (sum of squared errors / 2)
+     */
+    public double backwardsBatch(double[][] targets, int start, int count) {
+        return backwardsBatch(batch, targets, start, count);
+    }
+
+    /**
+     * Create a workspace with its own batch buffers and gradient accumulators.
+     * Several threads can call accumulateBatch at once, each with its own
+     * workspace, because the weights are only read.
+     * @return A new empty workspace
+     */
+    public MLPWorkspace newWorkspace() {
+        return new MLPWorkspace(NI, NH, NO, new double[dW1.length], new double[dW2.length]);
+    }
+
+    /**
+     * Forward and backward pass over a batch, accumulating gradients into the
+     * workspace instead of this network's weight changes
+     * @param workspace Caller-owned workspace
+     * @param inputs Array of input vectors
+     * @param targets Array of target vectors
+     * @param start Index of the first example in the batch
+     * @param count Number of examples in the batch
+     * @return Total error over the batch (sum of squared errors / 2)
+     */
+    public double accumulateBatch(MLPWorkspace workspace, double[][] inputs, double[][] targets, int start, int count) {
+        forwardBatch(workspace, inputs, start, count);
+        return backwardsBatch(workspace, targets, start, count);
+    }
+
+    /**
+     * Add the gradients of a workspace to this network's weight changes and
+     * clear the workspace
+     * @param workspace Workspace filled by accumulateBatch
+     */
+    public void addGradients(MLPWorkspace workspace) {
+        for (int w = 0; w < dW1.length; w++) {
+            dW1[w] += workspace.dW1[w];
+        }
+        for (int w = 0; w < dW2.length; w++) {
+            dW2[w] += workspace.dW2[w];
+        }
+        workspace.clearGradients();
+    }
+
+    private void forwardBatch(MLPWorkspace ws, double[][] inputs, int start, int count) {
+        ws.ensureCapacity(count);
+        double[] XB = ws.XB;
+        double[] HB = ws.HB;
+        double[] OB = ws.OB;
+
+        // Gather the batch into one contiguous block
+        for (int b = 0; b < count; b++) {
+            System.arraycopy(inputs[start + b], 0, XB, b * NI, NI);
+        }
+
+        // Hidden layer: HB = act(XB * W1^T + bias)
+        multiplyTransposed(XB, count, NI, W1, NH, HB);
+        activateHidden(HB, 0, count * NH);
+
+        // Output layer: OB = act(HB * W2^T + bias)
+        multiplyTransposed(HB, count, NH, W2, NO, OB);
+        activateOutput(OB, 0, count * NO);
+    }
+
+    private double backwardsBatch(MLPWorkspace ws, double[][] targets, int start, int count) {
+        double[] XB = ws.XB;
+        double[] HB = ws.HB;
+        double[] OB = ws.OB;
+        double[] deltaHB = ws.deltaHB;
+        double[] deltaOB = ws.deltaOB;
+        double error = 0.0;
+
+        // Compute output layer deltas
+        for (int b = 0; b < count; b++) {
+            double[] t = targets[start + b];
+            int row = b * NO;
+            double exampleError = 0.0;
             for (int k = 0; k < NO; k++) {
-                sum += deltaOutput[k] * W2[k][j];
+                double out = OB[row + k];
+                double diff = t[k] - out;
+                exampleError += diff * diff;
+                deltaOB[row + k] = useLinearOutput ? diff : diff * sigmoidDerivative(out);
             }
-            // Compute delta based on activation function
-            if (useTanhHidden) {
-                deltaHidden[j] = sum * tanhDerivative(H[j]);
-            } else {
-                deltaHidden[j] = sum * sigmoidDerivative(H[j]);
+            error += exampleError / 2.0;
+        }
+
+        // dW2 += deltaO^T * [HB | 1]
+        accumulateOuter(deltaOB, count, NO, HB, NH, ws.dW2);
+
+        // Hidden deltas: deltaH = (deltaO * W2) .* act'(HB)
+        for (int b = 0; b < count; b++) {
+            int row = b * NH;
+            Arrays.fill(deltaHB, row, row + NH, 0.0);
+            for (int k = 0; k < NO; k++) {
+                axpy(deltaOB[b * NO + k], W2, k * (NH + 1), deltaHB, row, NH);
             }
         }
-        
-        // Accumulate weight changes for W1 (input to hidden)
+        applyHiddenDerivative(deltaHB, HB, 0, count * NH);
+
+        // dW1 += deltaH^T * [XB | 1]
+        accumulateOuter(deltaHB, count, NH, XB, NI, ws.dW1);
+
+        return error;
+    }
+
+    /**
+     * Lock-free stochastic gradient step for asynchronous (Hogwild-style) training.
+     * Runs forward and backward for one example using the workspace for scratch
+     * and applies the update straight to the shared weights, skipping zero
+     * inputs and zero deltas. Concurrent callers race on the weights by design;
+     * nothing is accumulated into dW1/dW2 and W2T is not refreshed.
+     * @param workspace Scratch owned by the calling thread
+     * @param I Input vector
+     * @param t Target vector
+     * @param learningRate Learning rate for gradient descent
+     * @return Error on this example (sum of squared errors / 2)
+     */
+    public double sgdStep(MLPWorkspace workspace, double[] I, double[] t, double learningRate) {
+        workspace.ensureCapacity(1);
+        double[] hidden = workspace.HB;
+        double[] output = workspace.OB;
+        double[] deltaHidden = workspace.deltaHB;
+        double[] deltaOutput = workspace.deltaOB;
+
+        // Forward pass into the workspace
+        for (int j = 0; j < NH; j++) {
+            int row = j * (NI + 1);
+            hidden[j] = dot(W1[row + NI], W1, row, I, 0, NI);
+        }
+        activateHidden(hidden, 0, NH);
+        for (int k = 0; k < NO; k++) {
+            int row = k * (NH + 1);
+            output[k] = dot(W2[row + NH], W2, row, hidden, 0, NH);
+        }
+        activateOutput(output, 0, NO);
+
+        // Output and hidden deltas, both from the weights as read before this update
+        double error = 0.0;
+        for (int k = 0; k < NO; k++) {
+            double diff = t[k] - output[k];
+            error += diff * diff;
+            deltaOutput[k] = useLinearOutput ? diff : diff * sigmoidDerivative(output[k]);
+        }
+        Arrays.fill(deltaHidden, 0, NH, 0.0);
+        for (int k = 0; k < NO; k++) {
+            axpy(deltaOutput[k], W2, k * (NH + 1), deltaHidden, 0, NH);
+        }
+        applyHiddenDerivative(deltaHidden, hidden, 0, NH);
+
+        // Apply the sparse update directly to the shared weights
+        for (int k = 0; k < NO; k++) {
+            double step = learningRate * deltaOutput[k];
+            if (step == 0.0) continue;
+            int row = k * (NH + 1);
+            axpy(step, hidden, 0, W2, row, NH);
+            W2[row + NH] += step;
+        }
         for (int j = 0; j < NH; j++) {
+            double step = learningRate * deltaHidden[j];
+            if (step == 0.0) continue;
+            int row = j * (NI + 1);
             for (int i = 0; i < NI; i++) {
-                dW1[j][i] += deltaHidden[j] * I[i];
+                if (I[i] != 0.0) {
+                    W1[row + i] += step * I[i];
+                }
+            }
+            W1[row + NI] += step;
+        }
+
+        return error / 2.0;
+    }
+
+    /**
+     * C = A * W^T + bias, where A is n x K and W is m x (K+1) with the bias in
+     * the last column of each row. C is n x m. Tiled so that a block of A rows
+     * and a block of W rows stay in cache while they are combined.
+     */
+    static void multiplyTransposed(double[] A, int n, int K, double[] W, int m, double[] C) {
+        for (int b0 = 0; b0 < n; b0 += ROW_BLOCK) {
+            int b1 = Math.min(b0 + ROW_BLOCK, n);
+            for (int j0 = 0; j0 < m; j0 += COL_BLOCK) {
+                int j1 = Math.min(j0 + COL_BLOCK, m);
+                for (int b = b0; b < b1; b++) {
+                    for (int j = j0; j < j1; j++) {
+                        int row = j * (K + 1);
+                        C[b * m + j] = dot(W[row + K], W, row, A, b * K, K);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * G += D^T * [A | 1], where D is n x m, A is n x K and G is m x (K+1).
+     * Examples are visited in order, so each gradient element receives its
+     * contributions in the same order as the per-example path.
+     */
+    static void accumulateOuter(double[] D, int n, int m, double[] A, int K, double[] G) {
+        for (int j0 = 0; j0 < m; j0 += COL_BLOCK) {
+            int j1 = Math.min(j0 + COL_BLOCK, m);
+            for (int b0 = 0; b0 < n; b0 += ROW_BLOCK) {
+                int b1 = Math.min(b0 + ROW_BLOCK, n);
+                for (int j = j0; j < j1; j++) {
+                    int row = j * (K + 1);
+                    for (int b = b0; b < b1; b++) {
+                        double d = D[b * m + j];
+                        axpy(d, A, b * K, G, row, K);
+                        G[row + K] += d;  // Bias update
+                    }
+                }
             }
-            dW1[j][NI] += deltaHidden[j];  // Bias update
         }
-        
-        return error;
     }
-    
+
     /**
      * Update weights using accumulated gradients
      * @param learningRate Learning rate for gradient descent
      */
     public void updateWeights(double learningRate) {
         // Update W1
-        for (int j = 0; j < NH; j++) {
-            for (int i = 0; i <= NI; i++) {
-                W1[j][i] += learningRate * dW1[j][i];
-                dW1[j][i] = 0.0;  // Reset for next batch
-            }
+        for (int w = 0; w < W1.length; w++) {
+            W1[w] += learningRate * dW1[w];
+            dW1[w] = 0.0;  // Reset for next batch
         }
-        
+
         // Update W2
-        for (int k = 0; k < NO; k++) {
-            for (int j = 0; j <= NH; j++) {
-                W2[k][j] += learningRate * dW2[k][j];
-                dW2[k][j] = 0.0;  // Reset for next batch
+        for (int w = 0; w < W2.length; w++) {
+            W2[w] += learningRate * dW2[w];
+            dW2[w] = 0.0;  // Reset for next batch
+        }
+
+        refreshTransposedW2();
+    }
+
+    /**
+     * Update weights with an optimiser; W1 occupies the first W1.length
+     * entries of its state and W2 the next W2.length
+     * @param optimiser Update rule holding this network's per-weight state
+     * @param learningRate Learning rate passed to the optimiser
+     */
+    public void updateWeights(Optimiser optimiser, double learningRate) {
+        optimiser.beginStep();
+        optimiser.update(W1, dW1, 0, W1.length, learningRate);
+        optimiser.update(W2, dW2, W1.length, W2.length, learningRate);
+        refreshTransposedW2();
+    }
+
+    /**
+     * Copy the weights into caller-owned arrays
+     * @param w1 Destination for W1 (NH x NI+1, row-major, bias last)
+     * @param w2 Destination for W2 (NO x NH+1, row-major, bias last)
+     */
+    public void copyWeights(double[] w1, double[] w2) {
+        System.arraycopy(W1, 0, w1, 0, W1.length);
+        System.arraycopy(W2, 0, w2, 0, W2.length);
+    }
+
+    /**
+     * Overwrite the weights (same layout as copyWeights) and reset weight changes
+     * @param w1 New W1 values
+     * @param w2 New W2 values
+     */
+    public void setWeights(double[] w1, double[] w2) {
+        System.arraycopy(w1, 0, W1, 0, W1.length);
+        System.arraycopy(w2, 0, W2, 0, W2.length);
+        refreshTransposedW2();
+        resetWeightChanges();
+    }
+
+    /**
+     * Get number of weight layers: W1 (hidden) and W2 (output)
+     */
+    @Override
+    public int getNumLayers() {
+        return 2;
+    }
+
+    @Override
+    public int getLayerSize(int layer) {
+        return layer == 0 ? NH : NO;
+    }
+
+    @Override
+    public Activation getActivation(int layer) {
+        if (layer == 0) {
+            if (useTanhHidden) {
+                return fastActivations ? Activation.FAST_TANH : Activation.TANH;
             }
+            return fastActivations ? Activation.FAST_SIGMOID : Activation.SIGMOID;
+        }
+        if (useLinearOutput) {
+            return Activation.LINEAR;
         }
+        return fastActivations ? Activation.FAST_SIGMOID : Activation.SIGMOID;
+    }
+
+    @Override
+    public void copyLayerWeights(int layer, double[] w) {
+        double[] W = layer == 0 ? W1 : W2;
+        System.arraycopy(W, 0, w, 0, W.length);
+    }
+
+    @Override
+    public void setLayerWeights(int layer, double[] w) {
+        if (layer == 0) {
+            System.arraycopy(w, 0, W1, 0, W1.length);
+            Arrays.fill(dW1, 0.0);
+        } else {
+            System.arraycopy(w, 0, W2, 0, W2.length);
+            Arrays.fill(dW2, 0.0);
+            refreshTransposedW2();
+        }
+    }
+
+    /**
+     * Get a read-only inference view over this network's weights.
+     * The view never touches the training buffers (Z1, H, O, ...), so it can
+     * be shared by any number of threads as long as each one uses its own
+     * InferenceContext. It reads the live weights, so it should not be used
+     * while this network is still being trained.
+     * @return Thread-safe inference model backed by this network's weights
+     */
+    public InferenceModel inference() {
+        return new MLPInference(NI, NH, NO, W1, W2, useTanhHidden, useLinearOutput, fastActivations);
     }
-    
+
+    /**
+     * Get an int8 inference model quantised from the current weights.
+     * Unlike inference(), the model keeps its own copy of the weights, so
+     * later training does not affect it.
+     * @return Thread-safe quantised inference model
+     */
+    public QuantisedInference quantise() {
+        return new QuantisedInference(NI, NH, NO, W1, W2, useTanhHidden, useLinearOutput);
+    }
+
     /**
      * Get the current output
      * @return Output array
@@ -245,25 +710,39 @@ public class MLP {
     public double[] getOutput() {
         return O;
     }
-    
+
     /**
      * Get number of inputs
      */
     public int getNumInputs() {
         return NI;
     }
-    
+
     /**
      * Get number of hidden units
      */
     public int getNumHidden() {
         return NH;
     }
-    
+
     /**
      * Get number of outputs
      */
     public int getNumOutputs() {
         return NO;
     }
+
+    /**
+     * Whether the hidden layer uses tanh (false: sigmoid)
+     */
+    public boolean isTanhHidden() {
+        return useTanhHidden;
+    }
+
+    /**
+     * Whether the output layer is linear (false: sigmoid)
+     */
+    public boolean isLinearOutput() {
+        return useLinearOutput;
+    }
 }
@@ -0,0 +1,383 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MLPBenchmarks: Throughput benchmarks for the MLP and Training hot paths
+ * - forward, backwards and updateWeights for the Test1/Test2/Test3 network
+ *   shapes plus wider hidden layers, in double and float precision
+ * - one full Training epoch on a letter-sized dataset at several batch sizes
+ *   and both precisions
+ * - single-threaded and all-core inference throughput
+ * - exact vs table-interpolated (FastActivations) sigmoid and tanh, alone
+ *   and in the double forward pass
+ * - generic MLPInference vs ModelCompiler's shape-specialised classes
+ *
+ * Usage: java MLPBenchmarks [-o results.json] [-f regex] [-wi 3] [-i 5] [-t seconds]
+ *                           [-forks 1] [-baseline previous.json] [-threshold 0.10]
+ * Every benchmark runs in its own forked JVM (-forks 0 runs them all in
+ * this one). With -baseline, exits with status 1 if any benchmark slowed
+ * down by more than the threshold fraction.
+ */
+public class MLPBenchmarks {
+    // Network shapes: inputs, hidden, outputs, tanh hidden, linear output
+    static final int[][] SHAPES = {
+        {2, 4, 1, 0, 0},      // Test1 (XOR)
+        {4, 5, 1, 1, 1},      // Test2 (sin)
+        {16, 30, 26, 1, 0},   // Test3 (letters)
+        {16, 128, 26, 1, 0},  // Wider hidden layers
+        {16, 512, 26, 1, 0},
+    };
+    static final int[] EPOCH_BATCH_SIZES = {1, 20, 100, 1000};
+    static final int EXAMPLES = 1024;  // Examples per benchmark iteration
+
+    public static void main(String[] args) throws Exception {
+        String output = "benchmark_results.json";
+        String baseline = null;
+        double threshold = 0.10;
+        BenchmarkRunner runner = new BenchmarkRunner();
+        for (int a = 0; a < args.length; a++) {
+            switch (args[a]) {
+                case "-o": output = args[++a]; break;
+                case "-f": runner.setFilter(args[++a]); break;
+                case "-wi": runner.setWarmupIterations(Integer.parseInt(args[++a])); break;
+                case "-i": runner.setMeasurementIterations(Integer.parseInt(args[++a])); break;
+                case "-t": runner.setIterationSeconds(Double.parseDouble(args[++a])); break;
+                case "-forks": runner.setForks(Integer.parseInt(args[++a])); break;
+                case "-baseline": baseline = args[++a]; break;
+                case "-threshold": threshold = Double.parseDouble(args[++a]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[a]);
+            }
+        }
+
+        System.out.println("===========================================");
+        System.out.println("MLP Benchmarks");
+        System.out.println("===========================================");
+        System.out.println("Kernels: " + Kernels.INSTANCE.name() + "\n");
+
+        List<BenchmarkRunner.Result> results = runner.run(MLPBenchmarks.class);
+        BenchmarkRunner.writeJson(results, output);
+        System.out.println("\nResults written to " + output);
+
+        if (baseline != null) {
+            Map<String, Double> before = BenchmarkRunner.readScores(baseline);
+            int regressions = BenchmarkRunner.compare(results, before, threshold);
+            System.out.println(regressions == 0 ? "No regressions against " + baseline
+                    : regressions + " regression(s) against " + baseline);
+            if (regressions > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * All benchmarks in the suite, in run order
+     */
+    static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        for (Precision precision : Precision.values()) {
+            for (int[] shape : SHAPES) {
+                benchmarks.add(forward(shape, precision));
+            }
+            for (int[] shape : SHAPES) {
+                benchmarks.add(backwards(shape, precision));
+            }
+            for (int[] shape : SHAPES) {
+                benchmarks.add(updateWeights(shape, precision));
+            }
+            for (int batchSize : EPOCH_BATCH_SIZES) {
+                benchmarks.add(trainingEpoch(batchSize, precision));
+            }
+        }
+        for (int[] shape : SHAPES) {
+            benchmarks.add(inference(shape, 1));
+        }
+        for (boolean fast : new boolean[] {false, true}) {
+            benchmarks.add(activation("sigmoid", fast));
+            benchmarks.add(activation("tanh", fast));
+        }
+        for (int[] shape : SHAPES) {
+            benchmarks.add(forwardFastActivations(shape));
+        }
+        for (int[] shape : SHAPES) {
+            benchmarks.add(compiledInference(shape));
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (cores > 1) {
+            benchmarks.add(inference(SHAPES[2], cores));
+        }
+
+        // Double-precision paths depend on the kernel backend, so keep it in the result id
+        for (Benchmark benchmark : benchmarks) {
+            if (!"float".equals(benchmark.getParams().get("precision"))) {
+                benchmark.param("kernels", Kernels.INSTANCE.name());
+            }
+        }
+        return benchmarks;
+    }
+
+    static String shapeName(int[] shape) {
+        return shape[0] + "x" + shape[1] + "x" + shape[2];
+    }
+
+    static MLP network(int[] shape) {
+        return new MLP(shape[0], shape[1], shape[2], shape[3] == 1, shape[4] == 1);
+    }
+
+    static Network network(int[] shape, Precision precision) {
+        return precision.create(shape[0], shape[1], shape[2], shape[3] == 1, shape[4] == 1);
+    }
+
+    /**
+     * Random inputs in [0, 1] and one-hot (or random for one output) targets
+     */
+    static double[][] randomInputs(int count, int size) {
+        double[][] inputs = new double[count][size];
+        for (double[] input : inputs) {
+            for (int i = 0; i < size; i++) {
+                input[i] = Math.random();
+            }
+        }
+        return inputs;
+    }
+
+    static double[][] randomTargets(int count, int size) {
+        double[][] targets = new double[count][size];
+        for (double[] target : targets) {
+            if (size == 1) {
+                target[0] = Math.random();
+            } else {
+                target[(int) (Math.random() * size)] = 1.0;
+            }
+        }
+        return targets;
+    }
+
+    static Benchmark forward(final int[] shape, final Precision precision) {
+        return new Benchmark("MLPBenchmarks.forward") {
+            Network network;
+            double[][] inputs;
+
+            @Override
+            protected void setup() {
+                network = network(shape, precision);
+                inputs = randomInputs(EXAMPLES, shape[0]);
+            }
+
+            @Override
+            protected long iteration() {
+                double sum = 0;
+                for (double[] input : inputs) {
+                    sum += network.forward(input)[0];
+                }
+                consume(sum);
+                return inputs.length;
+            }
+        }.param("shape", shapeName(shape)).param("precision", precision.name().toLowerCase());
+    }
+
+    static Benchmark backwards(final int[] shape, final Precision precision) {
+        return new Benchmark("MLPBenchmarks.backwards") {
+            Network network;
+            double[][] inputs;
+            double[][] targets;
+
+            @Override
+            protected void setup() {
+                network = network(shape, precision);
+                inputs = randomInputs(EXAMPLES, shape[0]);
+                targets = randomTargets(EXAMPLES, shape[2]);
+                network.forward(inputs[0]);  // backwards reads the stored outputs
+            }
+
+            @Override
+            protected long iteration() {
+                double sum = 0;
+                for (int p = 0; p < inputs.length; p++) {
+                    sum += network.backwards(inputs[p], targets[p]);
+                }
+                network.updateWeights(0.0);  // Clear accumulated gradients
+                consume(sum);
+                return inputs.length;
+            }
+        }.param("shape", shapeName(shape)).param("precision", precision.name().toLowerCase());
+    }
+
+    static Benchmark updateWeights(final int[] shape, final Precision precision) {
+        return new Benchmark("MLPBenchmarks.updateWeights") {
+            Network network;
+
+            @Override
+            protected void setup() {
+                network = network(shape, precision);
+            }
+
+            @Override
+            protected long iteration() {
+                for (int u = 0; u < EXAMPLES; u++) {
+                    network.updateWeights(1e-9);
+                }
+                consume(network.forward(new double[shape[0]])[0]);
+                return EXAMPLES;
+            }
+        }.param("shape", shapeName(shape)).param("precision", precision.name().toLowerCase());
+    }
+
+    /**
+     * One epoch of Training.train on a letter-sized dataset; score is examples/sec
+     */
+    static Benchmark trainingEpoch(final int batchSize, final Precision precision) {
+        return new Benchmark("MLPBenchmarks.trainingEpoch") {
+            Training trainer;
+            double[][] inputs;
+            double[][] targets;
+            File log;
+
+            @Override
+            protected void setup() throws Exception {
+                inputs = randomInputs(16000, 16);
+                targets = randomTargets(16000, 26);
+                log = File.createTempFile("benchmark_log", ".txt");
+                trainer = new Training(network(SHAPES[2], precision), 1, batchSize, 0.01);
+                trainer.setLogFileName(log.getPath());
+            }
+
+            @Override
+            protected long iteration() {
+                consume(trainer.train(inputs, targets, false));
+                return inputs.length;
+            }
+
+            @Override
+            protected void tearDown() {
+                log.delete();
+            }
+
+            @Override
+            protected String unit() {
+                return "examples/s";
+            }
+        }.param("shape", shapeName(SHAPES[2])).param("batchSize", batchSize)
+                .param("precision", precision.name().toLowerCase());
+    }
+
+    /**
+     * Activation function throughput over arguments spread across [-8, 8]
+     */
+    static Benchmark activation(final String function, final boolean fast) {
+        return new Benchmark("MLPBenchmarks.activation") {
+            double[] values;
+
+            @Override
+            protected void setup() {
+                values = new double[EXAMPLES];
+                for (int v = 0; v < values.length; v++) {
+                    values[v] = (Math.random() - 0.5) * 16.0;
+                }
+            }
+
+            @Override
+            protected long iteration() {
+                double sum = 0;
+                if (function.equals("tanh")) {
+                    for (double x : values) {
+                        sum += fast ? FastActivations.tanh(x) : Math.tanh(x);
+                    }
+                } else {
+                    for (double x : values) {
+                        sum += fast ? FastActivations.sigmoid(x) : MLP.sigmoid(x);
+                    }
+                }
+                consume(sum);
+                return values.length;
+            }
+        }.param("function", function).param("activations", fast ? "fast" : "exact");
+    }
+
+    /**
+     * Double-precision forward pass with FastActivations enabled
+     */
+    static Benchmark forwardFastActivations(final int[] shape) {
+        return new Benchmark("MLPBenchmarks.forward") {
+            MLP network;
+            double[][] inputs;
+
+            @Override
+            protected void setup() {
+                network = network(shape);
+                network.setFastActivations(true);
+                inputs = randomInputs(EXAMPLES, shape[0]);
+            }
+
+            @Override
+            protected long iteration() {
+                double sum = 0;
+                for (double[] input : inputs) {
+                    sum += network.forward(input)[0];
+                }
+                consume(sum);
+                return inputs.length;
+            }
+        }.param("shape", shapeName(shape)).param("precision", "double").param("activations", "fast");
+    }
+
+    /**
+     * MLPInference.predict throughput summed over the given number of threads
+     */
+    static Benchmark inference(final int[] shape, final int threads) {
+        return new Benchmark("MLPBenchmarks.inference") {
+            InferenceModel model;
+            double[][] inputs;
+
+            @Override
+            protected void setup() {
+                model = network(shape).inference();
+                inputs = randomInputs(EXAMPLES, shape[0]);
+            }
+
+            @Override
+            protected long iteration() throws InterruptedException {
+                if (threads == 1) {
+                    InferenceContext context = model.newContext();
+                    double sum = 0;
+                    for (double[] input : inputs) {
+                        sum += model.predict(input, context)[0];
+                    }
+                    consume(sum);
+                    return inputs.length;
+                }
+                // Multi-threaded: measure for a short window and convert back to operations
+                double seconds = 0.2;
+                return (long) (InferenceBenchmark.run(model, inputs, threads, seconds) * seconds);
+            }
+        }.param("shape", shapeName(shape)).param("threads", threads);
+    }
+
+    /**
+     * Single-threaded predict throughput of a network compiled by ModelCompiler
+     */
+    static Benchmark compiledInference(final int[] shape) {
+        return new Benchmark("MLPBenchmarks.inference") {
+            InferenceModel model;
+            double[][] inputs;
+
+            @Override
+            protected void setup() {
+                model = ModelCompiler.compile(network(shape));
+                inputs = randomInputs(EXAMPLES, shape[0]);
+            }
+
+            @Override
+            protected long iteration() {
+                InferenceContext context = model.newContext();
+                double sum = 0;
+                for (double[] input : inputs) {
+                    sum += model.predict(input, context)[0];
+                }
+                consume(sum);
+                return inputs.length;
+            }
+        }.param("shape", shapeName(shape)).param("threads", 1).param("model", "compiled");
+    }
+}
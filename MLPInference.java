@@ -0,0 +1,145 @@
+/**
+ * Inference view over the weights of an MLP.
+ * Shares the weight arrays with the network it was created from and only ever
+ * reads them; every intermediate value goes into the caller's InferenceContext.
+ */
+public class MLPInference implements InferenceModel {
+    private final int NI;  // Number of inputs
+    private final int NH;  // Number of hidden units
+    private final int NO;  // Number of outputs
+
+    private final double[] W1;  // Input to hidden weights (NH x NI+1, row-major)
+    private final double[] W2;  // Hidden to output weights (NO x NH+1, row-major)
+
+    private final boolean useTanhHidden;
+    private final boolean useLinearOutput;
+    private final boolean fastActivations;  // FastActivations instead of Math.exp/Math.tanh
+
+    // Context for callers that do not manage their own
+    private final ThreadLocal<InferenceContext> localContext = new ThreadLocal<InferenceContext>() {
+        @Override
+        protected InferenceContext initialValue() {
+            return newContext();
+        }
+    };
+
+    MLPInference(int numInputs, int numHidden, int numOutputs, double[] W1, double[] W2,
+                 boolean useTanhHidden, boolean useLinearOutput, boolean fastActivations) {
+        this.NI = numInputs;
+        this.NH = numHidden;
+        this.NO = numOutputs;
+        this.W1 = W1;
+        this.W2 = W2;
+        this.useTanhHidden = useTanhHidden;
+        this.useLinearOutput = useLinearOutput;
+        this.fastActivations = fastActivations;
+    }
+
+    @Override
+    public int getNumInputs() {
+        return NI;
+    }
+
+    @Override
+    public int getNumOutputs() {
+        return NO;
+    }
+
+    @Override
+    public InferenceContext newContext() {
+        return new InferenceContext(NH, NO);
+    }
+
+    @Override
+    public double[] predict(double[] input, InferenceContext context) {
+        double[] hidden = context.hidden;
+        double[] output = context.output;
+
+        // Hidden layer
+        for (int j = 0; j < NH; j++) {
+            int row = j * (NI + 1);
+            hidden[j] = MLP.dot(W1[row + NI], W1, row, input, 0, NI);
+        }
+        activateHidden(hidden, NH);
+
+        // Output layer
+        for (int k = 0; k < NO; k++) {
+            int row = k * (NH + 1);
+            output[k] = MLP.dot(W2[row + NH], W2, row, hidden, 0, NH);
+        }
+        activateOutput(output, NO);
+
+        return output;
+    }
+
+    /**
+     * Batched forward pass through the blocked matrix kernels of MLP
+     */
+    @Override
+    public double[] predictBatch(double[][] inputs, int start, int count, InferenceContext context) {
+        context.ensureBatchCapacity(count, NI);
+        double[] XB = context.batchInput;
+        double[] HB = context.batchHidden;
+        double[] OB = context.batchOutput;
+
+        for (int b = 0; b < count; b++) {
+            System.arraycopy(inputs[start + b], 0, XB, b * NI, NI);
+        }
+
+        // Hidden layer: HB = act(XB * W1^T + bias)
+        MLP.multiplyTransposed(XB, count, NI, W1, NH, HB);
+        activateHidden(HB, count * NH);
+
+        // Output layer: OB = act(HB * W2^T + bias)
+        MLP.multiplyTransposed(HB, count, NH, W2, NO, OB);
+        activateOutput(OB, count * NO);
+        return OB;
+    }
+
+    /**
+     * Apply the hidden activation in place to values[0..n)
+     */
+    private void activateHidden(double[] values, int n) {
+        if (!useTanhHidden) {
+            activateSigmoid(values, n);
+        } else if (fastActivations) {
+            for (int v = 0; v < n; v++) {
+                values[v] = FastActivations.tanh(values[v]);
+            }
+        } else {
+            for (int v = 0; v < n; v++) {
+                values[v] = Math.tanh(values[v]);
+            }
+        }
+    }
+
+    /**
+     * Apply the output activation in place to values[0..n)
+     */
+    private void activateOutput(double[] values, int n) {
+        if (!useLinearOutput) {
+            activateSigmoid(values, n);
+        }
+    }
+
+    private void activateSigmoid(double[] values, int n) {
+        if (fastActivations) {
+            for (int v = 0; v < n; v++) {
+                values[v] = FastActivations.sigmoid(values[v]);
+            }
+        } else {
+            for (int v = 0; v < n; v++) {
+                values[v] = MLP.sigmoid(values[v]);
+            }
+        }
+    }
+
+    /**
+     * Compute the output using a context owned by the calling thread
+     * @param input Input vector
+     * @return Output vector, valid until the next prediction on this thread
+     */
+    public double[] predict(double[] input) {
+        return predict(input, localContext.get());
+    }
+}
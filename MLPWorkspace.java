@@ -0,0 +1,65 @@
+import java.util.Arrays;
+
+/**
+ * Scratch buffers and gradient accumulators for one mini-batch pass of an MLP.
+ * Each training thread owns one workspace; the network's weights are only read
+ * while a workspace is being filled, so workspaces never need locking.
+ * Batch buffers are row-major with one row per example and grow on demand.
+ */
+public class MLPWorkspace {
+    final int NI;  // Number of inputs
+    final int NH;  // Number of hidden units
+    final int NO;  // Number of outputs
+
+    int capacity;      // Number of examples the batch buffers can hold
+    double[] XB;       // Inputs of the current batch (batch x NI)
+    double[] HB;       // Hidden outputs (batch x NH)
+    double[] OB;       // Outputs (batch x NO)
+    double[] deltaHB;  // Hidden deltas (batch x NH)
+    double[] deltaOB;  // Output deltas (batch x NO)
+
+    // Accumulated weight changes, same layout as the network's W1/W2
+    final double[] dW1;
+    final double[] dW2;
+
+    MLPWorkspace(int numInputs, int numHidden, int numOutputs, double[] dW1, double[] dW2) {
+        this.NI = numInputs;
+        this.NH = numHidden;
+        this.NO = numOutputs;
+        this.dW1 = dW1;
+        this.dW2 = dW2;
+    }
+
+    /**
+     * Grow the batch buffers so they hold at least count examples
+     */
+    void ensureCapacity(int count) {
+        if (count <= capacity) return;
+        capacity = count;
+        XB = new double[count * NI];
+        HB = new double[count * NH];
+        OB = new double[count * NO];
+        deltaHB = new double[count * NH];
+        deltaOB = new double[count * NO];
+    }
+
+    /**
+     * Add the gradients of another workspace to this one
+     */
+    void add(MLPWorkspace other) {
+        for (int w = 0; w < dW1.length; w++) {
+            dW1[w] += other.dW1[w];
+        }
+        for (int w = 0; w < dW2.length; w++) {
+            dW2[w] += other.dW2[w];
+        }
+    }
+
+    /**
+     * Reset the accumulated gradients to zero
+     */
+    void clearGradients() {
+        Arrays.fill(dW1, 0.0);
+        Arrays.fill(dW2, 0.0);
+    }
+}
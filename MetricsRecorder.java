@@ -0,0 +1,203 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands per-epoch metrics from the training thread to a background thread.
+ * The training thread writes each epoch into a preallocated single-producer,
+ * single-consumer ring of primitive arrays and publishes it with an ordered
+ * store: record never allocates, locks or waits. The metrics thread polls the
+ * ring and passes every epoch to the sinks, so all formatting and I/O happen
+ * off the training thread. If the ring is full the epoch is dropped and
+ * counted rather than making the trainer wait; a ring at least as large as
+ * the number of epochs never drops.
+ */
+public class MetricsRecorder implements AutoCloseable {
+    static final int MAX_CAPACITY = 1 << 16;
+    private static final long IDLE_PARK_NANOS = 200_000L;
+    private static final long FLUSH_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final List<MetricsSink> sinks;
+    private final int mask;
+    private final int[] epochs;
+    private final double[] errors;
+    private final long[] examples;
+    private final long[] epochNanos;
+    private final long[] forwardNanos;
+    private final long[] backwardNanos;
+    private final long[] updateNanos;
+
+    private final AtomicLong published = new AtomicLong();  // Records written by the trainer
+    private final AtomicLong consumed = new AtomicLong();   // Records taken by the metrics thread
+    private long next;      // Producer-only copy of published
+    private long dropped;   // Producer-only count of records lost to a full ring
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private final Thread drainer;
+
+    /**
+     * Constructor for MetricsRecorder; starts the metrics thread
+     * @param sinks Destinations of every epoch (flushed, but not closed, by close())
+     * @param epochs Expected number of epochs, used to size the ring (capped at MAX_CAPACITY)
+     */
+    public MetricsRecorder(List<MetricsSink> sinks, int epochs) {
+        this.sinks = new ArrayList<>(sinks);
+        int capacity = Integer.highestOneBit(Math.max(1, Math.min(epochs, MAX_CAPACITY)) * 2 - 1);
+        this.mask = capacity - 1;
+        this.epochs = new int[capacity];
+        this.errors = new double[capacity];
+        this.examples = new long[capacity];
+        this.epochNanos = new long[capacity];
+        this.forwardNanos = new long[capacity];
+        this.backwardNanos = new long[capacity];
+        this.updateNanos = new long[capacity];
+
+        drainer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, "metrics-recorder");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Queue one epoch for the sinks; never blocks or allocates
+     * @return false if the ring was full and the epoch was dropped
+     */
+    public boolean record(int epoch, double error, long numExamples, long epochTime,
+                          long forwardTime, long backwardTime, long updateTime) {
+        if (next - consumed.get() > mask) {
+            dropped++;
+            return false;
+        }
+        int slot = (int) next & mask;
+        epochs[slot] = epoch;
+        errors[slot] = error;
+        examples[slot] = numExamples;
+        epochNanos[slot] = epochTime;
+        forwardNanos[slot] = forwardTime;
+        backwardNanos[slot] = backwardTime;
+        updateNanos[slot] = updateTime;
+        published.lazySet(++next);
+        return true;
+    }
+
+    private void drain() {
+        EpochMetrics metrics = new EpochMetrics();
+        long taken = 0;
+        long lastFlush = System.nanoTime();
+        boolean unflushed = false;
+        while (true) {
+            boolean finished = closed;  // Read before published: everything is in once closed is seen
+            long available = published.get();
+            for (; taken < available; taken++) {
+                int slot = (int) taken & mask;
+                metrics.epoch = epochs[slot];
+                metrics.error = errors[slot];
+                metrics.examples = examples[slot];
+                metrics.epochNanos = epochNanos[slot];
+                metrics.forwardNanos = forwardNanos[slot];
+                metrics.backwardNanos = backwardNanos[slot];
+                metrics.updateNanos = updateNanos[slot];
+                consumed.lazySet(taken + 1);
+                for (int s = 0; s < sinks.size(); s++) {
+                    write(s, metrics);
+                }
+                unflushed = true;
+            }
+            if (finished) {
+                break;
+            }
+            if (unflushed && System.nanoTime() - lastFlush > FLUSH_INTERVAL_NANOS) {
+                flushSinks();
+                lastFlush = System.nanoTime();
+                unflushed = false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        flushSinks();
+    }
+
+    private void write(int s, EpochMetrics metrics) {
+        try {
+            sinks.get(s).write(metrics);
+        } catch (IOException e) {
+            fail(s, e);
+        }
+    }
+
+    private void flushSinks() {
+        for (int s = 0; s < sinks.size(); s++) {
+            try {
+                sinks.get(s).flush();
+            } catch (IOException e) {
+                fail(s, e);
+            }
+        }
+    }
+
+    /**
+     * Remember the first failure and stop using the failed sink
+     */
+    private void fail(int s, IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+        sinks.set(s, NullSink.INSTANCE);
+    }
+
+    /**
+     * Get the number of epochs dropped because the ring was full
+     * (only meaningful on the training thread or after close)
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Wait for the metrics thread to write every recorded epoch and flush the sinks
+     * @throws IOException if a sink failed at any point
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(drainer);
+        boolean interrupted = false;
+        while (drainer.isAlive()) {
+            try {
+                drainer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Replaces a sink after it fails
+     */
+    private static final class NullSink implements MetricsSink {
+        static final NullSink INSTANCE = new NullSink();
+
+        @Override
+        public void write(EpochMetrics metrics) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
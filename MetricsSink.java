@@ -0,0 +1,23 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination for per-epoch training metrics.
+ * Sinks are called from the metrics thread of a MetricsRecorder, never from
+ * the training thread, so they may block on I/O.
+ */
+public interface MetricsSink extends Closeable {
+
+    /**
+     * Record one epoch
+     * @param metrics The epoch's measurements (reused after the call returns)
+     * @throws IOException if the record cannot be written
+     */
+    void write(EpochMetrics metrics) throws IOException;
+
+    /**
+     * Push buffered records to their destination
+     * @throws IOException if the records cannot be written
+     */
+    void flush() throws IOException;
+}
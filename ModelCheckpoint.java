@@ -0,0 +1,344 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Compact binary checkpoint of a trained network, memory-mapped to load
+ * Weights are stored in the network's own precision (8 bytes per weight for
+ * MLP, 4 for FloatMLP), so loading is one mmap call plus a copy of the
+ * weights; nothing is parsed.
+ *
+ * File layout (little-endian, version 2):
+ * - Header: magic "MLPC", version, bytes per weight (8 or 4), numLayers,
+ *   epoch, reserved (10 ints)
+ * - Layer table: numLayers + 1 sizes (inputs, then the units of each layer)
+ *   and numLayers Activation ordinals, padded to 8 bytes
+ * - Weights of each layer in turn: units x inputs+1, row-major, bias last
+ *
+ * Version 1 files (two layers, numInputs/numHidden/numOutputs and a flags
+ * word in the header, 1 = tanh hidden, 2 = linear output) are still read.
+ *
+ * Files are written to a temporary name and renamed into place, so a reader
+ * never sees a partly written checkpoint.
+ *
+ * Usage: java ModelCheckpoint <model.ckpt> [letter-recognition.csv]
+ */
+public class ModelCheckpoint {
+    static final int MAGIC = 0x43504C4D;  // "MLPC" read as a little-endian int
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 40;
+    static final int TANH_HIDDEN = 1;    // Version 1 flags
+    static final int LINEAR_OUTPUT = 2;
+
+    private final MappedByteBuffer buffer;
+    private final int weightBytes;
+    private final int[] sizes;               // Input width followed by the width of every layer
+    private final Activation[] activations;  // Activation of each layer
+    private final int weightOffset;          // Start of the first layer's weights
+    private final int epoch;
+
+    private ModelCheckpoint(MappedByteBuffer buffer, String filename) throws IOException {
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException(filename + " is not a model checkpoint");
+        }
+        int version = buffer.getInt(4);
+        weightBytes = buffer.getInt(8);
+        if (version == 1) {
+            int flags = buffer.getInt(24);
+            sizes = new int[] {buffer.getInt(12), buffer.getInt(16), buffer.getInt(20)};
+            activations = new Activation[] {
+                (flags & TANH_HIDDEN) != 0 ? Activation.TANH : Activation.SIGMOID,
+                (flags & LINEAR_OUTPUT) != 0 ? Activation.LINEAR : Activation.SIGMOID};
+            epoch = buffer.getInt(28);
+            weightOffset = HEADER_BYTES;
+        } else if (version == VERSION) {
+            int numLayers = buffer.getInt(12);
+            epoch = buffer.getInt(16);
+            if (numLayers < 1 || buffer.capacity() < tableEnd(numLayers)) {
+                throw new IOException(filename + " has a bad layer table");
+            }
+            sizes = new int[numLayers + 1];
+            for (int l = 0; l <= numLayers; l++) {
+                sizes[l] = buffer.getInt(HEADER_BYTES + 4 * l);
+            }
+            activations = new Activation[numLayers];
+            Activation[] all = Activation.values();
+            for (int l = 0; l < numLayers; l++) {
+                int ordinal = buffer.getInt(HEADER_BYTES + 4 * (numLayers + 1 + l));
+                if (ordinal < 0 || ordinal >= all.length) {
+                    throw new IOException(filename + " has unknown activation " + ordinal);
+                }
+                activations[l] = all[ordinal];
+            }
+            weightOffset = tableEnd(numLayers);
+        } else {
+            throw new IOException(filename + " has unsupported version " + version);
+        }
+        if (weightBytes != 8 && weightBytes != 4) {
+            throw new IOException(filename + " has unsupported weight size " + weightBytes);
+        }
+        if (buffer.capacity() < weightOffset + (long) weightBytes * numWeights(sizes)) {
+            throw new IOException(filename + " is truncated");
+        }
+    }
+
+    /**
+     * End of a version 2 layer table, padded to 8 bytes
+     */
+    private static int tableEnd(int numLayers) {
+        return (HEADER_BYTES + 4 * (2 * numLayers + 1) + 7) & ~7;
+    }
+
+    private static long numWeights(int[] sizes) {
+        long count = 0;
+        for (int l = 0; l + 1 < sizes.length; l++) {
+            count += (long) sizes[l + 1] * (sizes[l] + 1);
+        }
+        return count;
+    }
+
+    /**
+     * Memory-map a checkpoint file
+     * @param filename Path to a file written by write or save
+     * @return The mapped checkpoint; the mapping stays valid after the file is closed
+     * @throws IOException if the file cannot be read or is not a checkpoint
+     */
+    public static ModelCheckpoint open(String filename) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filename, "r");
+             FileChannel channel = file.getChannel()) {
+            return new ModelCheckpoint(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), filename);
+        }
+    }
+
+    /**
+     * Write a network's current weights (on the calling thread)
+     * @param filename Output path
+     * @param network Trained network
+     * @param epoch Epoch to record in the header
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(String filename, Network network, int epoch) throws IOException {
+        WeightSnapshot snapshot = new WeightSnapshot(network);
+        snapshot.capture(network, epoch);
+        write(filename, snapshot, Precision.of(network));
+    }
+
+    /**
+     * Write a weight snapshot
+     * @param filename Output path (replaced atomically)
+     * @param snapshot Weights to save
+     * @param precision Precision to store the weights in
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(String filename, WeightSnapshot snapshot, Precision precision) throws IOException {
+        int weightBytes = precision == Precision.FLOAT ? 4 : 8;
+        int numLayers = snapshot.getNumLayers();
+        int weightOffset = tableEnd(numLayers);
+        ByteBuffer out = ByteBuffer.allocate(Math.toIntExact(weightOffset + weightBytes * numWeights(snapshot.sizes)))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putInt(weightBytes).putInt(numLayers).putInt(snapshot.epoch);
+        out.position(HEADER_BYTES);
+        for (int size : snapshot.sizes) {
+            out.putInt(size);
+        }
+        for (Activation activation : snapshot.activations) {
+            out.putInt(activation.ordinal());
+        }
+        out.position(weightOffset);
+        for (double[] weights : snapshot.weights) {
+            putWeights(out, weights, weightBytes);
+        }
+        out.flip();
+
+        Path target = Paths.get(filename).toAbsolutePath();
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (RandomAccessFile file = new RandomAccessFile(temporary.toFile(), "rw");
+             FileChannel channel = file.getChannel()) {
+            channel.truncate(0);
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void putWeights(ByteBuffer out, double[] weights, int weightBytes) {
+        for (double w : weights) {
+            if (weightBytes == 4) {
+                out.putFloat((float) w);
+            } else {
+                out.putDouble(w);
+            }
+        }
+    }
+
+    /**
+     * Copy the stored weights into a snapshot of the same shape
+     */
+    public void copyTo(WeightSnapshot snapshot) {
+        int offset = weightOffset;
+        for (double[] weights : snapshot.weights) {
+            offset = getWeights(weights, offset);
+        }
+        snapshot.epoch = epoch;
+    }
+
+    private int getWeights(double[] weights, int offset) {
+        for (int w = 0; w < weights.length; w++, offset += weightBytes) {
+            weights[w] = weightBytes == 4 ? buffer.getFloat(offset) : buffer.getDouble(offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Read the weights into a snapshot
+     */
+    public WeightSnapshot toSnapshot() {
+        WeightSnapshot snapshot = new WeightSnapshot(sizes.clone(), activations.clone());
+        copyTo(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Build a trainable network with the stored weights: an MLP or FloatMLP
+     * in the stored precision for MLP-shaped checkpoints, otherwise a
+     * LayeredNetwork
+     */
+    public Network toNetwork() {
+        WeightSnapshot snapshot = toSnapshot();
+        Network network;
+        if (snapshot.isMLP()) {
+            network = getPrecision().create(sizes[0], sizes[1], sizes[2], isTanhHidden(), isLinearOutput());
+            if (network instanceof MLP && activations[0] != Activation.SIGMOID && activations[0] != Activation.TANH) {
+                ((MLP) network).setFastActivations(true);
+            }
+        } else {
+            network = new LayeredNetwork(sizes, activations);
+        }
+        snapshot.restore(network);
+        return network;
+    }
+
+    /**
+     * Build a thread-safe inference model over a copy of the stored weights
+     */
+    public InferenceModel inference() {
+        return toSnapshot().inference();
+    }
+
+    /**
+     * Get the precision the weights are stored in
+     */
+    public Precision getPrecision() {
+        return weightBytes == 4 ? Precision.FLOAT : Precision.DOUBLE;
+    }
+
+    /**
+     * Get number of inputs
+     */
+    public int getNumInputs() {
+        return sizes[0];
+    }
+
+    /**
+     * Get number of units in the first hidden layer (0 without hidden layers)
+     */
+    public int getNumHidden() {
+        return sizes.length > 2 ? sizes[1] : 0;
+    }
+
+    /**
+     * Get number of outputs
+     */
+    public int getNumOutputs() {
+        return sizes[sizes.length - 1];
+    }
+
+    /**
+     * Get number of layers (hidden layers plus the output layer)
+     */
+    public int getNumLayers() {
+        return activations.length;
+    }
+
+    /**
+     * Get number of units in a layer
+     */
+    public int getLayerSize(int layer) {
+        return sizes[layer + 1];
+    }
+
+    /**
+     * Get the activation of a layer
+     */
+    public Activation getActivation(int layer) {
+        return activations[layer];
+    }
+
+    /**
+     * Whether the first hidden layer uses tanh (exact or fast)
+     */
+    public boolean isTanhHidden() {
+        return sizes.length > 2 && (activations[0] == Activation.TANH || activations[0] == Activation.FAST_TANH);
+    }
+
+    /**
+     * Whether the output layer is linear
+     */
+    public boolean isLinearOutput() {
+        return activations[activations.length - 1] == Activation.LINEAR;
+    }
+
+    /**
+     * Get the epoch the weights were saved after
+     */
+    public int getEpoch() {
+        return epoch;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java ModelCheckpoint <model.ckpt> [letter-recognition.csv]");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        ModelCheckpoint checkpoint = open(args[0]);
+        InferenceModel model = checkpoint.inference();
+        double ms = (System.nanoTime() - start) / 1e6;
+
+        StringBuilder shape = new StringBuilder().append(checkpoint.getNumInputs());
+        StringBuilder layers = new StringBuilder();
+        for (int l = 0; l < checkpoint.getNumLayers(); l++) {
+            shape.append('x').append(checkpoint.getLayerSize(l));
+            layers.append(l > 0 ? ", " : "").append(checkpoint.getActivation(l).name().toLowerCase());
+        }
+        System.out.printf("Loaded %s %s network (%s) from epoch %d in %.2f ms%n", shape,
+                checkpoint.getPrecision().name().toLowerCase(), layers, checkpoint.getEpoch(), ms);
+
+        if (args.length > 1) {
+            LetterData data = LetterData.load(args[1]);
+            InferenceContext context = model.newContext();
+            int correct = 0;
+            for (int p = 0; p < data.size(); p++) {
+                double[] output = model.predict(data.inputs[p], context);
+                int predicted = 0;
+                for (int k = 1; k < output.length; k++) {
+                    if (output[k] > output[predicted]) predicted = k;
+                }
+                if ('A' + predicted == data.letters[p]) correct++;
+            }
+            System.out.printf("Accuracy on %s: %d/%d (%.2f%%)%n", args[1], correct, data.size(),
+                    100.0 * correct / data.size());
+        }
+    }
+}
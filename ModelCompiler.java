@@ -0,0 +1,370 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a trained MLP into a shape-specialised class.
+ * MLP.forward loops over NI, NH and NO, which are fields, so for the tiny
+ * Test1/Test2 networks the loop control costs as much as the arithmetic.
+ * The compiler writes a class file with one static method per unit:
+ * the bias and every weight are constants, the loop is fully
+ * unrolled, and the activation is a direct call. forward calls the unit
+ * methods in order. The class is defined as a hidden class
+ * (Lookup.defineHiddenClass), so it is unloaded with the model and never
+ * clashes with another compiled network.
+ *
+ * The generated code has no branches, so it needs no stack map frames.
+ * Each unit sums bias + w0*x0 + w1*x1 + ... left to right like
+ * ScalarKernels, so outputs match MLP.inference() on the scalar backend
+ * exactly. Zero weights are emitted too: dropping them would turn the
+ * NaN of 0 * Infinity into a finite sum. The weights are copied at
+ * compile time; later training does not affect the compiled model.
+ */
+public final class ModelCompiler {
+    private static final String CLASS_NAME = "CompiledMLP";  // Same (unnamed) package as this lookup
+    private static final String SUPER_NAME = "CompiledInference";
+    private static final int MAX_CODE_LENGTH = 65535;        // JVM limit per method
+
+    // Access flags
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_PROTECTED = 0x0004;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    // Opcodes
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int LDC2_W = 0x14;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int DALOAD = 0x31;
+    private static final int DASTORE = 0x52;
+    private static final int DADD = 0x63;
+    private static final int DMUL = 0x6b;
+    private static final int DRETURN = 0xaf;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+
+    private ModelCompiler() {
+    }
+
+    /**
+     * Generate and load a class that computes this network's current outputs
+     * @param network Trained network
+     * @return Inference model with the weights compiled in
+     * @throws IllegalArgumentException If a unit has too many weights for one method
+     */
+    public static CompiledInference compile(MLP network) {
+        byte[] bytes = generate(network);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            return (CompiledInference) lookup.findConstructor(lookup.lookupClass(),
+                    MethodType.methodType(void.class)).invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to load compiled model", e);
+        }
+    }
+
+    /**
+     * Class file bytes for a network (CLASS_NAME extends CompiledInference)
+     */
+    static byte[] generate(MLP network) {
+        int NI = network.getNumInputs();
+        int NH = network.getNumHidden();
+        int NO = network.getNumOutputs();
+        double[] W1 = new double[NH * (NI + 1)];
+        double[] W2 = new double[NO * (NH + 1)];
+        network.copyWeights(W1, W2);
+        boolean fast = network.hasFastActivations();
+
+        ConstantPool pool = new ConstantPool();
+        List<Method> methods = new ArrayList<>();
+
+        // Constructor: super(NI, NH, NO)
+        Code init = new Code();
+        init.op(ALOAD_0);
+        init.pushInt(pool, NI);
+        init.pushInt(pool, NH);
+        init.pushInt(pool, NO);
+        init.op(INVOKESPECIAL).u2(pool.methodRef(SUPER_NAME, "<init>", "(III)V"));
+        init.op(RETURN);
+        methods.add(new Method(ACC_PUBLIC, "<init>", "()V", 4, 1, init));
+
+        // One static method per unit: activation(bias + sum of w * x)
+        String hiddenOwner = network.isTanhHidden() ? (fast ? "FastActivations" : "java/lang/Math")
+                : (fast ? "FastActivations" : "MLP");
+        String hiddenName = network.isTanhHidden() ? "tanh" : "sigmoid";
+        for (int j = 0; j < NH; j++) {
+            methods.add(unit(pool, "h" + j, W1, j * (NI + 1), NI, hiddenOwner, hiddenName));
+        }
+        String outputOwner = network.isLinearOutput() ? null : (fast ? "FastActivations" : "MLP");
+        for (int k = 0; k < NO; k++) {
+            methods.add(unit(pool, "o" + k, W2, k * (NH + 1), NH, outputOwner, "sigmoid"));
+        }
+
+        // forward(input, hidden, output): hidden[j] = hj(input), then output[k] = ok(hidden)
+        Code forward = new Code();
+        for (int j = 0; j < NH; j++) {
+            forward.op(ALOAD_0 + 2);
+            forward.pushInt(pool, j);
+            forward.op(ALOAD_0 + 1);
+            forward.op(INVOKESTATIC).u2(pool.methodRef(CLASS_NAME, "h" + j, "([D)D"));
+            forward.op(DASTORE);
+        }
+        for (int k = 0; k < NO; k++) {
+            forward.op(ALOAD_0 + 3);
+            forward.pushInt(pool, k);
+            forward.op(ALOAD_0 + 2);
+            forward.op(INVOKESTATIC).u2(pool.methodRef(CLASS_NAME, "o" + k, "([D)D"));
+            forward.op(DASTORE);
+        }
+        forward.op(RETURN);
+        methods.add(new Method(ACC_PROTECTED, "forward", "([D[D[D)V", 4, 4, forward));
+
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef(SUPER_NAME);
+        int codeName = pool.utf8("Code");
+        for (Method method : methods) {
+            method.resolve(pool);
+        }
+        if (pool.count > 0xffff) {
+            throw new IllegalArgumentException("Network too large to compile: " + pool.count + " constants");
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xcafebabe);
+            out.writeShort(0);   // Minor version
+            out.writeShort(61);  // Java 17
+            out.writeShort(pool.count);
+            pool.bytes.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);  // Interfaces
+            out.writeShort(0);  // Fields
+            out.writeShort(methods.size());
+            for (Method method : methods) {
+                method.write(out, codeName);
+            }
+            out.writeShort(0);  // Class attributes
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);  // In-memory stream
+        }
+    }
+
+    /**
+     * static double name(double[] x): activation(W[row + n] + W[row] * x[0] + ...)
+     * @param owner Class of the activation method (internal name), or null for linear
+     */
+    private static Method unit(ConstantPool pool, String name, double[] W, int row, int n,
+                               String owner, String activation) {
+        Code code = new Code();
+        code.op(LDC2_W).u2(pool.doubleConst(W[row + n]));
+        for (int i = 0; i < n; i++) {
+            code.op(ALOAD_0);
+            code.pushInt(pool, i);
+            code.op(DALOAD);
+            code.op(LDC2_W).u2(pool.doubleConst(W[row + i]));
+            code.op(DMUL);
+            code.op(DADD);
+        }
+        if (owner != null) {
+            code.op(INVOKESTATIC).u2(pool.methodRef(owner, activation, "(D)D"));
+        }
+        code.op(DRETURN);
+        if (code.length() > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("Unit " + name + " has too many weights to compile (" + n + ")");
+        }
+        return new Method(ACC_PRIVATE | ACC_STATIC, name, "([D)D", 6, 1, code);
+    }
+
+    /**
+     * Class file constant pool, deduplicating entries as they are added
+     */
+    private static final class ConstantPool {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        int count = 1;  // Entry 0 is unused
+
+        int utf8(String value) {
+            Integer index = entries.get("U" + value);
+            if (index != null) return index;
+            try {
+                out.writeByte(1);
+                out.writeUTF(value);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return add("U" + value, 1);
+        }
+
+        int classRef(String name) {
+            Integer index = entries.get("C" + name);
+            if (index != null) return index;
+            int nameIndex = utf8(name);
+            write(7, nameIndex);
+            return add("C" + name, 1);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            String key = "M" + owner + "." + name + descriptor;
+            Integer index = entries.get(key);
+            if (index != null) return index;
+            int classIndex = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+            write(10, classIndex, nameAndType);
+            return add(key, 1);
+        }
+
+        int nameAndType(String name, String descriptor) {
+            String key = "N" + name + ":" + descriptor;
+            Integer index = entries.get(key);
+            if (index != null) return index;
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            write(12, nameIndex, descriptorIndex);
+            return add(key, 1);
+        }
+
+        int intConst(int value) {
+            String key = "I" + value;
+            Integer index = entries.get(key);
+            if (index != null) return index;
+            try {
+                out.writeByte(3);
+                out.writeInt(value);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return add(key, 1);
+        }
+
+        int doubleConst(double value) {
+            String key = "D" + Double.doubleToRawLongBits(value);
+            Integer index = entries.get(key);
+            if (index != null) return index;
+            try {
+                out.writeByte(6);
+                out.writeDouble(value);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return add(key, 2);  // Doubles take two entries
+        }
+
+        private void write(int tag, int... indices) {
+            try {
+                out.writeByte(tag);
+                for (int index : indices) {
+                    out.writeShort(index);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private int add(String key, int slots) {
+            int index = count;
+            entries.put(key, index);
+            count += slots;
+            return index;
+        }
+    }
+
+    /**
+     * Bytecode of one method body
+     */
+    private static final class Code {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        void pushInt(ConstantPool pool, int value) {
+            if (value >= 0 && value <= 5) {
+                op(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                op(BIPUSH).bytes.write(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                op(SIPUSH).u2(value);
+            } else {
+                op(LDC_W).u2(pool.intConst(value));
+            }
+        }
+
+        int length() {
+            return bytes.size();
+        }
+    }
+
+    /**
+     * One method with a Code attribute (no exception table, no stack map frames)
+     */
+    private static final class Method {
+        final int access;
+        final String name;
+        final String descriptor;
+        final int maxStack;
+        final int maxLocals;
+        final Code code;
+        int nameIndex;
+        int descriptorIndex;
+
+        Method(int access, String name, String descriptor, int maxStack, int maxLocals, Code code) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+            this.code = code;
+        }
+
+        void resolve(ConstantPool pool) {
+            nameIndex = pool.utf8(name);
+            descriptorIndex = pool.utf8(descriptor);
+        }
+
+        void write(DataOutputStream out, int codeName) throws IOException {
+            if (code.length() > MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("Method " + name + " too large to compile");
+            }
+            out.writeShort(access);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            out.writeShort(1);  // Attributes: Code
+            out.writeShort(codeName);
+            out.writeInt(2 + 2 + 4 + code.length() + 2 + 2);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length());
+            code.bytes.writeTo(out);
+            out.writeShort(0);  // Exception table
+            out.writeShort(0);  // Code attributes
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hot-swappable inference model for serving while training goes on.
+ * Training updates the weights in place, so an inference view over the live
+ * weights can read a half-updated network. Instead, the training side
+ * copies the weights into a fresh WeightSnapshot and publishes it through
+ * an AtomicReference: the live weights and the published copy are the two
+ * buffers, and a snapshot is never written once published. Readers do one
+ * volatile read per call and never lock or wait; a reader that is still
+ * inside an older version keeps a consistent view of it until it returns,
+ * after which the garbage collector reclaims it.
+ *
+ * Pass the publisher to Training.setPublisher to publish every N epochs,
+ * and serve it like any other InferenceModel (e.g. with InferenceServer).
+ */
+public class ModelPublisher implements InferenceModel {
+    private final AtomicReference<ModelVersion> current = new AtomicReference<>();
+    private final int[] shape;  // Layer sizes every published network must have
+    private final int NI;
+    private final int NO;
+
+    /**
+     * Constructor for ModelPublisher; publishes the network's current weights as version 1
+     * @param network Network whose weights are served first
+     */
+    public ModelPublisher(Network network) {
+        this.shape = WeightSnapshot.shapeOf(network);
+        this.NI = network.getNumInputs();
+        this.NO = network.getNumOutputs();
+        publish(network, -1);
+    }
+
+    /**
+     * Copy the network's weights and make them the served version.
+     * Called from the training thread between epochs; readers switch over
+     * on their next call.
+     * @param network Network of the same shape as the first one
+     * @param epoch Epoch the weights belong to
+     * @return The new version
+     */
+    public synchronized ModelVersion publish(Network network, int epoch) {
+        int[] sizes = WeightSnapshot.shapeOf(network);
+        if (!Arrays.equals(sizes, shape)) {
+            throw new IllegalArgumentException("Cannot publish a " + describe(sizes) + " network in place of "
+                    + describe(shape));
+        }
+        WeightSnapshot snapshot = new WeightSnapshot(network);
+        snapshot.capture(network, epoch);
+        ModelVersion previous = current.get();
+        ModelVersion version = new ModelVersion(previous != null ? previous.getVersion() + 1 : 1, snapshot);
+        current.set(version);
+        return version;
+    }
+
+    /**
+     * Layer sizes joined with 'x', e.g. "16x30x26"
+     */
+    private static String describe(int[] sizes) {
+        StringBuilder sb = new StringBuilder().append(sizes[0]);
+        for (int l = 1; l < sizes.length; l++) {
+            sb.append('x').append(sizes[l]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Get the version being served; hold on to it to run several predictions on the same weights
+     */
+    public ModelVersion current() {
+        return current.get();
+    }
+
+    /**
+     * Version number being served (for monitoring)
+     */
+    public long getVersion() {
+        return current.get().getVersion();
+    }
+
+    @Override
+    public int getNumInputs() {
+        return NI;
+    }
+
+    @Override
+    public int getNumOutputs() {
+        return NO;
+    }
+
+    @Override
+    public InferenceContext newContext() {
+        return current.get().getModel().newContext();
+    }
+
+    @Override
+    public double[] predict(double[] input, InferenceContext context) {
+        return current.get().getModel().predict(input, context);
+    }
+
+    /**
+     * Batched prediction; the whole batch uses one version
+     */
+    @Override
+    public double[] predictBatch(double[][] inputs, int start, int count, InferenceContext context) {
+        return current.get().getModel().predictBatch(inputs, start, count, context);
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * One published set of weights: an immutable WeightSnapshot with the
+ * version number it was published under and the training epoch it came from.
+ */
+public class ModelVersion {
+    private final long version;
+    private final WeightSnapshot snapshot;  // Never written after publication
+    private final InferenceModel model;     // Inference view over snapshot
+    private final long publishedNanos;      // System.nanoTime() at publication
+
+    ModelVersion(long version, WeightSnapshot snapshot) {
+        this.version = version;
+        this.snapshot = snapshot;
+        this.model = snapshot.inference();
+        this.publishedNanos = System.nanoTime();
+    }
+
+    /**
+     * Version number (1 for the first publication, +1 for each one after)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Epoch the weights were captured after (-1 for weights published outside training)
+     */
+    public int getEpoch() {
+        return snapshot.getEpoch();
+    }
+
+    /**
+     * Inference model over this version's weights; stays valid after newer versions are published
+     */
+    public InferenceModel getModel() {
+        return model;
+    }
+
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+}
@@ -0,0 +1,121 @@
+import java.util.Arrays;
+
+/**
+ * Heavy-ball momentum, optionally with Nesterov look-ahead.
+ * Keeps one velocity per weight:
+ *   v = momentum * v + g
+ *   w += learningRate * v                     (classical)
+ *   w += learningRate * (momentum * v + g)    (Nesterov)
+ * With momentum 0 both reduce to plain W += learningRate * dW.
+ */
+public class MomentumOptimiser implements Optimiser {
+    private final double momentum;
+    private final boolean nesterov;
+    private double[] velocity = new double[0];  // One entry per weight, grown on first use
+
+    /**
+     * Constructor for MomentumOptimiser
+     * @param momentum Velocity decay per step, in [0, 1)
+     * @param nesterov true for the Nesterov variant
+     */
+    public MomentumOptimiser(double momentum, boolean nesterov) {
+        if (!(momentum >= 0.0 && momentum < 1.0)) {
+            throw new IllegalArgumentException("momentum must be in [0, 1), got " + momentum);
+        }
+        this.momentum = momentum;
+        this.nesterov = nesterov;
+    }
+
+    /**
+     * Classical momentum
+     */
+    public static MomentumOptimiser momentum(double momentum) {
+        return new MomentumOptimiser(momentum, false);
+    }
+
+    /**
+     * Nesterov momentum
+     */
+    public static MomentumOptimiser nesterov(double momentum) {
+        return new MomentumOptimiser(momentum, true);
+    }
+
+    @Override
+    public void beginStep() {
+    }
+
+    @Override
+    public void update(double[] w, double[] g, int offset, int n, double learningRate) {
+        double[] v = ensureState(offset + n);
+        double mu = momentum;
+        if (nesterov) {
+            for (int i = 0; i < n; i++) {
+                double gi = g[i];
+                double vi = mu * v[offset + i] + gi;
+                v[offset + i] = vi;
+                w[i] += learningRate * (mu * vi + gi);
+                g[i] = 0.0;
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                double vi = mu * v[offset + i] + g[i];
+                v[offset + i] = vi;
+                w[i] += learningRate * vi;
+                g[i] = 0.0;
+            }
+        }
+    }
+
+    @Override
+    public void update(float[] w, float[] g, int offset, int n, double learningRate) {
+        double[] v = ensureState(offset + n);
+        double mu = momentum;
+        if (nesterov) {
+            for (int i = 0; i < n; i++) {
+                double gi = g[i];
+                double vi = mu * v[offset + i] + gi;
+                v[offset + i] = vi;
+                w[i] += (float) (learningRate * (mu * vi + gi));
+                g[i] = 0f;
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                double vi = mu * v[offset + i] + g[i];
+                v[offset + i] = vi;
+                w[i] += (float) (learningRate * vi);
+                g[i] = 0f;
+            }
+        }
+    }
+
+    private double[] ensureState(int size) {
+        if (velocity.length < size) {
+            velocity = Arrays.copyOf(velocity, size);
+        }
+        return velocity;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(velocity, 0.0);
+    }
+
+    /**
+     * Get the momentum coefficient
+     */
+    public double getMomentum() {
+        return momentum;
+    }
+
+    /**
+     * Whether the Nesterov variant is used
+     */
+    public boolean isNesterov() {
+        return nesterov;
+    }
+
+    @Override
+    public String toString() {
+        return (nesterov ? "nesterov(" : "momentum(") + momentum + ")";
+    }
+}
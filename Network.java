@@ -0,0 +1,114 @@
+/**
+ * Training contract shared by the network implementations.
+ * Training only drives a network through these methods, so any precision or
+ * storage layout can be trained with the same loop.
+ */
+public interface Network {
+
+    /**
+     * Forward pass - compute output for given input
+     * @param I Input vector
+     * @return Output vector
+     */
+    double[] forward(double[] I);
+
+    /**
+     * Backward pass - accumulate weight changes for the last forward pass
+     * @param I Input vector (needed for computing gradients)
+     * @param t Target vector
+     * @return Error on this example (sum of squared errors / 2)
+     */
+    double backwards(double[] I, double[] t);
+
+    /**
+     * Batched forward pass over inputs[start..start+count)
+     * @return Flat row-major outputs (count x NO)
+     */
+    double[] forwardBatch(double[][] inputs, int start, int count);
+
+    /**
+     * Batched backward pass over targets[start..start+count); must follow
+     * forwardBatch over the same examples
+     * @return Total error over the batch (sum of squared errors / 2)
+     */
+    double backwardsBatch(double[][] targets, int start, int count);
+
+    /**
+     * Update weights using accumulated gradients and reset them
+     * @param learningRate Learning rate for gradient descent
+     */
+    void updateWeights(double learningRate);
+
+    /**
+     * Update weights with an optimiser (momentum, Adam, ...) and reset the
+     * accumulated gradients
+     * @param optimiser Update rule holding this network's per-weight state
+     * @param learningRate Learning rate passed to the optimiser
+     */
+    void updateWeights(Optimiser optimiser, double learningRate);
+
+    /**
+     * Initialize weights to small random values and reset weight changes to zero
+     */
+    void randomise();
+
+    /**
+     * Get the output of the last forward pass
+     */
+    double[] getOutput();
+
+    /**
+     * Get number of inputs
+     */
+    int getNumInputs();
+
+    /**
+     * Get number of hidden units
+     */
+    int getNumHidden();
+
+    /**
+     * Get number of outputs
+     */
+    int getNumOutputs();
+
+    /**
+     * Whether the hidden layer uses tanh (false: sigmoid)
+     */
+    boolean isTanhHidden();
+
+    /**
+     * Whether the output layer is linear (false: sigmoid)
+     */
+    boolean isLinearOutput();
+
+    /**
+     * Get number of weight layers (hidden layers plus the output layer)
+     */
+    int getNumLayers();
+
+    /**
+     * Get number of units in a layer (the last layer is the output layer)
+     */
+    int getLayerSize(int layer);
+
+    /**
+     * Get the activation of a layer
+     */
+    Activation getActivation(int layer);
+
+    /**
+     * Copy one layer's weights into a caller-owned array, widened to double
+     * @param layer Layer index (0 to getNumLayers() - 1)
+     * @param w Destination (units x inputs+1, row-major, bias last)
+     */
+    void copyLayerWeights(int layer, double[] w);
+
+    /**
+     * Overwrite one layer's weights (same layout as copyLayerWeights) and
+     * reset its weight changes
+     * @param layer Layer index (0 to getNumLayers() - 1)
+     * @param w New weight values
+     */
+    void setLayerWeights(int layer, double[] w);
+}
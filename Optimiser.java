@@ -0,0 +1,40 @@
+/**
+ * Weight update rule applied by Network.updateWeights(Optimiser, learningRate).
+ * The network passes each of its weight arrays in turn, together with the
+ * gradient array of the same layout and the position of its first weight in
+ * the optimiser's state, so one optimiser holds the state of every weight of
+ * one network in a single contiguous array. Gradients follow the Network
+ * convention: they already point downhill (W += learningRate * dW is plain
+ * gradient descent). Each update call is one pass that reads the gradients,
+ * updates the state and the weights, and zeroes the gradients.
+ *
+ * An optimiser is stateful: use one instance per network, and call reset
+ * after re-initialising the weights.
+ */
+public interface Optimiser {
+
+    /**
+     * Start a weight update; called once per updateWeights, before the arrays
+     */
+    void beginStep();
+
+    /**
+     * Update w[0..n) from g[0..n) and set g[0..n) to zero
+     * @param w Weights
+     * @param g Accumulated weight changes, same layout as w
+     * @param offset Index of w[0] in this optimiser's state
+     * @param n Number of weights
+     * @param learningRate Learning rate (step size)
+     */
+    void update(double[] w, double[] g, int offset, int n, double learningRate);
+
+    /**
+     * Single-precision variant of update; the state stays in double
+     */
+    void update(float[] w, float[] g, int offset, int n, double learningRate);
+
+    /**
+     * Forget all per-weight state and the step count
+     */
+    void reset();
+}
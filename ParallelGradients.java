@@ -0,0 +1,115 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Data-parallel gradient computation for one MLP.
+ * Each mini-batch is cut into one contiguous slice per worker; every slice is
+ * computed into its own MLPWorkspace on a ForkJoin pool and the workspaces are
+ * then summed pairwise in a fixed binary tree. Slice boundaries and the
+ * reduction order depend only on the batch size and the thread count, so
+ * training is bit-for-bit reproducible for a fixed thread count.
+ */
+public class ParallelGradients implements AutoCloseable {
+    private final MLP network;
+    private final int numThreads;
+    private final ForkJoinPool pool;
+    private final MLPWorkspace[] workspaces;  // One per slice
+    private final double[] sliceErrors;       // Error of each slice in the current batch
+
+    /**
+     * Constructor for ParallelGradients
+     * @param network The MLP whose gradients are computed
+     * @param numThreads Number of worker threads (and slices per batch)
+     */
+    public ParallelGradients(MLP network, int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be at least 1, got " + numThreads);
+        }
+        this.network = network;
+        this.numThreads = numThreads;
+        this.pool = new ForkJoinPool(numThreads);
+        this.workspaces = new MLPWorkspace[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            workspaces[t] = network.newWorkspace();
+        }
+        this.sliceErrors = new double[numThreads];
+    }
+
+    /**
+     * Compute the gradients of inputs[start..start+count) in parallel and add
+     * them to the network's weight changes (the caller then updates weights)
+     * @return Total error over the batch (sum of squared errors / 2)
+     */
+    public double accumulate(double[][] inputs, double[][] targets, int start, int count) {
+        int slices = Math.min(numThreads, count);
+        pool.invoke(new SliceTask(inputs, targets, start, count, slices, 0, slices));
+        network.addGradients(workspaces[0]);
+
+        // Sum slice errors in slice order so the total is deterministic too
+        double error = 0.0;
+        for (int s = 0; s < slices; s++) {
+            error += sliceErrors[s];
+        }
+        return error;
+    }
+
+    /**
+     * Get number of worker threads
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Shut down the worker pool
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Computes slices [lo, hi) of a batch, then folds the upper half into the
+     * lower half so that workspaces[lo] ends up holding their sum
+     */
+    private class SliceTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[][] inputs;
+        private final double[][] targets;
+        private final int start;
+        private final int count;
+        private final int slices;
+        private final int lo;
+        private final int hi;
+
+        SliceTask(double[][] inputs, double[][] targets, int start, int count, int slices, int lo, int hi) {
+            this.inputs = inputs;
+            this.targets = targets;
+            this.start = start;
+            this.count = count;
+            this.slices = slices;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                int from = start + (int) ((long) count * lo / slices);
+                int to = start + (int) ((long) count * (lo + 1) / slices);
+                MLPWorkspace workspace = workspaces[lo];
+                workspace.clearGradients();
+                sliceErrors[lo] = network.accumulateBatch(workspace, inputs, targets, from, to - from);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            SliceTask left = new SliceTask(inputs, targets, start, count, slices, lo, mid);
+            SliceTask right = new SliceTask(inputs, targets, start, count, slices, mid, hi);
+            left.fork();
+            right.compute();
+            left.join();
+            workspaces[lo].add(workspaces[mid]);
+        }
+    }
+}
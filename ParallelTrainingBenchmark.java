@@ -0,0 +1,80 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ParallelTrainingBenchmark: Data-parallel training scaling
+ * Trains a Test3-sized network (16 inputs, 30 hidden, 26 outputs, batch size
+ * 100) on a letter-recognition sized dataset with 1, 2, 4, ... worker threads
+ * and reports examples per second, speedup and scaling efficiency.
+ *
+ * Usage: java ParallelTrainingBenchmark [maxThreads] [epochs] [numExamples]
+ */
+public class ParallelTrainingBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int epochs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int numExamples = args.length > 2 ? Integer.parseInt(args[2]) : 16000;
+
+        System.out.println("===========================================");
+        System.out.println("Data-Parallel Training Benchmark");
+        System.out.println("===========================================\n");
+
+        // Synthetic data with the shape of the letter training split:
+        // 16 features in [0, 1] and a one-hot target over 26 classes
+        double[][] inputs = new double[numExamples][16];
+        double[][] targets = new double[numExamples][26];
+        for (int p = 0; p < numExamples; p++) {
+            for (int i = 0; i < 16; i++) {
+                inputs[p][i] = Math.floor(Math.random() * 16) / 15.0;
+            }
+            targets[p][(int) (Math.random() * 26)] = 1.0;
+        }
+
+        File log = File.createTempFile("parallel_benchmark", ".txt");
+        log.deleteOnExit();
+
+        // Warm up the JIT on the serial and parallel paths
+        time(inputs, targets, 1, 2, log);
+        time(inputs, targets, Math.min(2, maxThreads), 2, log);
+
+        System.out.println("Examples: " + numExamples + ", epochs per run: " + epochs + ", batch size: 100\n");
+        System.out.printf("%-8s %16s %10s %12s%n", "Threads", "Examples/sec", "Speedup", "Efficiency");
+        double baseline = 0;
+        for (int threads : threadCounts(maxThreads)) {
+            double seconds = time(inputs, targets, threads, epochs, log);
+            double rate = (double) numExamples * epochs / seconds;
+            if (threads == 1) baseline = rate;
+            double speedup = rate / baseline;
+            System.out.printf("%-8d %16.0f %9.2fx %11.1f%%%n", threads, rate, speedup, 100.0 * speedup / threads);
+        }
+    }
+
+    /**
+     * Thread counts to benchmark: 1, 2, 4, ... below maxThreads, then maxThreads itself
+     */
+    static List<Integer> threadCounts(int maxThreads) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(Math.max(1, maxThreads));
+        return counts;
+    }
+
+    /**
+     * Train a fresh network for the given number of epochs
+     * @return Wall-clock training time in seconds
+     */
+    static double time(double[][] inputs, double[][] targets, int threads, int epochs, File log) {
+        MLP network = new MLP(16, 30, 26, true, false);
+        Training trainer = new Training(network, epochs, 100, 0.01);
+        trainer.setNumThreads(threads);
+        trainer.setLogFileName(log.getPath());
+        long start = System.nanoTime();
+        trainer.train(inputs, targets, false);
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Numeric precision of a network's weights, activations and gradients.
+ * DOUBLE is the reference MLP; FLOAT halves memory traffic and is accurate
+ * enough for the network sizes used here.
+ */
+public enum Precision {
+    DOUBLE,
+    FLOAT;
+
+    /**
+     * Create a network with this precision
+     * @param numInputs Number of input neurons
+     * @param numHidden Number of hidden neurons
+     * @param numOutputs Number of output neurons
+     * @param useTanhHidden true for tanh hidden activation, false for sigmoid
+     * @param useLinearOutput true for linear output, false for sigmoid
+     */
+    public Network create(int numInputs, int numHidden, int numOutputs, boolean useTanhHidden, boolean useLinearOutput) {
+        if (this == FLOAT) {
+            return new FloatMLP(numInputs, numHidden, numOutputs, useTanhHidden, useLinearOutput);
+        }
+        return new MLP(numInputs, numHidden, numOutputs, useTanhHidden, useLinearOutput);
+    }
+
+    /**
+     * Get the precision of an existing network
+     */
+    public static Precision of(Network network) {
+        return network instanceof FloatMLP ? FLOAT : DOUBLE;
+    }
+
+    /**
+     * Parse a precision name such as "float" or "double" (case-insensitive)
+     */
+    public static Precision parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+
+    /**
+     * Read the precision from the first command-line argument, defaulting to DOUBLE
+     */
+    public static Precision fromArgs(String[] args) {
+        return args.length > 0 ? parse(args[0]) : DOUBLE;
+    }
+}
@@ -0,0 +1,78 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * PrecisionComparison: Double vs float networks on letter recognition
+ * Trains the Test3 network (16x30x26, tanh hidden, sigmoid output, batch size
+ * 100) in each precision on the same 80/20 split and reports training
+ * throughput and final test accuracy.
+ *
+ * Usage: java PrecisionComparison [epochs]
+ */
+public class PrecisionComparison {
+
+    public static void main(String[] args) throws IOException {
+        int epochs = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        System.out.println("===========================================");
+        System.out.println("Precision Comparison: Letter Recognition");
+        System.out.println("===========================================\n");
+
+        LetterData data = LetterData.load("letter-recognition.csv");
+
+        // Shuffle once so both precisions see the same split
+        int total = data.size();
+        int[] order = new int[total];
+        for (int i = 0; i < total; i++) order[i] = i;
+        Random random = new Random(42);
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        int trainSize = (int) (total * 0.8);
+        int testSize = total - trainSize;
+        double[][] trainInputs = new double[trainSize][];
+        double[][] trainTargets = new double[trainSize][];
+        double[][] testInputs = new double[testSize][];
+        char[] testLetters = new char[testSize];
+        for (int i = 0; i < trainSize; i++) {
+            trainInputs[i] = data.inputs[order[i]];
+            trainTargets[i] = data.targets[order[i]];
+        }
+        for (int i = 0; i < testSize; i++) {
+            testInputs[i] = data.inputs[order[trainSize + i]];
+            testLetters[i] = data.letters[order[trainSize + i]];
+        }
+
+        File log = File.createTempFile("precision_comparison", ".txt");
+        log.deleteOnExit();
+
+        System.out.println("Epochs: " + epochs + ", training examples: " + trainSize + ", test examples: " + testSize + "\n");
+        System.out.printf("%-10s %12s %16s %14s %14s%n", "Precision", "Time (s)", "Examples/sec", "Train error", "Test accuracy");
+        for (Precision precision : Precision.values()) {
+            Network network = precision.create(16, 30, 26, true, false);
+            Training trainer = new Training(network, epochs, 100, 0.01);
+            trainer.setLogFileName(log.getPath());
+
+            long start = System.nanoTime();
+            double trainError = trainer.train(trainInputs, trainTargets, false);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            int correct = 0;
+            for (int p = 0; p < testSize; p++) {
+                double[] output = network.forward(testInputs[p]);
+                int predicted = 0;
+                for (int k = 1; k < 26; k++) {
+                    if (output[k] > output[predicted]) predicted = k;
+                }
+                if ('A' + predicted == testLetters[p]) correct++;
+            }
+
+            System.out.printf("%-10s %12.2f %16.0f %14.2f %13.2f%%%n", precision.name().toLowerCase(), seconds,
+                    (double) trainSize * epochs / seconds, trainError, 100.0 * correct / testSize);
+        }
+    }
+}
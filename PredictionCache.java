@@ -0,0 +1,265 @@
+import java.util.Arrays;
+
+/**
+ * Bounded map from packed input keys to model outputs.
+ * Keys are primitive longs in an open-addressing index (linear probing,
+ * backward-shift deletion, no tombstones); the index holds entry numbers,
+ * and each entry's key and outputs live in flat arrays allocated once, so
+ * neither lookups nor insertions allocate or box. When all entries are in
+ * use, the EvictionPolicy picks one to reuse. All methods are synchronized;
+ * callers run the model outside the lock and only copy outputs under it.
+ */
+public class PredictionCache {
+    private static final int EMPTY = -1;
+
+    private final int capacity;     // Largest number of entries
+    private final int numOutputs;
+    private final EvictionPolicy policy;
+
+    private final int[] index;      // Entry number per slot, or EMPTY (length: power of two >= 2 x capacity)
+    private final int mask;
+    private final long[] keys;      // Key of each entry
+    private final double[] values;  // Outputs of each entry (capacity x numOutputs, row-major)
+    private int size;
+
+    // LRU: doubly linked recency list over entry numbers, most recent at head
+    private final int[] prev;
+    private final int[] next;
+    private int head = EMPTY;
+    private int tail = EMPTY;
+
+    // CLOCK: reference bit per entry and the hand that sweeps them
+    private final boolean[] referenced;
+    private int hand;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor for PredictionCache
+     * @param capacity Largest number of cached predictions
+     * @param numOutputs Outputs per prediction
+     * @param policy Eviction policy once the cache is full
+     */
+    public PredictionCache(int capacity, int numOutputs, EvictionPolicy policy) {
+        if (capacity < 1 || capacity > (1 << 29)) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^29, got " + capacity);
+        }
+        this.capacity = capacity;
+        this.numOutputs = numOutputs;
+        this.policy = policy;
+        int slots = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.index = new int[slots];
+        this.mask = slots - 1;
+        Arrays.fill(index, EMPTY);
+        this.keys = new long[capacity];
+        this.values = new double[capacity * numOutputs];
+        boolean lru = policy == EvictionPolicy.LRU;
+        this.prev = lru ? new int[capacity] : null;
+        this.next = lru ? new int[capacity] : null;
+        this.referenced = lru ? null : new boolean[capacity];
+    }
+
+    /**
+     * Copy the cached outputs for a key into dst
+     * @param key Packed input
+     * @param dst Receives numOutputs values on a hit
+     * @return true on a hit, false (dst untouched) on a miss
+     */
+    public synchronized boolean get(long key, double[] dst) {
+        int entry = find(key);
+        if (entry == EMPTY) {
+            misses++;
+            return false;
+        }
+        hits++;
+        touch(entry);
+        System.arraycopy(values, entry * numOutputs, dst, 0, numOutputs);
+        return true;
+    }
+
+    /**
+     * Cache the outputs for a key, evicting an entry if the cache is full
+     * @param key Packed input
+     * @param outputs The model's outputs for it (first numOutputs values are copied)
+     */
+    public synchronized void put(long key, double[] outputs) {
+        int entry = find(key);
+        if (entry == EMPTY) {
+            if (size < capacity) {
+                entry = size++;
+            } else {
+                entry = victim();
+                remove(keys[entry]);
+                evictions++;
+            }
+            keys[entry] = key;
+            insert(key, entry);
+            if (policy == EvictionPolicy.LRU) {
+                pushFront(entry);
+            } else {
+                referenced[entry] = false;  // A new entry has to earn its second chance
+            }
+        } else {
+            touch(entry);
+        }
+        System.arraycopy(outputs, 0, values, entry * numOutputs, numOutputs);
+    }
+
+    /**
+     * Drop every entry (counters are kept)
+     */
+    public synchronized void clear() {
+        Arrays.fill(index, EMPTY);
+        size = 0;
+        head = EMPTY;
+        tail = EMPTY;
+        hand = 0;
+    }
+
+    /**
+     * Finalizer-style bit mixer (from MurmurHash3) so keys differing only in high bits spread out
+     */
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private int find(long key) {
+        for (int slot = hash(key) & mask; index[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[index[slot]] == key) {
+                return index[slot];
+            }
+        }
+        return EMPTY;
+    }
+
+    private void insert(long key, int entry) {
+        int slot = hash(key) & mask;
+        while (index[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = entry;
+    }
+
+    /**
+     * Remove a key from the index, shifting later members of its probe run back
+     */
+    private void remove(long key) {
+        int slot = hash(key) & mask;
+        while (keys[index[slot]] != key) {
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        for (int s = (hole + 1) & mask; index[s] != EMPTY; s = (s + 1) & mask) {
+            int home = hash(keys[index[s]]) & mask;
+            // Move the entry back unless its home lies cyclically in (hole, s]
+            if (((s - home) & mask) >= ((s - hole) & mask)) {
+                index[hole] = index[s];
+                hole = s;
+            }
+        }
+        index[hole] = EMPTY;
+    }
+
+    /**
+     * Record a hit on an entry
+     */
+    private void touch(int entry) {
+        if (policy == EvictionPolicy.LRU) {
+            if (entry != head) {
+                unlink(entry);
+                pushFront(entry);
+            }
+        } else {
+            referenced[entry] = true;
+        }
+    }
+
+    /**
+     * Pick the entry to reuse: the LRU tail, or the first unreferenced entry under the clock hand
+     */
+    private int victim() {
+        if (policy == EvictionPolicy.LRU) {
+            int entry = tail;
+            unlink(entry);
+            return entry;
+        }
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = (hand + 1) % capacity;
+        }
+        int entry = hand;
+        hand = (hand + 1) % capacity;
+        return entry;
+    }
+
+    private void pushFront(int entry) {
+        prev[entry] = EMPTY;
+        next[entry] = head;
+        if (head != EMPTY) {
+            prev[head] = entry;
+        }
+        head = entry;
+        if (tail == EMPTY) {
+            tail = entry;
+        }
+    }
+
+    private void unlink(int entry) {
+        if (prev[entry] != EMPTY) {
+            next[prev[entry]] = next[entry];
+        } else {
+            head = next[entry];
+        }
+        if (next[entry] != EMPTY) {
+            prev[next[entry]] = prev[entry];
+        } else {
+            tail = prev[entry];
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Fraction of lookups that were hits (0 before the first lookup)
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups > 0 ? (double) hits / lookups : 0.0;
+    }
+
+    /**
+     * Zero the hit, miss and eviction counters
+     */
+    public synchronized void resetCounters() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+}
@@ -0,0 +1,101 @@
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * QuantisationComparison: Double vs int8 inference on letter recognition
+ * Trains the Test3 network (16x30x26, tanh hidden, sigmoid output) on the
+ * 80/20 split, quantises it with MLP.quantise(), and reports test accuracy,
+ * model size and single-thread prediction throughput of both models.
+ *
+ * Usage: java QuantisationComparison [epochs] [passes]
+ */
+public class QuantisationComparison {
+
+    public static void main(String[] args) throws IOException {
+        int epochs = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        System.out.println("===========================================");
+        System.out.println("Quantisation Comparison: Letter Recognition");
+        System.out.println("===========================================\n");
+
+        LetterData data = LetterData.load("letter-recognition.csv");
+
+        int total = data.size();
+        int[] order = new int[total];
+        for (int i = 0; i < total; i++) order[i] = i;
+        Random random = new Random(42);
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        int trainSize = (int) (total * 0.8);
+        int testSize = total - trainSize;
+        double[][] trainInputs = new double[trainSize][];
+        double[][] trainTargets = new double[trainSize][];
+        double[][] testInputs = new double[testSize][];
+        double[][] testTargets = new double[testSize][];
+        for (int i = 0; i < trainSize; i++) {
+            trainInputs[i] = data.inputs[order[i]];
+            trainTargets[i] = data.targets[order[i]];
+        }
+        for (int i = 0; i < testSize; i++) {
+            testInputs[i] = data.inputs[order[trainSize + i]];
+            testTargets[i] = data.targets[order[trainSize + i]];
+        }
+
+        MLP network = new MLP(16, 30, 26, true, false);
+        Training trainer = new Training(network, epochs, 100, 0.005);
+        trainer.setLogFileName(null);
+        trainer.setOptimiser(new AdamOptimiser());
+        System.out.println("Training for " + epochs + " epochs (Adam, batch size 100)...");
+        trainer.train(trainInputs, trainTargets, false);
+
+        InferenceModel exact = network.inference();
+        QuantisedInference quantised = network.quantise();
+        System.out.println("Kernels: " + Kernels.INSTANCE.name() + ", " + passes + " passes over "
+                + testSize + " test examples\n");
+
+        System.out.printf("%-8s %14s %12s %16s%n", "Model", "Test accuracy", "Bytes", "Predictions/sec");
+        double exactAccuracy = report("double", exact, testInputs, testTargets, passes, quantised.getDoubleModelBytes());
+        double int8Accuracy = report("int8", quantised, testInputs, testTargets, passes, quantised.getModelBytes());
+
+        System.out.printf("%nAccuracy delta: %+.2f points, model %.1fx smaller%n",
+                100.0 * (int8Accuracy - exactAccuracy),
+                (double) quantised.getDoubleModelBytes() / quantised.getModelBytes());
+    }
+
+    /**
+     * Print one table row and return the test accuracy
+     */
+    private static double report(String name, InferenceModel model, double[][] inputs, double[][] targets,
+                                 int passes, long bytes) {
+        double accuracy;
+        try (Evaluator evaluator = new Evaluator(model, 1)) {
+            accuracy = evaluator.evaluate(inputs, targets, 1).getAccuracy();
+        }
+
+        // One thread, one prediction at a time: the serving path
+        InferenceContext context = model.newContext();
+        double checksum = 0.0;
+        for (int p = 0; p < inputs.length; p++) {  // Warm-up
+            checksum += model.predict(inputs[p], context)[0];
+        }
+        long start = System.nanoTime();
+        for (int pass = 0; pass < passes; pass++) {
+            for (int p = 0; p < inputs.length; p++) {
+                checksum += model.predict(inputs[p], context)[0];
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (Double.isNaN(checksum)) {
+            System.out.println("NaN output");
+        }
+
+        System.out.printf("%-8s %13.2f%% %12d %16.0f%n", name, 100.0 * accuracy, bytes,
+                (double) inputs.length * passes / seconds);
+        return accuracy;
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Int8 inference model quantised from a trained MLP.
+ * Each weight row (one unit) is stored as signed bytes with its own scale,
+ * max |w| / 127, so a unit with small weights keeps its full resolution; the
+ * bias stays a float. Inputs are quantised per example the same way. Hidden
+ * activations, which tanh and sigmoid bound by 1, use the fixed scale 1/127
+ * and come straight from a table of quantised activation values, so no
+ * hidden unit calls Math.tanh or Math.exp. Both layers run on the integer
+ * dot kernel and scale the exact integer sum back once per unit; the output
+ * sigmoid uses FastActivations, whose error is far below the quantisation
+ * error. The weights take an eighth of the memory of the double model.
+ */
+public class QuantisedInference implements InferenceModel {
+    static final int LEVELS = 127;  // Largest quantised magnitude (symmetric, -128 unused)
+
+    // Quantised hidden activations, tabulated on [-TABLE_RANGE, TABLE_RANGE] (both saturate beyond it)
+    private static final double TABLE_RANGE = 8.0;
+    private static final double TABLE_STEPS_PER_UNIT = 256.0;
+    private static final int TABLE_SIZE = (int) (2 * TABLE_RANGE * TABLE_STEPS_PER_UNIT) + 1;
+    private static final byte[] TANH_LEVELS = new byte[TABLE_SIZE];
+    private static final byte[] SIGMOID_LEVELS = new byte[TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            double x = i / TABLE_STEPS_PER_UNIT - TABLE_RANGE;
+            TANH_LEVELS[i] = (byte) Math.round(Math.tanh(x) * LEVELS);
+            SIGMOID_LEVELS[i] = (byte) Math.round(MLP.sigmoid(x) * LEVELS);
+        }
+    }
+
+    private final int NI;  // Number of inputs
+    private final int NH;  // Number of hidden units
+    private final int NO;  // Number of outputs
+
+    private final byte[] Q1;       // Input to hidden weights (NH x NI, row-major, no bias)
+    private final float[] scale1;  // Per hidden unit: weight quantum (max |w| / LEVELS)
+    private final float[] bias1;
+    private final byte[] Q2;       // Hidden to output weights (NO x NH, row-major, no bias)
+    private final float[] scale2;  // Per output unit: weight quantum times the hidden quantum 1/LEVELS
+    private final float[] bias2;
+
+    private final byte[] hiddenLevels;  // TANH_LEVELS or SIGMOID_LEVELS
+    private final boolean useLinearOutput;
+
+    /**
+     * Quantise the weights of a trained network
+     * @param numInputs Number of inputs
+     * @param numHidden Number of hidden units
+     * @param numOutputs Number of outputs
+     * @param W1 Input to hidden weights (NH x NI+1, row-major, bias last)
+     * @param W2 Hidden to output weights (NO x NH+1, row-major, bias last)
+     */
+    QuantisedInference(int numInputs, int numHidden, int numOutputs, double[] W1, double[] W2,
+                       boolean useTanhHidden, boolean useLinearOutput) {
+        this.NI = numInputs;
+        this.NH = numHidden;
+        this.NO = numOutputs;
+        this.Q1 = new byte[NH * NI];
+        this.scale1 = new float[NH];
+        this.bias1 = new float[NH];
+        this.Q2 = new byte[NO * NH];
+        this.scale2 = new float[NO];
+        this.bias2 = new float[NO];
+        this.hiddenLevels = useTanhHidden ? TANH_LEVELS : SIGMOID_LEVELS;
+        this.useLinearOutput = useLinearOutput;
+
+        quantiseRows(W1, NH, NI, Q1, scale1, bias1, 1.0);
+        quantiseRows(W2, NO, NH, Q2, scale2, bias2, 1.0 / LEVELS);
+    }
+
+    /**
+     * Quantise each row of a weight matrix with its own scale
+     * @param inputQuantum Value of one step of the quantised vectors the rows are multiplied with,
+     *                     folded into the row scales (1 if it varies per example)
+     */
+    private static void quantiseRows(double[] W, int rows, int cols, byte[] Q, float[] scales, float[] biases,
+                                     double inputQuantum) {
+        for (int r = 0; r < rows; r++) {
+            int row = r * (cols + 1);
+            scales[r] = (float) (quantise(W, row, cols, Q, r * cols) * inputQuantum);
+            biases[r] = (float) W[row + cols];
+        }
+    }
+
+    /**
+     * Quantise values[off..off+n) to dst[dstOff..dstOff+n)
+     * @return Value of one quantised step (max |value| / LEVELS)
+     */
+    static double quantise(double[] values, int off, int n, byte[] dst, int dstOff) {
+        double max = 0.0;
+        for (int i = 0; i < n; i++) {
+            max = Math.max(max, Math.abs(values[off + i]));
+        }
+        if (max == 0.0) {
+            for (int i = 0; i < n; i++) dst[dstOff + i] = 0;
+            return 0.0;
+        }
+        double inverse = LEVELS / max;
+        for (int i = 0; i < n; i++) {
+            dst[dstOff + i] = (byte) Math.rint(values[off + i] * inverse);
+        }
+        return max / LEVELS;
+    }
+
+    @Override
+    public int getNumInputs() {
+        return NI;
+    }
+
+    @Override
+    public int getNumOutputs() {
+        return NO;
+    }
+
+    @Override
+    public InferenceContext newContext() {
+        return new Context(NI, NH, NO);
+    }
+
+    @Override
+    public double[] predict(double[] input, InferenceContext context) {
+        Context ctx = (Context) context;
+        byte[] qInput = ctx.quantisedInput;
+        byte[] qHidden = ctx.quantisedHidden;
+        double[] output = ctx.output;
+        Kernels kernels = Kernels.INSTANCE;
+
+        // Hidden layer: integer sums scaled back by (weight quantum) * (input quantum),
+        // then looked up as quantised activations
+        double inputQuantum = quantise(input, 0, NI, qInput, 0);
+        for (int j = 0; j < NH; j++) {
+            int sum = kernels.dot(Q1, j * NI, qInput, 0, NI);
+            double z = sum * (scale1[j] * inputQuantum) + bias1[j];
+            int t = (int) ((z + TABLE_RANGE) * TABLE_STEPS_PER_UNIT + 0.5);
+            qHidden[j] = hiddenLevels[t <= 0 ? 0 : Math.min(t, TABLE_SIZE - 1)];
+        }
+
+        // Output layer: the hidden quantum 1/LEVELS is already folded into scale2
+        for (int k = 0; k < NO; k++) {
+            int sum = kernels.dot(Q2, k * NH, qHidden, 0, NH);
+            output[k] = sum * scale2[k] + bias2[k];
+        }
+        if (!useLinearOutput) {
+            for (int k = 0; k < NO; k++) {
+                output[k] = FastActivations.sigmoid(output[k]);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Bytes taken by the quantised weights, scales and biases
+     */
+    public long getModelBytes() {
+        return Q1.length + Q2.length + (long) Float.BYTES * (NH + NO) * 2;
+    }
+
+    /**
+     * Bytes the same network takes as doubles (weights and biases)
+     */
+    public long getDoubleModelBytes() {
+        return (long) Double.BYTES * (NH * (NI + 1) + NO * (NH + 1));
+    }
+
+    /**
+     * Scratch space with the quantised input and hidden vectors
+     */
+    static final class Context extends InferenceContext {
+        final byte[] quantisedInput;
+        final byte[] quantisedHidden;
+
+        Context(int numInputs, int numHidden, int numOutputs) {
+            super(numHidden, numOutputs);
+            this.quantisedInput = new byte[numInputs];
+            this.quantisedHidden = new byte[numHidden];  // The double hidden buffer stays unused
+        }
+    }
+}
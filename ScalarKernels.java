@@ -0,0 +1,36 @@
+/**
+ * Plain loop kernels; the fallback when the Vector API is not available.
+ * Sums are accumulated strictly left to right.
+ */
+public class ScalarKernels extends Kernels {
+
+    @Override
+    public double dot(double init, double[] a, int aOff, double[] b, int bOff, int n) {
+        double sum = init;
+        for (int i = 0; i < n; i++) {
+            sum += a[aOff + i] * b[bOff + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n) {
+        for (int i = 0; i < n; i++) {
+            y[yOff + i] += alpha * x[xOff + i];
+        }
+    }
+
+    @Override
+    public int dot(byte[] a, int aOff, byte[] b, int bOff, int n) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += a[aOff + i] * b[bOff + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
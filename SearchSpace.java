@@ -0,0 +1,116 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Values to search for each hyperparameter of a sweep.
+ * grid() enumerates every combination; random() draws configurations
+ * independently, taking each parameter uniformly from its list, except the
+ * learning rate, which is drawn log-uniformly when a range has been set.
+ * Unset parameters keep the Test3 defaults.
+ */
+public class SearchSpace {
+    private int[] hiddenUnits = {30};
+    private boolean[] tanhHidden = {true};
+    private double[] learningRates = {0.01};
+    private double minLearningRate = Double.NaN;  // Log-uniform range for random(), NaN = use learningRates
+    private double maxLearningRate = Double.NaN;
+    private int[] batchSizes = {100};
+    private String[] optimisers = {"sgd"};
+
+    public SearchSpace setHiddenUnits(int... values) {
+        this.hiddenUnits = requireValues(values.length, values.clone());
+        return this;
+    }
+
+    public SearchSpace setTanhHidden(boolean... values) {
+        this.tanhHidden = requireValues(values.length, values.clone());
+        return this;
+    }
+
+    public SearchSpace setLearningRates(double... values) {
+        this.learningRates = requireValues(values.length, values.clone());
+        return this;
+    }
+
+    /**
+     * Draw learning rates log-uniformly from [min, max] in random(); grid()
+     * still uses the learning rate list
+     */
+    public SearchSpace setLearningRateRange(double min, double max) {
+        if (!(min > 0.0 && max >= min)) {
+            throw new IllegalArgumentException("Need 0 < min <= max, got " + min + ", " + max);
+        }
+        this.minLearningRate = min;
+        this.maxLearningRate = max;
+        return this;
+    }
+
+    public SearchSpace setBatchSizes(int... values) {
+        this.batchSizes = requireValues(values.length, values.clone());
+        return this;
+    }
+
+    /**
+     * Optimiser names: "sgd", "momentum", "nesterov" or "adam"
+     */
+    public SearchSpace setOptimisers(String... values) {
+        this.optimisers = requireValues(values.length, values.clone());
+        return this;
+    }
+
+    private static <T> T requireValues(int length, T values) {
+        if (length == 0) {
+            throw new IllegalArgumentException("Each parameter needs at least one value");
+        }
+        return values;
+    }
+
+    /**
+     * Get the number of configurations in the grid
+     */
+    public int gridSize() {
+        return hiddenUnits.length * tanhHidden.length * learningRates.length * batchSizes.length * optimisers.length;
+    }
+
+    /**
+     * Every combination of the listed values
+     */
+    public List<SweepConfig> grid() {
+        List<SweepConfig> configs = new ArrayList<>(gridSize());
+        for (int hidden : hiddenUnits) {
+            for (boolean tanh : tanhHidden) {
+                for (double rate : learningRates) {
+                    for (int batch : batchSizes) {
+                        for (String optimiser : optimisers) {
+                            configs.add(new SweepConfig(hidden, tanh, rate, batch, optimiser));
+                        }
+                    }
+                }
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * Draw count configurations at random
+     * @param count Number of configurations
+     * @param random Source of randomness (seed it for a repeatable search)
+     */
+    public List<SweepConfig> random(int count, Random random) {
+        List<SweepConfig> configs = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            double rate = Double.isNaN(minLearningRate)
+                    ? learningRates[random.nextInt(learningRates.length)]
+                    : Math.exp(Math.log(minLearningRate)
+                            + random.nextDouble() * (Math.log(maxLearningRate) - Math.log(minLearningRate)));
+            configs.add(new SweepConfig(
+                    hiddenUnits[random.nextInt(hiddenUnits.length)],
+                    tanhHidden[random.nextInt(tanhHidden.length)],
+                    rate,
+                    batchSizes[random.nextInt(batchSizes.length)],
+                    optimisers[random.nextInt(optimisers.length)]));
+        }
+        return configs;
+    }
+}
@@ -0,0 +1,53 @@
+import java.io.IOException;
+
+/**
+ * Dataset that Training reads chunk by chunk instead of holding on the heap.
+ * Rows are grouped into fixed-size chunks (the last one may be shorter); a
+ * chunk is copied into a caller-owned DataChunk, so memory use depends only
+ * on the chunk size and the number of buffers in flight.
+ */
+public interface StreamingDataset {
+
+    /**
+     * Get total number of rows
+     */
+    int getNumRows();
+
+    /**
+     * Get number of values in each input vector
+     */
+    int getNumInputs();
+
+    /**
+     * Get number of values in each target vector
+     */
+    int getNumOutputs();
+
+    /**
+     * Get number of rows in every chunk but the last
+     */
+    int getChunkRows();
+
+    /**
+     * Get number of chunks
+     */
+    default int getNumChunks() {
+        return (getNumRows() + getChunkRows() - 1) / getChunkRows();
+    }
+
+    /**
+     * Copy one chunk into a buffer sized for getChunkRows() rows.
+     * May be called from a background thread.
+     * @param chunk Chunk index (0 to getNumChunks() - 1)
+     * @param dst Destination; its count is set to the rows copied
+     * @throws IOException if the chunk cannot be read
+     */
+    void readChunk(int chunk, DataChunk dst) throws IOException;
+
+    /**
+     * Allocate a buffer large enough for any chunk of this dataset
+     */
+    default DataChunk newChunk() {
+        return new DataChunk(getChunkRows(), getNumInputs(), getNumOutputs());
+    }
+}
@@ -0,0 +1,65 @@
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * StreamingTrainingDemo: Out-of-core training with flat heap use
+ * Builds a large binary dataset by repeating the letter data, then trains a
+ * Test3-sized network on it through BinaryDatasetStream and a background
+ * ChunkPrefetcher, printing the live heap after every epoch next to the size
+ * the same data would take as double[][] arrays.
+ *
+ * Usage: java -Xmx64m StreamingTrainingDemo [copies] [epochs] [chunkRows]
+ */
+public class StreamingTrainingDemo {
+
+    public static void main(String[] args) throws IOException {
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int epochs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int chunkRows = args.length > 2 ? Integer.parseInt(args[2]) : 8000;
+        int batchSize = 100;
+
+        System.out.println("===========================================");
+        System.out.println("Streaming Training: Out-of-Core Letter Data");
+        System.out.println("===========================================\n");
+
+        String binary = "letter-recognition.bin";
+        if (!new File(binary).exists()) {
+            File converted = File.createTempFile("letter-recognition", ".bin");
+            converted.deleteOnExit();
+            BinaryDataset.convert("letter-recognition.csv", converted.getPath());
+            binary = converted.getPath();
+        }
+        File large = File.createTempFile("letter-recognition-x" + copies, ".bin");
+        large.deleteOnExit();
+        BinaryDataset.repeat(BinaryDataset.open(binary), copies, large.getPath());
+
+        BinaryDataset data = BinaryDataset.open(large.getPath());
+        StreamingDataset stream = new BinaryDatasetStream(data, chunkRows, 15.0);
+        long inMemoryBytes = (long) data.getNumRows() * (2 * 16 + 8 * (data.getNumFeatures() + data.getNumClasses()));
+
+        System.out.println("Rows: " + data.getNumRows() + " in " + stream.getNumChunks() + " chunks of " + chunkRows);
+        System.out.printf("File size: %.1f MB%n", large.length() / 1e6);
+        System.out.printf("As double[][] inputs + targets: %.1f MB%n", inMemoryBytes / 1e6);
+        System.out.printf("Max heap: %.1f MB%n%n", Runtime.getRuntime().maxMemory() / 1e6);
+
+        Network network = Precision.fromArgs(new String[0]).create(16, 30, 26, true, false);
+        Training trainer = new Training(network, 1, batchSize, 0.01);
+        File log = File.createTempFile("streaming_training_log", ".txt");
+        log.deleteOnExit();
+        trainer.setLogFileName(log.getPath());
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.out.printf("%-6s %14s %12s %16s%n", "Epoch", "Error", "Seconds", "Live heap (MB)");
+        for (int e = 0; e < epochs; e++) {
+            long start = System.nanoTime();
+            double error = trainer.train(stream, false, 1);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.gc();
+            double heapMB = memory.getHeapMemoryUsage().getUsed() / 1e6;
+            System.out.printf("%-6d %14.2f %12.2f %16.1f%n", e, error, seconds, heapMB);
+        }
+    }
+}
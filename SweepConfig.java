@@ -0,0 +1,85 @@
+/**
+ * One point of a hyperparameter search: the network and training settings of
+ * a single trial. Immutable, so trials can be built from it on any thread.
+ */
+public class SweepConfig {
+    static final double MOMENTUM = 0.9;  // Coefficient for the momentum and Nesterov optimisers
+
+    private final int numHidden;
+    private final boolean useTanhHidden;
+    private final double learningRate;
+    private final int batchSize;
+    private final String optimiser;  // "sgd", "momentum", "nesterov" or "adam"
+
+    /**
+     * Constructor for SweepConfig
+     * @param numHidden Number of hidden units
+     * @param useTanhHidden true for tanh hidden activation, false for sigmoid
+     * @param learningRate Learning rate
+     * @param batchSize Examples between weight updates
+     * @param optimiser "sgd", "momentum", "nesterov" or "adam"
+     */
+    public SweepConfig(int numHidden, boolean useTanhHidden, double learningRate, int batchSize, String optimiser) {
+        if (numHidden < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("numHidden and batchSize must be positive, got "
+                    + numHidden + ", " + batchSize);
+        }
+        this.numHidden = numHidden;
+        this.useTanhHidden = useTanhHidden;
+        this.learningRate = learningRate;
+        this.batchSize = batchSize;
+        this.optimiser = optimiser.trim().toLowerCase();
+        createOptimiser();  // Reject unknown names up front
+    }
+
+    /**
+     * Build a freshly initialised network for this configuration
+     */
+    public MLP createNetwork(int numInputs, int numOutputs, boolean useLinearOutput) {
+        return new MLP(numInputs, numHidden, numOutputs, useTanhHidden, useLinearOutput);
+    }
+
+    /**
+     * Build a new optimiser for this configuration (null for plain SGD)
+     */
+    public Optimiser createOptimiser() {
+        switch (optimiser) {
+            case "sgd":
+                return null;
+            case "momentum":
+                return MomentumOptimiser.momentum(MOMENTUM);
+            case "nesterov":
+                return MomentumOptimiser.nesterov(MOMENTUM);
+            case "adam":
+                return new AdamOptimiser();
+            default:
+                throw new IllegalArgumentException("Unknown optimiser: " + optimiser);
+        }
+    }
+
+    public int getNumHidden() {
+        return numHidden;
+    }
+
+    public boolean isTanhHidden() {
+        return useTanhHidden;
+    }
+
+    public double getLearningRate() {
+        return learningRate;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public String getOptimiser() {
+        return optimiser;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hidden=%d %s lr=%.4g batch=%d %s", numHidden, useTanhHidden ? "tanh" : "sigmoid",
+                learningRate, batchSize, optimiser);
+    }
+}
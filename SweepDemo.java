@@ -0,0 +1,100 @@
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SweepDemo: Hyperparameter search for letter recognition
+ * Searches hidden units, hidden activation, learning rate and optimiser for
+ * the Test3 network on a 60/20 train/validation split of the letter data,
+ * training trials concurrently with successive halving, then reports the
+ * ranked table and the test accuracy of the winning configuration retrained
+ * for the full budget.
+ *
+ * Usage: java SweepDemo [grid|random] [threads] [maxEpochs]
+ */
+public class SweepDemo {
+
+    public static void main(String[] args) throws IOException {
+        String mode = args.length > 0 ? args[0] : "grid";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int maxEpochs = args.length > 2 ? Integer.parseInt(args[2]) : 90;
+
+        System.out.println("===========================================");
+        System.out.println("Hyperparameter Sweep: Letter Recognition");
+        System.out.println("===========================================\n");
+
+        LetterData data = LetterData.load("letter-recognition.csv");
+
+        int total = data.size();
+        int[] order = new int[total];
+        for (int i = 0; i < total; i++) order[i] = i;
+        Random random = new Random(42);
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        int trainSize = (int) (total * 0.6);
+        int validationSize = (int) (total * 0.2);
+        int testSize = total - trainSize - validationSize;
+        double[][] trainInputs = new double[trainSize][];
+        double[][] trainTargets = new double[trainSize][];
+        double[][] validationInputs = new double[validationSize][];
+        double[][] validationTargets = new double[validationSize][];
+        double[][] testInputs = new double[testSize][];
+        double[][] testTargets = new double[testSize][];
+        for (int i = 0; i < trainSize; i++) {
+            trainInputs[i] = data.inputs[order[i]];
+            trainTargets[i] = data.targets[order[i]];
+        }
+        for (int i = 0; i < validationSize; i++) {
+            validationInputs[i] = data.inputs[order[trainSize + i]];
+            validationTargets[i] = data.targets[order[trainSize + i]];
+        }
+        for (int i = 0; i < testSize; i++) {
+            testInputs[i] = data.inputs[order[trainSize + validationSize + i]];
+            testTargets[i] = data.targets[order[trainSize + validationSize + i]];
+        }
+
+        SearchSpace space = new SearchSpace()
+                .setHiddenUnits(20, 30, 50)
+                .setTanhHidden(true, false)
+                .setLearningRates(0.003, 0.01, 0.03)
+                .setLearningRateRange(0.001, 0.05)
+                .setBatchSizes(100)
+                .setOptimisers("sgd", "adam");
+        List<SweepConfig> configs = mode.equals("random") ? space.random(space.gridSize(), new Random(7))
+                : space.grid();
+
+        HyperparameterSweep sweep = new HyperparameterSweep(trainInputs, trainTargets,
+                validationInputs, validationTargets, false);
+        sweep.setNumThreads(threads);
+        sweep.setMinEpochs(Math.max(1, maxEpochs / 9));
+        sweep.setMaxEpochs(maxEpochs);
+        sweep.setReductionFactor(3);
+        sweep.setProgress(System.out);
+
+        System.out.println(configs.size() + " " + mode + " configurations, " + threads + " threads, "
+                + sweep.getMinEpochs() + " to " + maxEpochs + " epochs\n");
+        long start = System.nanoTime();
+        List<SweepResult> results = sweep.run(configs);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%nSweep finished in %.2f seconds%n%n", seconds);
+        HyperparameterSweep.printTable(results, System.out, 15);
+
+        // Retrain the winner and check it on the untouched test set
+        SweepConfig best = results.get(0).getConfig();
+        MLP network = best.createNetwork(16, 26, false);
+        Training trainer = new Training(network, maxEpochs, best.getBatchSize(), best.getLearningRate());
+        trainer.setLogFileName(null);
+        trainer.setOptimiser(best.createOptimiser());
+        trainer.train(trainInputs, trainTargets, false);
+        try (Evaluator evaluator = new Evaluator(network.inference())) {
+            EvaluationResult result = evaluator.evaluate(testInputs, testTargets, 1);
+            System.out.printf("%nBest configuration (%s), retrained: test accuracy %.2f%%%n", best,
+                    100.0 * result.getAccuracy());
+        }
+    }
+}
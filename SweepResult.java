@@ -0,0 +1,52 @@
+/**
+ * Outcome of one sweep trial: its configuration, how far it was trained and
+ * how it scored on the validation set after its last rung.
+ */
+public class SweepResult {
+    private final SweepConfig config;
+    private final int epochs;            // Epochs trained before the trial finished or was stopped
+    private final boolean completed;     // false if successive halving stopped it early
+    private final double trainError;     // Training error of the last epoch
+    private final double validationLoss; // Sum of squared errors / 2 on the validation set
+    private final double validationAccuracy;
+    private final double seconds;        // Training time (without evaluation)
+
+    SweepResult(SweepConfig config, int epochs, boolean completed, double trainError,
+                double validationLoss, double validationAccuracy, double seconds) {
+        this.config = config;
+        this.epochs = epochs;
+        this.completed = completed;
+        this.trainError = trainError;
+        this.validationLoss = validationLoss;
+        this.validationAccuracy = validationAccuracy;
+        this.seconds = seconds;
+    }
+
+    public SweepConfig getConfig() {
+        return config;
+    }
+
+    public int getEpochs() {
+        return epochs;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public double getTrainError() {
+        return trainError;
+    }
+
+    public double getValidationLoss() {
+        return validationLoss;
+    }
+
+    public double getValidationAccuracy() {
+        return validationAccuracy;
+    }
+
+    public double getSeconds() {
+        return seconds;
+    }
+}
@@ -37,7 +37,9 @@ public class Test1 {
         boolean useTanhHidden = false;  // Use sigmoid for hidden layer
         boolean useLinearOutput = false; // Use sigmoid for output layer
         
-        MLP network = new MLP(numInputs, numHidden, numOutputs, useTanhHidden, useLinearOutput);
+        // Precision can be chosen on the command line: java Test1 [double|float]
+        Precision precision = Precision.fromArgs(args);
+        Network network = precision.create(numInputs, numHidden, numOutputs, useTanhHidden, useLinearOutput);
         
         // Training parameters
         int maxEpochs = 10000;
@@ -50,6 +52,7 @@ public class Test1 {
         System.out.println("- Outputs: " + numOutputs);
         System.out.println("- Hidden activation: " + (useTanhHidden ? "tanh" : "sigmoid"));
         System.out.println("- Output activation: " + (useLinearOutput ? "linear" : "sigmoid"));
+        System.out.println("- Precision: " + precision.name().toLowerCase());
         System.out.println("\nTraining Parameters:");
         System.out.println("- Max epochs: " + maxEpochs);
         System.out.println("- Batch size: " + batchSize);
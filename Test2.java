@@ -63,7 +63,9 @@ public class Test2 {
         boolean useTanhHidden = true;   // tanh works well for inputs in [-1,1]
         boolean useLinearOutput = true; // Linear output since sin outputs are in [-1,1]
         
-        MLP network = new MLP(numInputs, numHidden, numOutputs, useTanhHidden, useLinearOutput);
+        // Precision can be chosen on the command line: java Test2 [double|float]
+        Precision precision = Precision.fromArgs(args);
+        Network network = precision.create(numInputs, numHidden, numOutputs, useTanhHidden, useLinearOutput);
         
         // Training parameters
         int maxEpochs = 5000;
@@ -76,6 +78,7 @@ public class Test2 {
         System.out.println("- Outputs: " + numOutputs);
         System.out.println("- Hidden activation: " + (useTanhHidden ? "tanh" : "sigmoid"));
         System.out.println("- Output activation: " + (useLinearOutput ? "linear" : "sigmoid"));
+        System.out.println("- Precision: " + precision.name().toLowerCase());
         System.out.println("\nTraining Parameters:");
         System.out.println("- Max epochs: " + maxEpochs);
         System.out.println("- Batch size: " + batchSize);
@@ -1,13 +1,11 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Random;
 
 /**
  * Test3: Letter Recognition Dataset Test
  * Train and test an MLP on the letter-recognition.csv dataset
+ * (or letter-recognition.bin, written by BinaryDataset, when present)
  * - 16 input features
  * - 26 outputs (one for each letter A-Z)
  * - Split: 80% training, 20% testing
@@ -19,86 +17,60 @@ public class Test3 {
         System.out.println("Test3: Letter Recognition");
         System.out.println("===========================================\n");
         
-        // Load dataset
-        String filename = "letter-recognition.csv";
-        List<double[]> allInputs = new ArrayList<>();
-        List<double[]> allTargets = new ArrayList<>();
-        List<Character> allLetters = new ArrayList<>();
+        // Load dataset (the memory-mapped binary copy if it has been converted)
+        String filename = new File("letter-recognition.bin").exists()
+                ? "letter-recognition.bin" : "letter-recognition.csv";
+        LetterData data;
         
         System.out.println("Loading dataset from " + filename + "...");
         
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            boolean isHeader = true;
-            
-            while ((line = br.readLine()) != null) {
-                // Skip header line
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
-                
-                String[] parts = line.split(",");
-                if (parts.length < 17) continue;
-                
-                // Parse 16 input features (columns 0-15)
-                double[] input = new double[16];
-                for (int i = 0; i < 16; i++) {
-                    // Normalize features to [0, 1] range (original values are 0-15)
-                    input[i] = Double.parseDouble(parts[i].trim()) / 15.0;
-                }
-                
-                // Parse letter label (column 16)
-                char letter = parts[16].trim().charAt(0);
-                
-                // Create one-hot encoded target (26 outputs for A-Z)
-                double[] target = new double[26];
-                int letterIndex = letter - 'A';
-                target[letterIndex] = 1.0;
-                
-                allInputs.add(input);
-                allTargets.add(target);
-                allLetters.add(letter);
-            }
+        try {
+            data = LetterData.load(filename);
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
             return;
         }
         
-        int totalExamples = allInputs.size();
+        int totalExamples = data.size();
         System.out.println("Loaded " + totalExamples + " examples");
         
-        // Shuffle the data for random split
-        List<Integer> indices = new ArrayList<>();
+        // Shuffle the data for random split (Fisher-Yates over row indices)
+        int[] indices = new int[totalExamples];
         for (int i = 0; i < totalExamples; i++) {
-            indices.add(i);
+            indices[i] = i;
+        }
+        Random random = new Random();
+        for (int i = totalExamples - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = indices[i];
+            indices[i] = indices[j];
+            indices[j] = tmp;
         }
-        Collections.shuffle(indices);
         
         // Split into training (80%) and testing (20%)
         int trainSize = (int) (totalExamples * 0.8);
         int testSize = totalExamples - trainSize;
         
-        double[][] trainInputs = new double[trainSize][16];
-        double[][] trainTargets = new double[trainSize][26];
+        double[][] trainInputs = new double[trainSize][];
+        double[][] trainTargets = new double[trainSize][];
         char[] trainLetters = new char[trainSize];
         
-        double[][] testInputs = new double[testSize][16];
-        double[][] testTargets = new double[testSize][26];
+        double[][] testInputs = new double[testSize][];
+        double[][] testTargets = new double[testSize][];
         char[] testLetters = new char[testSize];
         
         for (int i = 0; i < trainSize; i++) {
-            int idx = indices.get(i);
-            trainInputs[i] = allInputs.get(idx);
-            trainTargets[i] = allTargets.get(idx);
-            trainLetters[i] = allLetters.get(idx);
+            int idx = indices[i];
+            trainInputs[i] = data.inputs[idx];
+            trainTargets[i] = data.targets[idx];
+            trainLetters[i] = data.letters[idx];
         }
         
         for (int i = 0; i < testSize; i++) {
-            int idx = indices.get(trainSize + i);
-            testInputs[i] = allInputs.get(idx);
-            testTargets[i] = allTargets.get(idx);
-            testLetters[i] = allLetters.get(idx);
+            int idx = indices[trainSize + i];
+            testInputs[i] = data.inputs[idx];
+            testTargets[i] = data.targets[idx];
+            testLetters[i] = data.letters[idx];
         }
         
         System.out.println("Training set: " + trainSize + " examples");
@@ -111,7 +83,9 @@ public class Test3 {
         boolean useTanhHidden = true;   // tanh often works well
         boolean useLinearOutput = false; // sigmoid for classification (output in [0,1])
         
-        MLP network = new MLP(numInputs, numHidden, numOutputs, useTanhHidden, useLinearOutput);
+        // Precision can be chosen on the command line: java Test3 [double|float]
+        Precision precision = Precision.fromArgs(args);
+        Network network = precision.create(numInputs, numHidden, numOutputs, useTanhHidden, useLinearOutput);
         
         // Training parameters
         int maxEpochs = 5000;
@@ -124,6 +98,7 @@ public class Test3 {
         System.out.println("- Outputs: " + numOutputs);
         System.out.println("- Hidden activation: " + (useTanhHidden ? "tanh" : "sigmoid"));
         System.out.println("- Output activation: " + (useLinearOutput ? "linear" : "sigmoid"));
+        System.out.println("- Precision: " + precision.name().toLowerCase());
         System.out.println("\nTraining Parameters:");
         System.out.println("- Max epochs: " + maxEpochs);
         System.out.println("- Batch size: " + batchSize);
@@ -134,65 +109,26 @@ public class Test3 {
         long startTime = System.currentTimeMillis();
         Training trainer = new Training(network, maxEpochs, batchSize, learningRate);
         trainer.setLogFileName("test3_training_log.txt");
+        trainer.setCheckpoint("test3_model.ckpt", 500);  // Reload with: java ModelCheckpoint test3_model.ckpt
         double trainError = trainer.train(trainInputs, trainTargets, true, 500);
         
         long endTime = System.currentTimeMillis();
         System.out.println("\n--- Training Completed in " + (endTime - startTime) / 1000.0 + " seconds ---\n");
         
-        // Evaluate on training set
-        int trainCorrect = 0;
-        for (int p = 0; p < trainSize; p++) {
-            network.forward(trainInputs[p]);
-            double[] output = network.getOutput();
-            
-            // Find predicted letter (index of max output)
-            int predictedIndex = 0;
-            double maxOutput = output[0];
-            for (int k = 1; k < 26; k++) {
-                if (output[k] > maxOutput) {
-                    maxOutput = output[k];
-                    predictedIndex = k;
-                }
-            }
-            
-            char predicted = (char) ('A' + predictedIndex);
-            if (predicted == trainLetters[p]) {
-                trainCorrect++;
-            }
-        }
-        
-        // Evaluate on test set
-        int testCorrect = 0;
-        int[] confusionMatrix = new int[26];  // Count correct predictions per letter
-        int[] letterCounts = new int[26];      // Count total per letter
-        
-        for (int p = 0; p < testSize; p++) {
-            network.forward(testInputs[p]);
-            double[] output = network.getOutput();
-            
-            // Find predicted letter (index of max output)
-            int predictedIndex = 0;
-            double maxOutput = output[0];
-            for (int k = 1; k < 26; k++) {
-                if (output[k] > maxOutput) {
-                    maxOutput = output[k];
-                    predictedIndex = k;
-                }
-            }
-            
-            char predicted = (char) ('A' + predictedIndex);
-            int actualIndex = testLetters[p] - 'A';
-            letterCounts[actualIndex]++;
-            
-            if (predicted == testLetters[p]) {
-                testCorrect++;
-                confusionMatrix[actualIndex]++;
-            }
+        // Evaluate both sets with batched forward passes across all cores
+        EvaluationResult trainResult;
+        EvaluationResult testResult;
+        try (Evaluator evaluator = new Evaluator(Evaluator.modelOf(network))) {
+            trainResult = evaluator.evaluate(trainInputs, trainTargets, 1);
+            testResult = evaluator.evaluate(testInputs, testTargets, 3);
         }
+        int trainCorrect = trainResult.getCorrect();
+        int testCorrect = testResult.getCorrect();
+        int[][] confusionMatrix = testResult.getConfusionMatrix();  // [actual][predicted]
         
         // Calculate accuracies
-        double trainAccuracy = (double) trainCorrect / trainSize * 100;
-        double testAccuracy = (double) testCorrect / testSize * 100;
+        double trainAccuracy = trainResult.getAccuracy() * 100;
+        double testAccuracy = testResult.getAccuracy() * 100;
         
         System.out.println("===========================================");
         System.out.println("RESULTS");
@@ -202,38 +138,59 @@ public class Test3 {
                           " (" + String.format("%.2f", trainAccuracy) + "%)");
         System.out.println("Test Accuracy: " + testCorrect + "/" + testSize + 
                           " (" + String.format("%.2f", testAccuracy) + "%)");
+        System.out.println("Test Top-3 Accuracy: " + String.format("%.2f", testResult.getTopKAccuracy() * 100) + "%");
+
+        // Same test set through the int8 model
+        if (network instanceof MLP) {
+            QuantisedInference quantised = ((MLP) network).quantise();
+            try (Evaluator evaluator = new Evaluator(quantised)) {
+                double int8Accuracy = evaluator.evaluate(testInputs, testTargets, 1).getAccuracy() * 100;
+                System.out.println("Int8 Test Accuracy: " + String.format("%.2f", int8Accuracy) + "% ("
+                        + String.format("%+.2f", int8Accuracy - testAccuracy) + " points, "
+                        + quantised.getModelBytes() + " vs " + quantised.getDoubleModelBytes() + " bytes)");
+            }
+        }
         
         // Per-letter accuracy
         System.out.println("\n--- Per-Letter Test Accuracy ---");
         for (int i = 0; i < 26; i++) {
             char letter = (char) ('A' + i);
-            if (letterCounts[i] > 0) {
-                double letterAccuracy = (double) confusionMatrix[i] / letterCounts[i] * 100;
-                System.out.printf("%c: %d/%d (%.1f%%)%n", letter, confusionMatrix[i], letterCounts[i], letterAccuracy);
+            int letterCount = testResult.getClassCount(i);
+            if (letterCount > 0) {
+                double letterAccuracy = testResult.getClassAccuracy(i) * 100;
+                System.out.printf("%c: %d/%d (%.1f%%)%n", letter, confusionMatrix[i][i], letterCount, letterAccuracy);
             }
         }
         
+        // Largest off-diagonal entries of the confusion matrix
+        System.out.println("\n--- Most Frequent Test Confusions ---");
+        boolean[] shownPairs = new boolean[26 * 26];
+        for (int shown = 0; shown < 5; shown++) {
+            int best = -1;
+            for (int pair = 0; pair < 26 * 26; pair++) {
+                int count = confusionMatrix[pair / 26][pair % 26];
+                if (pair / 26 != pair % 26 && !shownPairs[pair] && count > 0
+                        && (best < 0 || count > confusionMatrix[best / 26][best % 26])) {
+                    best = pair;
+                }
+            }
+            if (best < 0) break;
+            shownPairs[best] = true;
+            System.out.printf("%c read as %c: %d%n", (char) ('A' + best / 26), (char) ('A' + best % 26),
+                    confusionMatrix[best / 26][best % 26]);
+        }
+        
         // Show some sample predictions
         System.out.println("\n--- Sample Test Predictions (first 20) ---");
+        int[] top3 = testResult.getTopK();
         for (int p = 0; p < Math.min(20, testSize); p++) {
-            network.forward(testInputs[p]);
-            double[] output = network.getOutput();
-            
-            // Find predicted letter
-            int predictedIndex = 0;
-            double maxOutput = output[0];
-            for (int k = 1; k < 26; k++) {
-                if (output[k] > maxOutput) {
-                    maxOutput = output[k];
-                    predictedIndex = k;
-                }
-            }
-            
-            char predicted = (char) ('A' + predictedIndex);
+            char predicted = (char) ('A' + testResult.getPredicted()[p]);
             boolean correct = (predicted == testLetters[p]);
             
-            System.out.printf("Actual: %c, Predicted: %c (confidence: %.3f) %s%n",
-                testLetters[p], predicted, maxOutput, correct ? "✓" : "✗");
+            System.out.printf("Actual: %c, Predicted: %c (confidence: %.3f, top 3: %c %c %c) %s%n",
+                testLetters[p], predicted, testResult.getConfidence()[p],
+                (char) ('A' + top3[p * 3]), (char) ('A' + top3[p * 3 + 1]), (char) ('A' + top3[p * 3 + 2]),
+                correct ? "✓" : "✗");
         }
         
         // Analysis
@@ -0,0 +1,127 @@
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TrainWhileServe: Hot model swap on letter recognition
+ * Trains the Test3 network on a background thread that publishes its weights
+ * every few epochs, while reader threads predict the test set nonstop through
+ * the ModelPublisher. Prints the served version, its epoch and test accuracy,
+ * and the readers' throughput as training goes on.
+ *
+ * Usage: java TrainWhileServe [epochs] [publishInterval] [readers]
+ */
+public class TrainWhileServe {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final int epochs = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int interval = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int readers = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        System.out.println("===========================================");
+        System.out.println("Train While Serve: Letter Recognition");
+        System.out.println("===========================================\n");
+
+        LetterData data = LetterData.load("letter-recognition.csv");
+
+        int total = data.size();
+        int[] order = new int[total];
+        for (int i = 0; i < total; i++) order[i] = i;
+        Random random = new Random(42);
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        int trainSize = (int) (total * 0.8);
+        int testSize = total - trainSize;
+        final double[][] trainInputs = new double[trainSize][];
+        final double[][] trainTargets = new double[trainSize][];
+        final double[][] testInputs = new double[testSize][];
+        double[][] testTargets = new double[testSize][];
+        for (int i = 0; i < trainSize; i++) {
+            trainInputs[i] = data.inputs[order[i]];
+            trainTargets[i] = data.targets[order[i]];
+        }
+        for (int i = 0; i < testSize; i++) {
+            testInputs[i] = data.inputs[order[trainSize + i]];
+            testTargets[i] = data.targets[order[trainSize + i]];
+        }
+
+        MLP network = new MLP(16, 30, 26, true, false);
+        final ModelPublisher publisher = new ModelPublisher(network);
+        final Training trainer = new Training(network, epochs, 100, 0.005);
+        trainer.setLogFileName(null);
+        trainer.setOptimiser(new AdamOptimiser());
+        trainer.setPublisher(publisher, interval);
+
+        // Readers: predict the test set over and over, never waiting for training
+        final AtomicBoolean serving = new AtomicBoolean(true);
+        final AtomicLong predictions = new AtomicLong();
+        final AtomicLong switches = new AtomicLong();
+        Thread[] readerThreads = new Thread[readers];
+        for (int r = 0; r < readers; r++) {
+            readerThreads[r] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    InferenceContext context = publisher.newContext();
+                    long seen = publisher.getVersion();
+                    while (serving.get()) {
+                        for (int p = 0; p < testInputs.length; p++) {
+                            publisher.predict(testInputs[p], context);
+                        }
+                        predictions.addAndGet(testInputs.length);
+                        long version = publisher.getVersion();
+                        if (version != seen) {
+                            switches.addAndGet(version - seen);
+                            seen = version;
+                        }
+                    }
+                }
+            }, "reader-" + r);
+            readerThreads[r].start();
+        }
+
+        Thread training = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                trainer.train(trainInputs, trainTargets, false);
+            }
+        }, "training");
+        System.out.println("Training " + epochs + " epochs, publishing every " + interval + ", "
+                + readers + " reader threads\n");
+        System.out.printf("%8s %8s %7s %14s %18s%n", "Time (s)", "Version", "Epoch", "Test accuracy", "Predictions/sec");
+        long start = System.nanoTime();
+        training.start();
+
+        long lastVersion = 0;
+        long lastCount = 0;
+        long lastTime = start;
+        while (training.isAlive()) {
+            training.join(250);
+            ModelVersion version = publisher.current();
+            long now = System.nanoTime();
+            long count = predictions.get();
+            if (version.getVersion() != lastVersion || !training.isAlive()) {
+                double accuracy;
+                try (Evaluator evaluator = new Evaluator(version.getModel(), 1)) {
+                    accuracy = evaluator.evaluate(testInputs, testTargets, 1).getAccuracy();
+                }
+                System.out.printf("%8.2f %8d %7d %13.2f%% %18.0f%n", (now - start) / 1e9, version.getVersion(),
+                        version.getEpoch(), 100.0 * accuracy, (count - lastCount) / ((now - lastTime) / 1e9));
+                lastVersion = version.getVersion();
+            }
+            lastCount = count;
+            lastTime = now;
+        }
+
+        serving.set(false);
+        for (Thread reader : readerThreads) {
+            reader.join();
+        }
+        System.out.printf("%nServed %d predictions; readers picked up %d version switches without locking%n",
+                predictions.get(), switches.get());
+    }
+}
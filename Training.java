@@ -1,27 +1,58 @@
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 /**
  * Training class for Multi-Layer Perceptron
  * Provides methods to train an MLP on a dataset with configurable parameters
  */
 public class Training {
+    static final int PHASE_SAMPLE_INTERVAL = 16;  // Online training times one example in this many
     
-    private MLP network;
+    private Network network;
     private int maxEpochs;
     private int batchSize;  // "every now and then" parameter: how often to update weights
     private double learningRate;
+    private int numThreads = 1;  // Worker threads for data-parallel mini-batches (1 = serial)
+    private boolean asynchronous = false;  // Lock-free Hogwild-style online updates across numThreads workers
     private String logFileName = "training_log.txt";  // Default log file name
+    private boolean trackAllocations = false;  // Record heap bytes allocated per epoch
+    private long[] allocatedBytesPerEpoch;     // Filled by train when tracking allocations
+    private boolean shuffleChunks = true;  // Streaming: visit chunks in a new random order every epoch
+    private int prefetchChunks = 2;        // Streaming: chunk buffers in memory (read-ahead + training)
+    private boolean timePhases = true;     // Measure forward/backward/update time for the metrics
+    private List<MetricsSink> metricsSinks = new ArrayList<>();  // Extra per-epoch destinations
+    private double[][] validationInputs;   // Held-out set checked in the background (null = no validation)
+    private double[][] validationTargets;
+    private int validationInterval = 1;    // Epochs between validation snapshots
+    private int patience = 0;              // Validations without improvement before stopping (0 = run all epochs)
+    private double minDelta = 0.0;         // Validation error decrease that counts as an improvement
+    private boolean restoreBestWeights = true;
+    private BackgroundValidator validator; // Validator of the last train call
+    private int stoppedEpoch = -1;         // Epoch early stopping ended the last train call at (-1 = ran all)
+    private String checkpointFile;         // Periodic checkpoint path (null = no checkpoints)
+    private int checkpointInterval = 100;  // Epochs between checkpoints
+    private ModelPublisher publisher;      // Serving side that receives weight snapshots (null = none)
+    private int publishInterval = 10;      // Epochs between publications
+    private Optimiser optimiser;           // Update rule (null = plain W += learningRate * dW)
+    private long forwardNanos;   // Phase times of the current epoch
+    private long backwardNanos;
+    private long updateNanos;
+    private int untilPhaseSample;        // Online examples left before the next timed one
+    private long sampledForwardNanos;    // Phase times of the timed online examples of this train call
+    private long sampledBackwardNanos;
+    private long sampledUpdateNanos;
     
     /**
      * Constructor for Training
-     * @param network The MLP to train
+     * @param network The network to train (MLP, FloatMLP, ...)
      * @param maxEpochs Maximum number of training epochs
      * @param batchSize Number of examples between weight updates (1 = online, numExamples = batch)
      * @param learningRate Learning rate for gradient descent
      */
-    public Training(MLP network, int maxEpochs, int batchSize, double learningRate) {
+    public Training(Network network, int maxEpochs, int batchSize, double learningRate) {
         this.network = network;
         this.maxEpochs = maxEpochs;
         this.batchSize = batchSize;
@@ -48,44 +79,380 @@ public class Training {
      * @return Final training error
      */
     public double train(double[][] inputs, double[][] targets, boolean verbose, int printInterval) {
-        int numExamples = inputs.length;
+        return train(inputs, targets, null, verbose, printInterval);
+    }
+    
+    /**
+     * Train the network on a dataset streamed chunk by chunk, so only
+     * prefetchChunks chunks are in memory at once. Chunks are read by a
+     * background thread and, if shuffleChunks is set, visited in a new random
+     * order every epoch. Mini-batches do not span chunks, so a chunk size that
+     * is a multiple of the batch size keeps every batch full.
+     * @param data Streaming dataset
+     * @param verbose If true, print error at specified intervals
+     * @param printInterval Print error every N epochs (only if verbose is true)
+     * @return Final training error
+     */
+    public double train(StreamingDataset data, boolean verbose, int printInterval) {
+        return train(null, null, data, verbose, printInterval);
+    }
+    
+    /**
+     * Shared epoch loop: trains on inputs/targets, or on stream if it is not null
+     */
+    private double train(double[][] inputs, double[][] targets, StreamingDataset stream,
+                         boolean verbose, int printInterval) {
         double error = 0;
         
-        try (PrintWriter logWriter = new PrintWriter(new FileWriter(logFileName))) {
-            for (int e = 0; e < maxEpochs; e++) {
-                error = 0;
+        if (asynchronous && batchSize != 1) {
+            throw new IllegalStateException("Asynchronous training requires batchSize == 1, got " + batchSize);
+        }
+        if (asynchronous && optimiser != null) {
+            throw new IllegalStateException("Asynchronous training applies plain SGD steps and cannot use " + optimiser);
+        }
+        
+        // Data-parallel mode only pays off when there is a batch to split
+        ParallelGradients parallel = (numThreads > 1 && batchSize > 1)
+                ? new ParallelGradients(requireMLP("Data-parallel training"), numThreads) : null;
+        AsyncSGD async = asynchronous ? new AsyncSGD(requireMLP("Asynchronous training"), numThreads) : null;
+        
+        ChunkPrefetcher prefetcher = stream != null
+                ? new ChunkPrefetcher(stream, maxEpochs, prefetchChunks, shuffleChunks, new Random()) : null;
+        
+        // Online phase times come from sampled examples (see runPass)
+        boolean online = timePhases && async == null && parallel == null && batchSize == 1;
+        untilPhaseSample = 0;  // Time the first online example, so every pass has a phase split
+        sampledForwardNanos = 0;
+        sampledBackwardNanos = 0;
+        sampledUpdateNanos = 0;
+        
+        AllocationMeter meter = trackAllocations ? new AllocationMeter() : null;
+        allocatedBytesPerEpoch = trackAllocations ? new long[maxEpochs] : null;
+        long examplesPerEpoch = stream != null ? stream.getNumRows() : inputs.length;
+        
+        // Every epoch goes through the metrics thread: the training thread never formats or writes
+        EpochLogWriter logWriter = null;
+        if (logFileName != null) {
+            try {
+                logWriter = new EpochLogWriter(new FileOutputStream(logFileName), false);
+            } catch (IOException e) {
+                System.err.println("Error writing to log file: " + e.getMessage());
+            }
+        }
+        List<MetricsSink> sinks = new ArrayList<>(metricsSinks);
+        if (logWriter != null) {
+            sinks.add(logWriter);
+        }
+        if (verbose) {
+            sinks.add(new IntervalSink(new EpochLogWriter(System.out, true), printInterval, maxEpochs - 1));
+        }
+        MetricsRecorder recorder = new MetricsRecorder(sinks, maxEpochs);
+        
+        validator = validationInputs != null
+                ? new BackgroundValidator(network, validationInputs, validationTargets, patience, minDelta) : null;
+        stoppedEpoch = -1;
+        CheckpointWriter checkpoints = checkpointFile != null ? new CheckpointWriter(network, checkpointFile) : null;
+        
+        try {
+            int e = 0;
+            for (; e < maxEpochs; e++) {
+                long allocatedBefore = meter != null ? meter.allocatedBytes() : 0;
+                long epochStart = System.nanoTime();
+                forwardNanos = 0;
+                backwardNanos = 0;
+                updateNanos = 0;
                 
-                for (int p = 0; p < numExamples; p++) {
-                    // Forward pass
-                    network.forward(inputs[p]);
-                    
-                    // Backward pass - accumulate gradients
-                    error += network.backwards(inputs[p], targets[p]);
-                    
-                    // Update weights "every now and then" based on batch size
-                    if ((p + 1) % batchSize == 0) {
-                        network.updateWeights(learningRate);
+                long passNanos = 0;
+                if (prefetcher != null) {
+                    error = 0;
+                    for (int c = 0; c < stream.getNumChunks(); c++) {
+                        DataChunk chunk = prefetcher.next();
+                        long passStart = online ? System.nanoTime() : 0L;
+                        error += runPass(chunk.inputs, chunk.targets, 0, chunk.count, parallel, async);
+                        passNanos += online ? System.nanoTime() - passStart : 0L;
+                        prefetcher.release(chunk);
                     }
+                } else {
+                    error = runPass(inputs, targets, 0, inputs.length, parallel, async);
+                }
+                long epochNanos = System.nanoTime() - epochStart;
+                if (online) {
+                    // In memory the pass is the epoch, so its clock reads are reused
+                    splitOnlinePhases(prefetcher != null ? passNanos : epochNanos);
+                }
+                
+                recorder.record(e, error, examplesPerEpoch, epochNanos,
+                        forwardNanos, backwardNanos, updateNanos);
+                
+                if (meter != null) {
+                    allocatedBytesPerEpoch[e] = meter.since(allocatedBefore);
                 }
                 
-                // If batch size doesn't evenly divide numExamples, update at end of epoch
-                if (numExamples % batchSize != 0) {
-                    network.updateWeights(learningRate);
+                // Snapshot for the validation thread; its verdict arrives a few epochs later
+                if (validator != null) {
+                    if ((e + 1) % validationInterval == 0 && e < maxEpochs - 1) {
+                        validator.submit(network, e);
+                    }
+                    if (validator.shouldStop()) {
+                        stoppedEpoch = e;
+                        break;
+                    }
                 }
                 
-                // Always write to log file
-                logWriter.println("Error at epoch " + e + " is " + error);
+                // Copy the weights for the writer thread, which encodes and saves them
+                if (checkpoints != null && (e + 1) % checkpointInterval == 0 && e < maxEpochs - 1) {
+                    checkpoints.submit(network, e);
+                }
                 
-                // Print to console based on verbose flag and print interval
-                if (verbose && (e % printInterval == 0 || e == maxEpochs - 1)) {
-                    System.out.println("Error at epoch " + e + " is " + error);
+                // Hand the serving side a consistent copy of the weights
+                if (publisher != null && (e + 1) % publishInterval == 0 && e < maxEpochs - 1) {
+                    publisher.publish(network, e);
+                }
+            }
+            
+            int finalEpoch = Math.min(e, maxEpochs - 1);
+            if (validator != null) {
+                validator.finish(network, finalEpoch);
+                if (restoreBestWeights && validator.restoreBest(network)) {
+                    finalEpoch = validator.getBestEpoch();
+                }
+            }
+            if (publisher != null) {
+                publisher.publish(network, finalEpoch);
+            }
+            if (checkpoints != null) {
+                try {
+                    checkpoints.finish(network, finalEpoch);
+                } catch (IOException ex) {
+                    System.err.println("Error writing checkpoint: " + ex.getMessage());
+                }
+            }
+        } finally {
+            if (checkpoints != null) {
+                checkpoints.close();
+            }
+            if (validator != null) {
+                validator.close();
+            }
+            if (prefetcher != null) {
+                prefetcher.close();
+            }
+            if (parallel != null) {
+                parallel.close();
+            }
+            if (async != null) {
+                async.close();
+            }
+            closeMetrics(recorder, logWriter);
+        }
+        
+        return error;
+    }
+    
+    /**
+     * Run one pass over inputs[from..to) in the configured mode
+     * @return Training error for the pass
+     */
+    private double runPass(double[][] inputs, double[][] targets, int from, int to,
+                           ParallelGradients parallel, AsyncSGD async) {
+        double error = 0;
+        
+        if (async != null) {
+            // Every worker streams its own slice and updates the shared weights directly
+            error = async.runRange(inputs, targets, from, to - from, learningRate);
+        } else if (parallel != null) {
+            // Split each mini-batch across the worker pool and reduce before updating
+            for (int start = from; start < to; start += batchSize) {
+                int count = Math.min(batchSize, to - start);
+                long t0 = clock();
+                error += parallel.accumulate(inputs, targets, start, count);
+                long t1 = clock();
+                updateWeights();
+                long t2 = clock();
+                backwardNanos += t1 - t0;
+                updateNanos += t2 - t1;
+            }
+        } else if (batchSize > 1) {
+            // Mini-batch: run each batch through the blocked matrix kernels.
+            // A final partial batch is updated at the end of the pass.
+            for (int start = from; start < to; start += batchSize) {
+                int count = Math.min(batchSize, to - start);
+                long t0 = clock();
+                network.forwardBatch(inputs, start, count);
+                long t1 = clock();
+                error += network.backwardsBatch(targets, start, count);
+                long t2 = clock();
+                updateWeights();
+                long t3 = clock();
+                forwardNanos += t1 - t0;
+                backwardNanos += t2 - t1;
+                updateNanos += t3 - t2;
+            }
+        } else {
+            // Reading the clock around every example costs as much as a small
+            // network's update, so only every PHASE_SAMPLE_INTERVAL-th example
+            // (counted across passes, so tiny epochs are not oversampled) is
+            // timed per phase; splitOnlinePhases divides the pass time by them
+            for (int p = from; p < to; p++) {
+                if (timePhases && --untilPhaseSample < 0) {
+                    untilPhaseSample = PHASE_SAMPLE_INTERVAL - 1;
+                    long t0 = System.nanoTime();
+                    network.forward(inputs[p]);
+                    long t1 = System.nanoTime();
+                    error += network.backwards(inputs[p], targets[p]);
+                    long t2 = System.nanoTime();
+                    updateWeights();
+                    long t3 = System.nanoTime();
+                    sampledForwardNanos += t1 - t0;
+                    sampledBackwardNanos += t2 - t1;
+                    sampledUpdateNanos += t3 - t2;
+                } else {
+                    // Forward pass
+                    network.forward(inputs[p]);
+                    
+                    // Backward pass - accumulate gradients
+                    error += network.backwards(inputs[p], targets[p]);
+                    
+                    // Online learning: update after every example
+                    updateWeights();
                 }
             }
+        }
+        
+        return error;
+    }
+    
+    /**
+     * Split the time of an epoch's online passes between the phases in the
+     * proportions timed on the sampled examples so far
+     */
+    private void splitOnlinePhases(long passNanos) {
+        long sampled = sampledForwardNanos + sampledBackwardNanos + sampledUpdateNanos;
+        if (sampled > 0) {
+            forwardNanos = (long) ((double) passNanos * sampledForwardNanos / sampled);
+            backwardNanos = (long) ((double) passNanos * sampledBackwardNanos / sampled);
+            updateNanos = passNanos - forwardNanos - backwardNanos;
+        }
+    }
+    
+    /**
+     * Apply the accumulated gradients with the optimiser, or plain gradient descent without one
+     */
+    private void updateWeights() {
+        if (optimiser != null) {
+            network.updateWeights(optimiser, learningRate);
+        } else {
+            network.updateWeights(learningRate);
+        }
+    }
+    
+    /**
+     * Phase timer: System.nanoTime() when timing phases, else 0
+     */
+    private long clock() {
+        return timePhases ? System.nanoTime() : 0L;
+    }
+    
+    /**
+     * Wait for the metrics thread to write every epoch, then close the log file
+     */
+    private static void closeMetrics(MetricsRecorder recorder, EpochLogWriter logWriter) {
+        try {
+            recorder.close();
+            if (recorder.getDropped() > 0) {
+                System.err.println("Metrics ring full: " + recorder.getDropped() + " epochs were not logged");
+            }
         } catch (IOException e) {
             System.err.println("Error writing to log file: " + e.getMessage());
         }
+        if (logWriter != null) {
+            try {
+                logWriter.close();
+            } catch (IOException e) {
+                System.err.println("Error writing to log file: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Passes every printInterval-th epoch and the last one to a console sink
+     */
+    private static final class IntervalSink implements MetricsSink {
+        private final MetricsSink sink;
+        private final int printInterval;
+        private final int lastEpoch;
+        
+        IntervalSink(MetricsSink sink, int printInterval, int lastEpoch) {
+            this.sink = sink;
+            this.printInterval = printInterval;
+            this.lastEpoch = lastEpoch;
+        }
         
-        return error;
+        @Override
+        public void write(EpochMetrics metrics) throws IOException {
+            if (metrics.epoch % printInterval == 0 || metrics.epoch == lastEpoch) {
+                sink.write(metrics);
+            }
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            sink.flush();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            sink.flush();  // Never close System.out
+        }
+    }
+    
+    /**
+     * Fail if any steady-state epoch of the last train call allocated memory.
+     * Same as checkAllocationFree(0).
+     * @throws IllegalStateException if allocation tracking was off or an epoch allocated
+     */
+    public void checkAllocationFree() {
+        checkAllocationFree(0);
+    }
+    
+    /**
+     * Fail if more than toleratedEpochs steady-state epochs of the last train
+     * call allocated memory. Epoch 0 is skipped because it sizes the batch
+     * buffers. While the JIT is still warming up, the first C2 compile queued
+     * for a class resolves its string constants on the training thread; warm
+     * up first (as AllocationCheck does) rather than raising the tolerance.
+     * Only the serial modes are allocation-free; the parallel and asynchronous
+     * modes allocate task objects for every batch or epoch.
+     * @param toleratedEpochs Allocating epochs to accept (0 = none)
+     * @throws IllegalStateException if allocation tracking was off or allocation recurred
+     */
+    public void checkAllocationFree(int toleratedEpochs) {
+        if (allocatedBytesPerEpoch == null) {
+            throw new IllegalStateException("Allocation tracking was not enabled for the last train call");
+        }
+        int allocating = 0;
+        long total = 0;
+        for (int e = 1; e < allocatedBytesPerEpoch.length; e++) {
+            if (allocatedBytesPerEpoch[e] != 0) {
+                allocating++;
+                total += allocatedBytesPerEpoch[e];
+            }
+        }
+        if (allocating > toleratedEpochs) {
+            throw new IllegalStateException(allocating + " epochs allocated memory (" + total + " bytes in total)");
+        }
+    }
+    
+    /**
+     * Get the network as a double-precision MLP for modes that need its internals
+     * @param mode Name of the mode, used in the error message
+     */
+    private MLP requireMLP(String mode) {
+        if (!(network instanceof MLP)) {
+            throw new IllegalStateException(mode + " requires a double-precision MLP, got "
+                    + network.getClass().getSimpleName());
+        }
+        return (MLP) network;
     }
     
     /**
@@ -177,10 +544,237 @@ public class Training {
         this.learningRate = learningRate;
     }
     
+    public Optimiser getOptimiser() {
+        return optimiser;
+    }
+    
+    /**
+     * Use an optimiser (momentum, Nesterov, Adam) for every weight update.
+     * The optimiser keeps per-weight state for this trainer's network, so it
+     * must not be shared with another network; null restores plain gradient
+     * descent. Not supported with asynchronous training.
+     * @param optimiser Update rule, or null
+     */
+    public void setOptimiser(Optimiser optimiser) {
+        this.optimiser = optimiser;
+    }
+    
+    public int getNumThreads() {
+        return numThreads;
+    }
+    
+    /**
+     * Set the number of worker threads used for each mini-batch.
+     * With more than one thread (and batchSize > 1) every batch is split
+     * across a ForkJoin pool; results are reproducible for a fixed count.
+     */
+    public void setNumThreads(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be at least 1, got " + numThreads);
+        }
+        this.numThreads = numThreads;
+    }
+    
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+    
+    /**
+     * Enable lock-free asynchronous (Hogwild-style) online training.
+     * Requires batchSize == 1; uses getNumThreads() workers that each stream a
+     * slice of the training set and update the shared weights without locks.
+     * Results are not reproducible between runs.
+     */
+    public void setAsynchronous(boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+    
+    public boolean isTrackAllocations() {
+        return trackAllocations;
+    }
+    
+    /**
+     * Record the heap bytes allocated by the training thread in every epoch
+     * (via ThreadMXBean); see getAllocatedBytesPerEpoch and checkAllocationFree
+     */
+    public void setTrackAllocations(boolean trackAllocations) {
+        this.trackAllocations = trackAllocations;
+    }
+    
+    /**
+     * Bytes allocated per epoch by the last train call, or null if tracking was off
+     */
+    public long[] getAllocatedBytesPerEpoch() {
+        return allocatedBytesPerEpoch;
+    }
+    
+    public boolean isShuffleChunks() {
+        return shuffleChunks;
+    }
+    
+    /**
+     * Visit the chunks of a streaming dataset in a new random order every epoch
+     */
+    public void setShuffleChunks(boolean shuffleChunks) {
+        this.shuffleChunks = shuffleChunks;
+    }
+    
+    public int getPrefetchChunks() {
+        return prefetchChunks;
+    }
+    
+    /**
+     * Set how many chunks of a streaming dataset are held in memory at once;
+     * with 2 or more the next chunk is read while the current one trains
+     */
+    public void setPrefetchChunks(int prefetchChunks) {
+        if (prefetchChunks < 1) {
+            throw new IllegalArgumentException("prefetchChunks must be at least 1, got " + prefetchChunks);
+        }
+        this.prefetchChunks = prefetchChunks;
+    }
+    
+    public boolean isTimePhases() {
+        return timePhases;
+    }
+    
+    /**
+     * Measure the time spent in forward, backward and update for every
+     * epoch's metrics. Mini-batch passes are timed per batch. Online epochs
+     * (or chunk passes when streaming) are timed as a whole and split between
+     * the phases in the proportions measured on one example in
+     * PHASE_SAMPLE_INTERVAL, so the clock is never read around every example.
+     */
+    public void setTimePhases(boolean timePhases) {
+        this.timePhases = timePhases;
+    }
+    
+    /**
+     * Send every epoch's metrics to sink as well as the log file. Sinks are
+     * written from a background thread and flushed, but not closed, when
+     * train returns.
+     */
+    public void addMetricsSink(MetricsSink sink) {
+        metricsSinks.add(sink);
+    }
+    
+    /**
+     * Stop sending metrics to a sink added with addMetricsSink
+     */
+    public void removeMetricsSink(MetricsSink sink) {
+        metricsSinks.remove(sink);
+    }
+    
+    /**
+     * Validate the weights on a held-out set every interval epochs. Each check
+     * copies the weights into a snapshot that is evaluated on a background
+     * thread while training continues; with restoreBestWeights on (the
+     * default) the network ends with the best validated weights.
+     * @param inputs Validation input vectors (null turns validation off)
+     * @param targets Validation target vectors
+     * @param interval Epochs between checks
+     */
+    public void setValidation(double[][] inputs, double[][] targets, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be at least 1, got " + interval);
+        }
+        this.validationInputs = inputs;
+        this.validationTargets = targets;
+        this.validationInterval = interval;
+    }
+    
+    /**
+     * Stop training once patience validations in a row have not lowered the
+     * best validation error by more than minDelta (needs setValidation).
+     * The stop takes effect an epoch or so after the deciding snapshot.
+     * @param patience Validations without improvement (0 turns early stopping off)
+     * @param minDelta Smallest decrease in validation error that counts
+     */
+    public void setEarlyStopping(int patience, double minDelta) {
+        if (patience < 0) {
+            throw new IllegalArgumentException("patience must not be negative, got " + patience);
+        }
+        this.patience = patience;
+        this.minDelta = minDelta;
+    }
+    
+    public boolean isRestoreBestWeights() {
+        return restoreBestWeights;
+    }
+    
+    /**
+     * Load the best validated weights back into the network when train returns
+     */
+    public void setRestoreBestWeights(boolean restoreBestWeights) {
+        this.restoreBestWeights = restoreBestWeights;
+    }
+    
+    /**
+     * Lowest validation error of the last train call (infinity without validation)
+     */
+    public double getBestValidationError() {
+        return validator != null ? validator.getBestError() : Double.POSITIVE_INFINITY;
+    }
+    
+    /**
+     * Epoch of the best validated weights in the last train call (-1 without validation)
+     */
+    public int getBestValidationEpoch() {
+        return validator != null ? validator.getBestEpoch() : -1;
+    }
+    
+    /**
+     * Epoch at which early stopping ended the last train call, or -1 if it ran every epoch
+     */
+    public int getStoppedEpoch() {
+        return stoppedEpoch;
+    }
+    
+    /**
+     * Save a ModelCheckpoint every interval epochs and when training ends.
+     * The weights are copied between epochs and written by a background
+     * thread; the file is replaced atomically each time.
+     * @param filename Checkpoint path (null turns checkpoints off)
+     * @param interval Epochs between checkpoints
+     */
+    public void setCheckpoint(String filename, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be at least 1, got " + interval);
+        }
+        this.checkpointFile = filename;
+        this.checkpointInterval = interval;
+    }
+    
+    public String getCheckpointFile() {
+        return checkpointFile;
+    }
+    
+    /**
+     * Publish the weights to a ModelPublisher every interval epochs and when
+     * training ends, so inference threads can serve them while training goes on.
+     * Each publication copies the weights on the training thread between epochs.
+     * @param publisher Publisher created for this network (null turns publishing off)
+     * @param interval Epochs between publications
+     */
+    public void setPublisher(ModelPublisher publisher, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be at least 1, got " + interval);
+        }
+        this.publisher = publisher;
+        this.publishInterval = interval;
+    }
+    
+    public ModelPublisher getPublisher() {
+        return publisher;
+    }
+    
     public String getLogFileName() {
         return logFileName;
     }
     
+    /**
+     * Set the per-epoch log file, or null to write no log file
+     */
     public void setLogFileName(String logFileName) {
         this.logFileName = logFileName;
     }
@@ -0,0 +1,156 @@
+/**
+ * Copy of a network's weights at one epoch.
+ * Holds one weight array per layer, so it describes any Network, from the
+ * two-layer MLPs to a deep LayeredNetwork. Capturing is one array copy per
+ * layer into buffers allocated once, so snapshots are cheap enough to take
+ * between epochs; the copy can then be evaluated or saved on another thread
+ * while the original keeps training.
+ */
+public class WeightSnapshot {
+    final int[] sizes;                // Input width followed by the width of every layer
+    final Activation[] activations;   // Activation of each layer
+    final double[][] weights;         // Layer l: sizes[l + 1] x sizes[l]+1, row-major, bias last
+    int epoch = -1;                   // Epoch the weights were captured after (-1: never captured)
+
+    /**
+     * Constructor for WeightSnapshot; allocates buffers sized for network
+     * without copying anything yet
+     * @param network Network whose shape and activations the snapshot takes
+     */
+    public WeightSnapshot(Network network) {
+        this(shapeOf(network), activationsOf(network));
+    }
+
+    WeightSnapshot(int[] sizes, Activation[] activations) {
+        this.sizes = sizes;
+        this.activations = activations;
+        this.weights = new double[activations.length][];
+        for (int l = 0; l < activations.length; l++) {
+            weights[l] = new double[sizes[l + 1] * (sizes[l] + 1)];
+        }
+    }
+
+    /**
+     * Empty snapshot, used by the background threads as an end-of-queue marker
+     */
+    static WeightSnapshot empty() {
+        return new WeightSnapshot(new int[] {0}, new Activation[0]);
+    }
+
+    /**
+     * Input width followed by the width of every layer of a network
+     */
+    static int[] shapeOf(Network network) {
+        int[] sizes = new int[network.getNumLayers() + 1];
+        sizes[0] = network.getNumInputs();
+        for (int l = 0; l < network.getNumLayers(); l++) {
+            sizes[l + 1] = network.getLayerSize(l);
+        }
+        return sizes;
+    }
+
+    private static Activation[] activationsOf(Network network) {
+        Activation[] activations = new Activation[network.getNumLayers()];
+        for (int l = 0; l < activations.length; l++) {
+            activations[l] = network.getActivation(l);
+        }
+        return activations;
+    }
+
+    /**
+     * Copy the network's current weights into this snapshot
+     * @param network Network of the same shape
+     * @param epoch Epoch the weights belong to
+     */
+    public void capture(Network network, int epoch) {
+        for (int l = 0; l < weights.length; l++) {
+            network.copyLayerWeights(l, weights[l]);
+        }
+        this.epoch = epoch;
+    }
+
+    /**
+     * Copy this snapshot's weights back into a network of the same shape
+     */
+    public void restore(Network network) {
+        for (int l = 0; l < weights.length; l++) {
+            network.setLayerWeights(l, weights[l]);
+        }
+    }
+
+    /**
+     * Copy another snapshot of the same shape into this one
+     */
+    public void copyFrom(WeightSnapshot other) {
+        for (int l = 0; l < weights.length; l++) {
+            System.arraycopy(other.weights[l], 0, weights[l], 0, weights[l].length);
+        }
+        epoch = other.epoch;
+    }
+
+    /**
+     * Whether the layers match an MLP: a sigmoid or tanh hidden layer and a
+     * sigmoid or linear output layer, all exact or all fast
+     */
+    boolean isMLP() {
+        if (activations.length != 2) {
+            return false;
+        }
+        Activation hidden = activations[0];
+        Activation output = activations[1];
+        if (hidden == Activation.SIGMOID || hidden == Activation.TANH) {
+            return output == Activation.SIGMOID || output == Activation.LINEAR;
+        }
+        if (hidden == Activation.FAST_SIGMOID || hidden == Activation.FAST_TANH) {
+            return output == Activation.FAST_SIGMOID || output == Activation.LINEAR;
+        }
+        return false;
+    }
+
+    /**
+     * Read-only inference view over this snapshot's weights: MLPInference for
+     * MLP-shaped snapshots, otherwise a LayeredInference over copies of them
+     */
+    public InferenceModel inference() {
+        if (isMLP()) {
+            boolean fast = activations[0] == Activation.FAST_SIGMOID || activations[0] == Activation.FAST_TANH;
+            return new MLPInference(sizes[0], sizes[1], sizes[2], weights[0], weights[1],
+                    activations[0] == Activation.TANH || activations[0] == Activation.FAST_TANH,
+                    activations[1] == Activation.LINEAR, fast);
+        }
+        DenseLayer[] layers = new DenseLayer[weights.length];
+        for (int l = 0; l < layers.length; l++) {
+            layers[l] = DenseLayer.create(sizes[l], sizes[l + 1], activations[l]);
+            System.arraycopy(weights[l], 0, layers[l].W, 0, weights[l].length);
+        }
+        return new LayeredInference(sizes.clone(), layers);
+    }
+
+    /**
+     * Get number of inputs
+     */
+    public int getNumInputs() {
+        return sizes[0];
+    }
+
+    /**
+     * Get number of outputs
+     */
+    public int getNumOutputs() {
+        return sizes[sizes.length - 1];
+    }
+
+    /**
+     * Get number of layers
+     */
+    public int getNumLayers() {
+        return weights.length;
+    }
+
+    /**
+     * Get the epoch the weights were captured after (-1 if never captured)
+     */
+    public int getEpoch() {
+        return epoch;
+    }
+}
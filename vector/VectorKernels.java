@@ -0,0 +1,135 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernels built on the incubating Java Vector API.
+ * Lives outside the main source folder because it needs
+ * --add-modules jdk.incubator.vector to compile and run; Kernels loads it by
+ * name and falls back to ScalarKernels when it is missing.
+ *
+ * The dot product keeps one partial sum per lane and reduces them at the end,
+ * so results differ from the scalar loop by rounding only.
+ *
+ * The int8 dot product lives in its own nested class with its own species,
+ * probed when VectorKernels loads. If that probe fails, only the int8 dot
+ * falls back to the scalar loop; the double kernels stay vectorised.
+ */
+public class VectorKernels extends Kernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    // Whether the int8 kernel works on this JVM (false: scalar int8 loop)
+    private static final boolean VECTOR_INT8 = Int8.available();
+
+    @Override
+    public double dot(double init, double[] a, int aOff, double[] b, int bOff, int n) {
+        int lanes = SPECIES.length();
+        int upper = n - n % lanes;
+        int i = 0;
+        double sum = init;
+        if (upper > 0) {
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            for (; i < upper; i += lanes) {
+                DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOff + i);
+                DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOff + i);
+                acc = va.fma(vb, acc);
+            }
+            sum += acc.reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < n; i++) {
+            sum += a[aOff + i] * b[bOff + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n) {
+        int lanes = SPECIES.length();
+        int upper = n - n % lanes;
+        int i = 0;
+        if (upper > 0) {
+            DoubleVector va = DoubleVector.broadcast(SPECIES, alpha);
+            for (; i < upper; i += lanes) {
+                DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOff + i);
+                DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOff + i);
+                vx.fma(va, vy).intoArray(y, yOff + i);
+            }
+        }
+        for (; i < n; i++) {
+            y[yOff + i] += alpha * x[xOff + i];
+        }
+    }
+
+    @Override
+    public int dot(byte[] a, int aOff, byte[] b, int bOff, int n) {
+        return VECTOR_INT8 ? Int8.dot(a, aOff, b, bOff, n) : scalarDot(a, aOff, b, bOff, n);
+    }
+
+    private static int scalarDot(byte[] a, int aOff, byte[] b, int bOff, int n) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += a[aOff + i] * b[bOff + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String name() {
+        return VECTOR_INT8 ? "vector" : "vector (scalar int8)";
+    }
+
+    /**
+     * int8 dot product: bytes are widened to ints by B2I and multiplied there.
+     * The byte species is at least 64 bits, the smallest valid byte shape, so
+     * with 128-bit ints one byte vector is widened in PARTS = 2 pieces.
+     */
+    private static final class Int8 {
+        static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+        static final VectorSpecies<Byte> BYTES = VectorSpecies.of(byte.class,
+                VectorShape.forBitSize(Math.max(64, INTS.vectorBitSize() / 4)));
+        static final int PARTS = BYTES.length() / INTS.length();
+
+        /**
+         * Load the species and check one product against the scalar loop
+         */
+        static boolean available() {
+            try {
+                byte[] a = new byte[67];
+                byte[] b = new byte[67];
+                for (int i = 0; i < a.length; i++) {
+                    a[i] = (byte) (i * 37 - 128);
+                    b[i] = (byte) (100 - i * 3);
+                }
+                return dot(a, 1, b, 2, 65) == scalarDot(a, 1, b, 2, 65);
+            } catch (RuntimeException | LinkageError e) {
+                return false;
+            }
+        }
+
+        static int dot(byte[] a, int aOff, byte[] b, int bOff, int n) {
+            int lanes = BYTES.length();
+            int upper = n - n % lanes;
+            int i = 0;
+            int sum = 0;
+            if (upper > 0) {
+                IntVector acc = IntVector.zero(INTS);
+                for (; i < upper; i += lanes) {
+                    ByteVector va = ByteVector.fromArray(BYTES, a, aOff + i);
+                    ByteVector vb = ByteVector.fromArray(BYTES, b, bOff + i);
+                    for (int part = 0; part < PARTS; part++) {
+                        IntVector ia = (IntVector) va.convertShape(VectorOperators.B2I, INTS, part);
+                        IntVector ib = (IntVector) vb.convertShape(VectorOperators.B2I, INTS, part);
+                        acc = acc.add(ia.mul(ib));
+                    }
+                }
+                sum = acc.reduceLanes(VectorOperators.ADD);
+            }
+            for (; i < n; i++) {
+                sum += a[aOff + i] * b[bOff + i];
+            }
+            return sum;
+        }
+    }
+}